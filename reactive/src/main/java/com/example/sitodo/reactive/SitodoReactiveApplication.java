@@ -0,0 +1,21 @@
+package com.example.sitodo.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Serves the list pages of Sitodo (show a list, add an item, mark an item as (not) finished) on
+ * WebFlux and R2DBC, so that waiting for the database or for slow clients does not hold a thread.
+ *
+ * <p>It runs next to the servlet application, on the same database and with the same page
+ * templates. The schema is owned by the servlet application's Liquibase changelog; only the
+ * embedded H2 database used for development is created from {@code schema.sql}. Changes made here
+ * do not reach the servlet application's in-memory search index or page cache until it restarts.
+ */
+@SpringBootApplication
+public class SitodoReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(SitodoReactiveApplication.class, args);
+    }
+}
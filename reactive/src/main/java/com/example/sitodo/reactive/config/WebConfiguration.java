@@ -0,0 +1,19 @@
+package com.example.sitodo.reactive.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Serves Bootstrap at the path the shared page fragments link to. The servlet application copies
+ * it out of the webjar at build time; here it is served from the webjar.
+ */
+@Configuration
+public class WebConfiguration implements WebFluxConfigurer {
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/vendor/bootstrap/**")
+            .addResourceLocations("classpath:/META-INF/resources/webjars/bootstrap/5.2.1/");
+    }
+}
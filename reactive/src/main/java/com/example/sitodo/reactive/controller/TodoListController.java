@@ -0,0 +1,120 @@
+package com.example.sitodo.reactive.controller;
+
+import com.example.sitodo.reactive.dto.TodoListDto;
+import com.example.sitodo.reactive.form.TodoItemForm;
+import com.example.sitodo.reactive.service.MotivationMessageService;
+import com.example.sitodo.reactive.service.TodoListService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.NoSuchElementException;
+
+/**
+ * The list pages of the servlet application's {@code TodoListController}, with the same URLs.
+ * The pages are rendered by Thymeleaf's reactive view, which writes the response without
+ * blocking.
+ */
+@Controller
+@Slf4j
+public class TodoListController {
+
+    private TodoListService todoListService;
+
+    private MotivationMessageService motivationMessageService;
+
+    @Autowired
+    public void setTodoListService(TodoListService todoListService) {
+        this.todoListService = todoListService;
+    }
+
+    @Autowired
+    public void setMotivationMessageService(MotivationMessageService motivationMessageService) {
+        this.motivationMessageService = motivationMessageService;
+    }
+
+    @GetMapping("/list")
+    public String showList(Model model) {
+        model.addAttribute("todoItemForm", new TodoItemForm());
+        model.addAttribute("motivationMessage", motivationMessageService.computeMotivationMessage(0, 0));
+
+        return "list";
+    }
+
+    @GetMapping("/list/{id}")
+    public Mono<String> showList(@PathVariable("id") Long id, Model model) {
+        model.addAttribute("todoItemForm", new TodoItemForm());
+
+        return todoListService.getTodoListById(id).map(foundTodoList -> {
+            log.debug("Show list with ID {}", foundTodoList.id());
+            addTodoList(model, foundTodoList);
+
+            return "list";
+        });
+    }
+
+    @PostMapping("/list")
+    public Mono<String> newItem(@Valid TodoItemForm todoItemForm, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            bindingResult.getAllErrors().forEach(error -> log.warn("{}", error));
+            return Mono.just("list");
+        }
+
+        return todoListService.addTodoItem(todoItemForm).map(saved -> {
+            log.debug("Saved a new item into a new list (ID: {})", saved.id());
+
+            return redirectToList(saved.id());
+        });
+    }
+
+    @PostMapping("/list/{id}")
+    public Mono<String> newItem(@PathVariable("id") Long id, @Valid TodoItemForm todoItemForm,
+                                BindingResult bindingResult, Model model) {
+        if (bindingResult.hasErrors()) {
+            bindingResult.getAllErrors().forEach(error -> log.warn("{}", error));
+
+            return todoListService.getTodoListById(id).map(foundTodoList -> {
+                addTodoList(model, foundTodoList);
+
+                return "list";
+            });
+        }
+
+        return todoListService.addTodoItem(id, todoItemForm).map(saved -> {
+            log.debug("Saved a new item into a list (ID {})", saved.id());
+
+            return redirectToList(saved.id());
+        });
+    }
+
+    @GetMapping("/list/{list_id}/update/{item_id}")
+    public Mono<String> updateItem(@PathVariable("list_id") Long listId,
+                                   @PathVariable("item_id") Long itemId,
+                                   @RequestParam("finished") Boolean finished) {
+        return todoListService.setTodoItemFinished(listId, itemId, finished).map(updated -> {
+            log.debug("Updated an item in a list with ID {}", updated.id());
+
+            return redirectToList(updated.id());
+        });
+    }
+
+    @ExceptionHandler
+    public String handleException(NoSuchElementException exception) {
+        return "404";
+    }
+
+    private void addTodoList(Model model, TodoListDto todoList) {
+        model.addAttribute("todoList", todoList);
+        model.addAttribute("motivationMessage", motivationMessageService.computeMotivationMessage(
+            todoList.countTotal(), todoList.countFinishedItems()));
+    }
+
+    private String redirectToList(Long id) {
+        return String.format("redirect:/list/%d", id);
+    }
+}
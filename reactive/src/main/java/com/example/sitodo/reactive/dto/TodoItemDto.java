@@ -0,0 +1,20 @@
+package com.example.sitodo.reactive.dto;
+
+import java.time.Instant;
+
+/**
+ * @param dueAt when the item is due, or {@code null} if it has no due time
+ */
+public record TodoItemDto(Long id, String title, Boolean finished, Instant dueAt) {
+
+    public TodoItemDto(Long id, String title, Boolean finished) {
+        this(id, title, finished, null);
+    }
+
+    /**
+     * An item is overdue once its due time has passed while it is not finished.
+     */
+    public boolean isOverdue() {
+        return dueAt != null && !Boolean.TRUE.equals(finished) && !dueAt.isAfter(Instant.now());
+    }
+}
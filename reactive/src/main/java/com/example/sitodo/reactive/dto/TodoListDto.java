@@ -0,0 +1,17 @@
+package com.example.sitodo.reactive.dto;
+
+import java.util.List;
+
+/**
+ * @param items the items in display order
+ */
+public record TodoListDto(Long id, List<TodoItemDto> items) {
+
+    public Long countTotal() {
+        return (long) items.size();
+    }
+
+    public Long countFinishedItems() {
+        return items.stream().filter(TodoItemDto::finished).count();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.sitodo.reactive.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * A row of the {@code todo_item} table, with the same meaning of the columns as the entity of the
+ * servlet application.
+ */
+@Data
+@Table("todo_item")
+@NoArgsConstructor
+public class TodoItem {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private Boolean finished = Boolean.FALSE;
+
+    private Instant finishedAt;
+
+    private Instant dueAt;
+
+    private Boolean dueHandled = Boolean.FALSE;
+
+    private Long todoListId;
+
+    private Long sortKey;
+
+    private Long changeVersion = 0L;
+}
@@ -0,0 +1,22 @@
+package com.example.sitodo.reactive.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Table("todo_list")
+@NoArgsConstructor
+public class TodoList {
+
+    @Id
+    private Long id;
+
+    /**
+     * Only changed through
+     * {@link com.example.sitodo.reactive.repository.TodoListRepository#incrementVersion(Long)}, like
+     * in the servlet application.
+     */
+    private Long version = 0L;
+}
@@ -0,0 +1,31 @@
+package com.example.sitodo.reactive.repository;
+
+import com.example.sitodo.reactive.model.TodoItem;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Repository
+public interface TodoItemRepository extends ReactiveCrudRepository<TodoItem, Long> {
+
+    @Query("SELECT * FROM todo_item WHERE todo_list_id = :listId ORDER BY sort_key")
+    Flux<TodoItem> findByTodoListId(@Param("listId") Long listId);
+
+    @Query("SELECT COALESCE(MAX(sort_key), 0) FROM todo_item WHERE todo_list_id = :listId")
+    Mono<Long> findMaxSortKey(@Param("listId") Long listId);
+
+    @Modifying
+    @Query("""
+        UPDATE todo_item SET finished = :finished, finished_at = :finishedAt, change_version = :version
+        WHERE id = :itemId AND todo_list_id = :listId
+        """)
+    Mono<Integer> setFinished(@Param("listId") Long listId, @Param("itemId") Long itemId,
+                              @Param("finished") boolean finished, @Param("finishedAt") Instant finishedAt,
+                              @Param("version") long version);
+}
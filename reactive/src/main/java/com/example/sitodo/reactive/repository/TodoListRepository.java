@@ -0,0 +1,26 @@
+package com.example.sitodo.reactive.repository;
+
+import com.example.sitodo.reactive.model.TodoList;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface TodoListRepository extends ReactiveCrudRepository<TodoList, Long> {
+
+    @Query("SELECT version FROM todo_list WHERE id = :id")
+    Mono<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Locks the list until the end of the transaction, so that concurrent writers of the list run
+     * one after the other and never end up with the same version.
+     *
+     * @return the number of updated lists, 0 if there is no such list
+     */
+    @Modifying
+    @Query("UPDATE todo_list SET version = version + 1 WHERE id = :id")
+    Mono<Integer> incrementVersion(@Param("id") Long id);
+}
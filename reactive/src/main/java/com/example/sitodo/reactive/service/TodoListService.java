@@ -0,0 +1,28 @@
+package com.example.sitodo.reactive.service;
+
+import com.example.sitodo.reactive.dto.TodoListDto;
+import com.example.sitodo.reactive.form.TodoItemForm;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The list operations of the servlet application's {@code TodoListService} that the list pages
+ * need. A list that does not exist is signalled as a {@link NoSuchElementException}.
+ */
+public interface TodoListService {
+
+    Mono<TodoListDto> getTodoListById(Long id);
+
+    /**
+     * Creates a new list with one item.
+     */
+    Mono<TodoListDto> addTodoItem(TodoItemForm todoItemForm);
+
+    Mono<TodoListDto> addTodoItem(Long listId, TodoItemForm todoItemForm);
+
+    /**
+     * Like the servlet application, marking an item that is not in the list changes nothing.
+     */
+    Mono<TodoListDto> setTodoItemFinished(Long listId, Long itemId, Boolean finished);
+}
@@ -0,0 +1,113 @@
+package com.example.sitodo.reactive.service.impl;
+
+import com.example.sitodo.reactive.dto.TodoItemDto;
+import com.example.sitodo.reactive.dto.TodoListDto;
+import com.example.sitodo.reactive.form.TodoItemForm;
+import com.example.sitodo.reactive.model.TodoItem;
+import com.example.sitodo.reactive.model.TodoList;
+import com.example.sitodo.reactive.repository.TodoItemRepository;
+import com.example.sitodo.reactive.repository.TodoListRepository;
+import com.example.sitodo.reactive.service.TodoListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.NoSuchElementException;
+
+/**
+ * Writes the lists the way the servlet application's {@code TodoListServiceImpl} does, so that
+ * both can run on the same database: every change increments the version of its list first,
+ * which also locks the list, and stamps the changed items with the new version for delta sync.
+ */
+@Service
+@Transactional
+public class TodoListServiceImpl implements TodoListService {
+
+    /**
+     * The distance between the sort keys of appended items, as in the servlet application.
+     */
+    static final long SORT_KEY_GAP = 1L << 16;
+
+    private TodoListRepository todoListRepository;
+
+    private TodoItemRepository todoItemRepository;
+
+    @Autowired
+    public void setTodoListRepository(TodoListRepository todoListRepository) {
+        this.todoListRepository = todoListRepository;
+    }
+
+    @Autowired
+    public void setTodoItemRepository(TodoItemRepository todoItemRepository) {
+        this.todoItemRepository = todoItemRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<TodoListDto> getTodoListById(Long id) {
+        return todoListRepository.existsById(id)
+            .filter(Boolean::booleanValue)
+            .switchIfEmpty(Mono.error(NoSuchElementException::new))
+            .flatMap(exists -> findTodoList(id));
+    }
+
+    @Override
+    public Mono<TodoListDto> addTodoItem(TodoItemForm todoItemForm) {
+        return todoListRepository.save(new TodoList())
+            .flatMap(todoList -> todoItemRepository.save(createTodoItem(todoList.getId(), todoItemForm, SORT_KEY_GAP, 0L))
+                .then(findTodoList(todoList.getId())));
+    }
+
+    @Override
+    public Mono<TodoListDto> addTodoItem(Long listId, TodoItemForm todoItemForm) {
+        return incrementVersion(listId)
+            .flatMap(version -> todoItemRepository.findMaxSortKey(listId)
+                .flatMap(maxSortKey -> todoItemRepository.save(
+                    createTodoItem(listId, todoItemForm, maxSortKey + SORT_KEY_GAP, version))))
+            .then(findTodoList(listId));
+    }
+
+    @Override
+    public Mono<TodoListDto> setTodoItemFinished(Long listId, Long itemId, Boolean finished) {
+        boolean isFinished = Boolean.TRUE.equals(finished);
+
+        return incrementVersion(listId)
+            .flatMap(version -> todoItemRepository.setFinished(listId, itemId, isFinished,
+                isFinished ? Instant.now() : null, version))
+            .then(findTodoList(listId));
+    }
+
+    /**
+     * @return the new version of the list, or a {@link NoSuchElementException}
+     */
+    private Mono<Long> incrementVersion(Long listId) {
+        return todoListRepository.incrementVersion(listId)
+            .filter(updated -> updated > 0)
+            .switchIfEmpty(Mono.error(NoSuchElementException::new))
+            .flatMap(updated -> todoListRepository.findVersionById(listId));
+    }
+
+    private Mono<TodoListDto> findTodoList(Long listId) {
+        return todoItemRepository.findByTodoListId(listId)
+            .map(item -> new TodoItemDto(item.getId(), item.getTitle(), item.getFinished(), item.getDueAt()))
+            .collectList()
+            .map(items -> new TodoListDto(listId, items));
+    }
+
+    private static TodoItem createTodoItem(Long listId, TodoItemForm todoItemForm, long sortKey, long version) {
+        TodoItem todoItem = new TodoItem();
+        todoItem.setTitle(todoItemForm.getTitle());
+        todoItem.setTodoListId(listId);
+        todoItem.setSortKey(sortKey);
+        todoItem.setChangeVersion(version);
+
+        if (todoItemForm.getDueAt() != null) {
+            todoItem.setDueAt(todoItemForm.getDueAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        return todoItem;
+    }
+}
@@ -0,0 +1,24 @@
+-- The tables of the list pages, as created by the servlet application's Liquibase changelog
+CREATE SEQUENCE IF NOT EXISTS hibernate_sequence AS BIGINT START WITH 1 INCREMENT BY 1 MINVALUE 1;
+
+CREATE TABLE IF NOT EXISTS todo_list (
+    id BIGINT DEFAULT NEXT VALUE FOR hibernate_sequence NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_todo_list PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS todo_item (
+    id BIGINT DEFAULT NEXT VALUE FOR hibernate_sequence NOT NULL,
+    title VARCHAR NOT NULL,
+    finished BOOLEAN DEFAULT FALSE,
+    finished_at TIMESTAMP,
+    due_at TIMESTAMP,
+    due_handled BOOLEAN DEFAULT FALSE NOT NULL,
+    todo_list_id BIGINT,
+    sort_key BIGINT,
+    change_version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_todo_item PRIMARY KEY (id),
+    CONSTRAINT fk_todo_item_todo_list FOREIGN KEY (todo_list_id) REFERENCES todo_list (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_item_list_sort_key ON todo_item (todo_list_id, sort_key);
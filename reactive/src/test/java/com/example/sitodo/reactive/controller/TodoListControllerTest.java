@@ -0,0 +1,105 @@
+package com.example.sitodo.reactive.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.net.URI;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest
+@AutoConfigureWebTestClient
+class TodoListControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Given a new item, it should be saved into a new list and shown on the list's page")
+    void newItem_newList() {
+        URI location = addItem("/list", "Buy milk");
+
+        assertTrue(location.getPath().matches("/list/\\d+"));
+        assertPage(location.getPath(), "Buy milk", "You have too few tasks! You have not finished any of your tasks!");
+    }
+
+    @Test
+    @DisplayName("Given items added to a list and one marked as finished, the page should show them in order")
+    void newItem_updateItem() {
+        String listPath = addItem("/list", "Buy milk").getPath();
+        addItem(listPath, "Cut grass");
+        String itemId = Objects.requireNonNull(webTestClient.get().uri(listPath).exchange()
+            .expectBody(String.class).returnResult().getResponseBody())
+            .replaceAll("(?s).*?<td>(\\d+)</td>.*", "$1");
+
+        webTestClient.get().uri(listPath + "/update/" + itemId + "?finished=true").exchange()
+            .expectStatus().is3xxRedirection()
+            .expectHeader().location(listPath);
+
+        String page = assertPage(listPath, "Cut grass", "You have finished half of your tasks!");
+        assertTrue(page.indexOf("Buy milk") < page.indexOf("Cut grass"));
+        assertTrue(page.contains("Finished"));
+    }
+
+    @Test
+    @DisplayName("Given a blank title, the list page should be shown again with the error")
+    void newItem_blankTitle() {
+        String listPath = addItem("/list", "Buy milk").getPath();
+
+        webTestClient.post().uri(listPath)
+            .body(BodyInserters.fromFormData("title", ""))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).value(page -> {
+                assertTrue(page.contains("Buy milk"));
+                assertTrue(page.contains("must not be blank"));
+            });
+    }
+
+    @Test
+    @DisplayName("Given a non-existent list, the not found page should be shown")
+    void showList_notFound() {
+        webTestClient.get().uri("/list/-1").exchange()
+            .expectBody(String.class).value(page -> assertTrue(page.contains("404 Not Found")));
+    }
+
+    @Test
+    @DisplayName("The stylesheet linked by the shared page fragments should be served")
+    void vendorAssets() {
+        webTestClient.get().uri("/vendor/bootstrap/dist/css/bootstrap.css").exchange()
+            .expectStatus().isOk();
+    }
+
+    private URI addItem(String path, String title) {
+        URI location = webTestClient.post().uri(path)
+            .body(BodyInserters.fromFormData("title", title))
+            .exchange()
+            .expectStatus().is3xxRedirection()
+            .returnResult(Void.class)
+            .getResponseHeaders().getLocation();
+
+        assertNotNull(location);
+        return location;
+    }
+
+    private String assertPage(String path, String... texts) {
+        String page = webTestClient.get().uri(path).exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(page);
+        for (String text : texts) {
+            assertTrue(page.contains(text), text);
+        }
+
+        return page;
+    }
+}
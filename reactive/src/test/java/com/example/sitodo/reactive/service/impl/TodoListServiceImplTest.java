@@ -0,0 +1,120 @@
+package com.example.sitodo.reactive.service.impl;
+
+import com.example.sitodo.reactive.dto.TodoItemDto;
+import com.example.sitodo.reactive.dto.TodoListDto;
+import com.example.sitodo.reactive.form.TodoItemForm;
+import com.example.sitodo.reactive.repository.TodoItemRepository;
+import com.example.sitodo.reactive.repository.TodoListRepository;
+import com.example.sitodo.reactive.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest
+class TodoListServiceImplTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+
+    @Test
+    @DisplayName("Given items added to a list, each change should increment the version and stamp the item with it")
+    void addTodoItem_versions() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk")).block();
+        assertNotNull(todoList);
+        Long listId = todoList.id();
+
+        TodoListDto updated = todoListService.addTodoItem(listId, createTodoItemForm("Cut grass")).block();
+        assertNotNull(updated);
+
+        assertEquals(List.of("Buy milk", "Cut grass"), updated.items().stream().map(TodoItemDto::title).toList());
+        assertEquals(1L, todoListRepository.findVersionById(listId).block());
+        StepVerifier.create(todoItemRepository.findByTodoListId(listId))
+            .assertNext(item -> {
+                assertEquals(0L, item.getChangeVersion());
+                assertEquals(TodoListServiceImpl.SORT_KEY_GAP, item.getSortKey());
+            })
+            .assertNext(item -> {
+                assertEquals(1L, item.getChangeVersion());
+                assertEquals(2 * TodoListServiceImpl.SORT_KEY_GAP, item.getSortKey());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Given an item with a due time, it should be saved with it")
+    void addTodoItem_dueAt() {
+        TodoItemForm todoItemForm = createTodoItemForm("Buy milk");
+        todoItemForm.setDueAt(LocalDateTime.of(2024, 1, 31, 17, 0));
+
+        TodoListDto todoList = todoListService.addTodoItem(todoItemForm).block();
+
+        assertNotNull(todoList);
+        assertTrue(todoList.items().get(0).isOverdue());
+    }
+
+    @Test
+    @DisplayName("Given an item marked as finished and not finished again, its finish time should be set and cleared")
+    void setTodoItemFinished() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk")).block();
+        assertNotNull(todoList);
+        Long listId = todoList.id();
+        Long itemId = todoList.items().get(0).id();
+
+        StepVerifier.create(todoListService.setTodoItemFinished(listId, itemId, true))
+            .assertNext(updated -> assertEquals(1L, updated.countFinishedItems()))
+            .verifyComplete();
+        assertNotNull(todoItemRepository.findById(itemId).map(item -> item.getFinishedAt()).block());
+
+        StepVerifier.create(todoListService.setTodoItemFinished(listId, itemId, false))
+            .assertNext(updated -> assertEquals(0L, updated.countFinishedItems()))
+            .verifyComplete();
+        assertEquals(2L, todoItemRepository.findById(itemId).map(item -> item.getChangeVersion()).block());
+    }
+
+    @Test
+    @DisplayName("Given an item of another list, marking it as finished should change nothing")
+    void setTodoItemFinished_otherList() {
+        TodoListDto first = todoListService.addTodoItem(createTodoItemForm("Buy milk")).block();
+        TodoListDto second = todoListService.addTodoItem(createTodoItemForm("Cut grass")).block();
+        assertNotNull(first);
+        assertNotNull(second);
+
+        StepVerifier.create(todoListService.setTodoItemFinished(first.id(), second.items().get(0).id(), true))
+            .assertNext(updated -> assertEquals(0L, updated.countFinishedItems()))
+            .verifyComplete();
+        assertFalse(todoItemRepository.findById(second.items().get(0).id()).map(item -> item.getFinished()).block());
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, the operations should signal NoSuchElementException")
+    void nonExistentList() {
+        StepVerifier.create(todoListService.getTodoListById(-1L)).verifyError(NoSuchElementException.class);
+        StepVerifier.create(todoListService.addTodoItem(-1L, createTodoItemForm("Buy milk")))
+            .verifyError(NoSuchElementException.class);
+        StepVerifier.create(todoListService.setTodoItemFinished(-1L, 1L, true))
+            .verifyError(NoSuchElementException.class);
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
@@ -0,0 +1,109 @@
+#!/usr/bin/env sh
+# Measures throughput per CPU core and memory per open connection while many clients read one
+# list page. Requires wrk (https://github.com/wg/wrk).
+#
+# Usage: scripts/load-test.sh [connections] [duration] [-- command to start the application]
+#
+# Examples:
+#   scripts/load-test.sh 1000 30s
+#   JAVA_OPTS="-Dspring.profiles.active=high-fan-in" scripts/load-test.sh 1000 30s
+#   JAVA_OPTS="-Dspring.profiles.active=memory" scripts/load-test.sh 1000 30s
+#   JAVA_OPTS="-Dsitodo.page-cache.enabled=false" scripts/load-test.sh 1000 30s
+#   scripts/load-test.sh 1000 30s -- java -Dserver.port=8080 -jar reactive/target/sitodo-reactive-*.jar
+#
+# The last example measures the WebFlux + R2DBC list pages in reactive/, build them with
+# './mvnw -f reactive/pom.xml -DskipTests package' first. Set WARMUP to warm the application up
+# for longer than 10s before measuring, e.g. WARMUP=2m on machines with few cores, where the JIT
+# compiler competes with the requests for CPU time.
+#
+# Run it once per configuration on the same machine and compare the "per core" and
+# "per connection" lines. CPU time and memory are read from /proc, so this only works on Linux.
+set -eu
+
+CONNECTIONS="${1:-1000}"
+[ $# -gt 0 ] && shift
+DURATION="${1:-30s}"
+[ $# -gt 0 ] && shift
+[ "${1:-}" = "--" ] && shift
+
+PORT="${PORT:-8080}"
+BASE_URL="http://localhost:${PORT}"
+THREADS="${THREADS:-4}"
+WARMUP="${WARMUP:-10s}"
+
+if ! command -v wrk > /dev/null; then
+    echo "wrk is required, see https://github.com/wg/wrk" >&2
+    exit 1
+fi
+
+if [ $# -eq 0 ]; then
+    JAR=$(ls target/sitodo-*.jar 2>/dev/null | head -n 1)
+    if [ -z "${JAR}" ]; then
+        echo "No application jar found, run './mvnw -DskipTests package' first" >&2
+        exit 1
+    fi
+    # shellcheck disable=SC2086
+    set -- java ${JAVA_OPTS:-} -Dserver.port="${PORT}" -Dsitodo.rate-limit.enabled=false -jar "${JAR}"
+fi
+
+# Prints the resident set size of a process in KiB
+rss_kib() {
+    awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+}
+
+# Prints the CPU time (user + system) used by a process in clock ticks
+cpu_ticks() {
+    awk '{ print $14 + $15 }' "/proc/$1/stat"
+}
+
+"$@" > /dev/null 2>&1 &
+pid=$!
+trap 'kill "${pid}" 2> /dev/null || true' EXIT
+
+until curl --silent --fail --output /dev/null "${BASE_URL}/list"; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+        echo "The application exited before serving a request" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+
+LIST_PATH=$(curl --silent --output /dev/null --write-out '%{redirect_url}' --data 'title=Load test' "${BASE_URL}/list")
+LIST_URL="${BASE_URL}${LIST_PATH#"${BASE_URL}"}"
+
+# Warm up, so that the measured run is not dominated by JIT compilation
+wrk -t "${THREADS}" -c 50 -d "${WARMUP}" "${LIST_URL}" > /dev/null
+
+idle_rss=$(rss_kib "${pid}")
+start_ticks=$(cpu_ticks "${pid}")
+
+peak_file=$(mktemp)
+echo "${idle_rss}" > "${peak_file}"
+(
+    while kill -0 "${pid}" 2> /dev/null; do
+        rss=$(rss_kib "${pid}")
+        [ "${rss}" -gt "$(cat "${peak_file}")" ] && echo "${rss}" > "${peak_file}"
+        sleep 0.5
+    done
+) &
+sampler=$!
+
+result=$(wrk -t "${THREADS}" -c "${CONNECTIONS}" -d "${DURATION}" --latency "${LIST_URL}")
+end_ticks=$(cpu_ticks "${pid}")
+kill "${sampler}" 2> /dev/null || true
+peak_rss=$(cat "${peak_file}")
+rm -f "${peak_file}"
+
+echo "${result}"
+
+requests=$(echo "${result}" | awk '/requests in/ { print $1 }')
+ticks_per_second=$(getconf CLK_TCK)
+
+awk -v requests="${requests}" -v ticks="$((end_ticks - start_ticks))" -v hz="${ticks_per_second}" \
+    -v idle="${idle_rss}" -v peak="${peak_rss}" -v connections="${CONNECTIONS}" 'BEGIN {
+    cpu_seconds = ticks / hz
+    printf "CPU time used:         %.1f s\n", cpu_seconds
+    printf "Requests per core:     %.0f requests per CPU second\n", (cpu_seconds > 0 ? requests / cpu_seconds : 0)
+    printf "Memory:                %d KiB idle, %d KiB peak\n", idle, peak
+    printf "Memory per connection: %.1f KiB\n", (peak - idle) / connections
+}'
@@ -0,0 +1,51 @@
+#!/usr/bin/env sh
+# Measures the time from launching the application until the first successful request.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [-- command to start the application]
+#
+# Examples:
+#   scripts/startup-benchmark.sh 5
+#   scripts/startup-benchmark.sh 5 -- docker run --rm -p 8080:8080 sitodo
+#   JAVA_OPTS="-Dspring.profiles.active=startup" scripts/startup-benchmark.sh 5
+set -eu
+
+RUNS="${1:-5}"
+[ $# -gt 0 ] && shift
+[ "${1:-}" = "--" ] && shift
+
+PORT="${PORT:-8080}"
+URL="${URL:-http://localhost:${PORT}/list}"
+
+if [ $# -eq 0 ]; then
+    JAR=$(ls target/sitodo-*.jar 2>/dev/null | head -n 1)
+    if [ -z "${JAR}" ]; then
+        echo "No application jar found, run './mvnw -DskipTests package' first" >&2
+        exit 1
+    fi
+    # shellcheck disable=SC2086
+    set -- java ${JAVA_OPTS:-} -Dserver.port="${PORT}" -jar "${JAR}"
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+for run in $(seq 1 "${RUNS}"); do
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+
+    until curl --silent --fail --output /dev/null "${URL}"; do
+        if ! kill -0 "${pid}" 2> /dev/null; then
+            echo "Run ${run}: application exited before serving a request" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+
+    end=$(now_ms)
+    echo "Run ${run}: first successful request after $((end - start)) ms"
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+done
@@ -0,0 +1,16 @@
+package com.example.sitodo.cache;
+
+/**
+ * A fully rendered page of a list, as it was sent to the client.
+ *
+ * @param version the version of the list the page was rendered from
+ * @param contentType the value of the {@code Content-Type} header
+ * @param body the rendered page
+ * @param gzippedBody the rendered page compressed with gzip, or {@code null} if not available
+ */
+public record RenderedPage(long version, String contentType, byte[] body, byte[] gzippedBody) {
+
+    public long sizeInBytes() {
+        return body.length + (gzippedBody == null ? 0L : gzippedBody.length);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.sitodo.cache;
+
+import com.example.sitodo.event.TodoListChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most recently used rendered list pages in memory, bounded by their total size.
+ *
+ * <p>Each list has at most one entry. An entry is only returned for the list version it was
+ * rendered from, so a page is never served after its list has changed, even if the
+ * invalidation of the entry has not happened yet.
+ */
+public class RenderedPageCache implements MeterBinder {
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Long, RenderedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public RenderedPageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached page of a list if it was rendered from the given version.
+     *
+     * @param listId
+     * @param version
+     * @return the cached page, or {@code null} if there is no page for that version
+     */
+    public synchronized RenderedPage get(Long listId, long version) {
+        RenderedPage page = pages.get(listId);
+
+        if (page == null || page.version() != version) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return page;
+    }
+
+    public synchronized void put(Long listId, RenderedPage page) {
+        if (page.sizeInBytes() > maxBytes) {
+            return;
+        }
+
+        RenderedPage current = pages.get(listId);
+        if (current != null && current.version() > page.version()) {
+            return;
+        }
+
+        removeEntry(listId);
+        pages.put(listId, page);
+        totalBytes += page.sizeInBytes();
+
+        Iterator<Map.Entry<Long, RenderedPage>> leastRecentlyUsed = pages.entrySet().iterator();
+        while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            totalBytes -= leastRecentlyUsed.next().getValue().sizeInBytes();
+            leastRecentlyUsed.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(Long listId) {
+        removeEntry(listId);
+    }
+
+    @EventListener
+    public void onTodoListChanged(TodoListChangedEvent event) {
+        invalidate(event.listId());
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sitodo.page.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .description("Lookups of rendered list pages")
+            .register(registry);
+        FunctionCounter.builder("sitodo.page.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .description("Lookups of rendered list pages")
+            .register(registry);
+        FunctionCounter.builder("sitodo.page.cache.evictions", evictions, LongAdder::sum)
+            .description("Rendered list pages evicted to stay within the size limit")
+            .register(registry);
+        Gauge.builder("sitodo.page.cache.size", this, RenderedPageCache::getTotalBytes)
+            .baseUnit(BaseUnits.BYTES)
+            .description("Memory used by the cached rendered list pages")
+            .register(registry);
+        Gauge.builder("sitodo.page.cache.entries", this, RenderedPageCache::size)
+            .description("Number of cached rendered list pages")
+            .register(registry);
+        Gauge.builder("sitodo.page.cache.hit.ratio", this, RenderedPageCache::getHitRate)
+            .description("Ratio of lookups served from the cache")
+            .register(registry);
+    }
+
+    private void removeEntry(Long listId) {
+        RenderedPage removed = pages.remove(listId);
+
+        if (removed != null) {
+            totalBytes -= removed.sizeInBytes();
+        }
+    }
+}
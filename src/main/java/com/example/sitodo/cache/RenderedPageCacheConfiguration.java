@@ -0,0 +1,31 @@
+package com.example.sitodo.cache;
+
+import com.example.sitodo.hotlist.HotListTracker;
+import com.example.sitodo.service.TodoListService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sitodo.page-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class RenderedPageCacheConfiguration {
+
+    @Bean
+    public RenderedPageCache renderedPageCache(@Value("${sitodo.page-cache.max-size:16MB}") DataSize maxSize) {
+        return new RenderedPageCache(maxSize.toBytes());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RenderedPageCacheFilter> renderedPageCacheFilter(
+        RenderedPageCache renderedPageCache, TodoListService todoListService, HotListTracker hotListTracker,
+        @Value("${sitodo.page-cache.gzip:true}") boolean gzipEnabled) {
+        FilterRegistrationBean<RenderedPageCacheFilter> registration = new FilterRegistrationBean<>(
+            new RenderedPageCacheFilter(renderedPageCache, todoListService, hotListTracker, gzipEnabled));
+        registration.addUrlPatterns("/list/*");
+
+        return registration;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.sitodo.cache;
+
+import com.example.sitodo.hotlist.HotListTracker;
+import com.example.sitodo.service.TodoListService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves {@code GET /list/{id}} from a {@link RenderedPageCache} when the list has not changed
+ * since the page was rendered, without going through the controller and Thymeleaf.
+ *
+ * <p>Only the version of the list is read from the database on each request. On a miss, the
+ * request is handled as usual and the rendered response is stored in the cache.
+ */
+@Slf4j
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern LIST_PATH = Pattern.compile("^/list/(\\d+)$");
+
+    private final RenderedPageCache cache;
+
+    private final TodoListService todoListService;
+
+    private final HotListTracker hotListTracker;
+
+    private final boolean gzipEnabled;
+
+    public RenderedPageCacheFilter(RenderedPageCache cache, TodoListService todoListService,
+                                   HotListTracker hotListTracker, boolean gzipEnabled) {
+        this.cache = cache;
+        this.todoListService = todoListService;
+        this.hotListTracker = hotListTracker;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long listId = findListId(request);
+
+        if (listId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long version;
+        try {
+            version = todoListService.getTodoListVersion(listId);
+        } catch (NoSuchElementException exception) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RenderedPage cachedPage = cache.get(listId, version);
+        if (cachedPage != null) {
+            log.debug("Serving list with ID {} (version {}) from the page cache", listId, version);
+            // The list is not loaded through the service, so count the read here
+            hotListTracker.recordRead(listId);
+            writePage(cachedPage, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+
+        if (isCacheable(responseWrapper)) {
+            byte[] body = responseWrapper.getContentAsByteArray();
+            cache.put(listId, new RenderedPage(version, responseWrapper.getContentType(), body,
+                gzipEnabled ? gzip(body) : null));
+        }
+
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static Long findListId(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+
+        Matcher matcher = LIST_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static boolean isCacheable(HttpServletResponse response) {
+        String contentType = response.getContentType();
+
+        return response.getStatus() == HttpServletResponse.SC_OK
+            && contentType != null
+            && MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private static void writePage(RenderedPage page, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        byte[] content = page.body();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+
+        if (page.gzippedBody() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            content = page.gzippedBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(page.contentType());
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4);
+
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(content);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return output.toByteArray();
+    }
+}
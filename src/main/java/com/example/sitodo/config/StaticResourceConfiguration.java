@@ -0,0 +1,161 @@
+package com.example.sitodo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves static assets under content-hash versioned URLs (e.g.
+ * {@code /vendor/bootstrap/dist/css/bootstrap-<md5>.css}) so that browsers can cache them forever.
+ *
+ * <p>Thymeleaf {@code @{...}} links are rewritten to the versioned URLs by the
+ * {@code ResourceUrlEncodingFilter} that Spring Boot registers when the resource chain is enabled.
+ * Precompressed {@code .br} and {@code .gz} variants produced during the build are served
+ * according to the request's {@code Accept-Encoding} header.
+ *
+ * <p>Only assets requested with a matching content hash are marked as immutable. Unversioned
+ * URLs, such as {@code /favicon.ico} or links that bypass the URL encoder, are cached briefly and
+ * revalidated, so that they pick up new content after a deploy.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    private static final Duration ONE_YEAR = Duration.ofDays(365);
+
+    private static final CacheControl UNVERSIONED_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5))
+        .cachePublic()
+        .mustRevalidate();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/webjars/**")
+            .addResourceLocations("classpath:/META-INF/resources/webjars/")
+            .setCacheControl(UNVERSIONED_CACHE_CONTROL)
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new ImmutableVersionResourceResolver().addContentVersionStrategy("/**"));
+
+        registry.addResourceHandler("/**")
+            .addResourceLocations("classpath:/static/")
+            .setCacheControl(UNVERSIONED_CACHE_CONTROL)
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new ImmutableVersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Marks the resources whose version in the URL matched their content as immutable. The
+     * {@link VersionResourceResolver} returns resources found under their plain path as they are,
+     * and wraps those found by their version in an {@link HttpResource} carrying their ETag.
+     */
+    static class ImmutableVersionResourceResolver extends VersionResourceResolver {
+
+        static final String IMMUTABLE = "max-age=" + ONE_YEAR.getSeconds() + ", public, immutable";
+
+        @Override
+        protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                                   List<? extends Resource> locations, ResourceResolverChain chain) {
+            Resource resource = super.resolveResourceInternal(request, requestPath, locations, chain);
+
+            return resource instanceof HttpResource versioned ? new ImmutableResource(resource, versioned) : resource;
+        }
+    }
+
+    /**
+     * A versioned resource with an {@code immutable} {@code Cache-Control} header, which replaces
+     * the one of the resource handler. {@link CacheControl} has no {@code immutable} directive in
+     * this Spring version, so the header value is built by hand.
+     */
+    static class ImmutableResource extends AbstractResource implements HttpResource {
+
+        private final Resource resource;
+
+        private final HttpResource httpResource;
+
+        ImmutableResource(Resource resource, HttpResource httpResource) {
+            this.resource = resource;
+            this.httpResource = httpResource;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(httpResource.getResponseHeaders());
+            headers.setCacheControl(ImmutableVersionResourceResolver.IMMUTABLE);
+
+            return headers;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return resource.getInputStream();
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return resource.isReadable();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return resource.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return resource.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return resource.getFile();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resource.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return resource.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return resource.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return resource.getDescription();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.sitodo.connection;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes how long each endpoint holds database connections (see
+ * {@link ConnectionHoldTimeDataSource}), to tell which endpoints limit the throughput of the
+ * connection pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sitodo.connection-hold-time.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionHoldTimeConfiguration {
+
+    @Bean
+    static DataSourceWrappingPostProcessor connectionHoldTimeDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DataSourceWrappingPostProcessor(DataSourceWrappingPostProcessor.CONNECTION_HOLD_TIME_ORDER,
+            ConnectionHoldTimeDataSource.class,
+            dataSource -> new ConnectionHoldTimeDataSource(dataSource, meterRegistry::getObject));
+    }
+}
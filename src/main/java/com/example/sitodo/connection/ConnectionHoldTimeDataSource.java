@@ -0,0 +1,110 @@
+package com.example.sitodo.connection;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long each connection is held, from taking it from the pool until closing it, as the
+ * {@code sitodo.db.connection.hold} timer. The timer is tagged with the endpoint of the request
+ * that took the connection, e.g. {@code GET /list/{id}}; {@code unmapped} for requests that are
+ * not mapped to a controller yet (such as the checks of the page cache filter), and {@code none}
+ * outside of requests.
+ */
+class ConnectionHoldTimeDataSource extends ConnectionProxyingDataSource {
+
+    static final String METRIC = "sitodo.db.connection.hold";
+
+    private static final String NO_REQUEST = "none";
+
+    private static final String UNMAPPED = "unmapped";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry looked up on first use, so that the data source does not depend on the
+     *                      metrics, some of which need the data source themselves
+     */
+    ConnectionHoldTimeDataSource(DataSource targetDataSource, Supplier<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Connection wrap(Connection connection) {
+        return proxy(connection, new ConnectionHandler(connection, currentEndpoint(), System.nanoTime()));
+    }
+
+    /**
+     * Registers the timer outside of {@link Map#computeIfAbsent}: looking up the registry can wait
+     * for the application context, whose startup may need a connection closed by another thread.
+     */
+    private Timer timer(String endpoint) {
+        Timer timer = timers.get(endpoint);
+
+        if (timer == null) {
+            timer = Timer.builder(METRIC)
+                .description("Time a database connection is held, from taking it from the pool until returning it")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry.get());
+            timers.putIfAbsent(endpoint, timer);
+        }
+
+        return timer;
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NO_REQUEST;
+        }
+
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return pattern == null ? UNMAPPED : request.getMethod() + " " + pattern;
+    }
+
+    private final class ConnectionHandler implements Interceptor {
+
+        private final Connection connection;
+
+        private final String endpoint;
+
+        private final long acquired;
+
+        private boolean closed;
+
+        private ConnectionHandler(Connection connection, String endpoint, long acquired) {
+            this.connection = connection;
+            this.endpoint = endpoint;
+            this.acquired = acquired;
+        }
+
+        @Override
+        public Object invoke(Method method, Object[] arguments) throws Throwable {
+            if ("close".equals(method.getName()) && !closed) {
+                closed = true;
+                timer(endpoint).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+            }
+
+            return ConnectionProxyingDataSource.invoke(connection, method, arguments);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.sitodo.connection;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base of the data sources that observe the connections and statements of the application by
+ * handing out proxies.
+ *
+ * <p>Like the connection proxies of Spring, the proxies compare by identity, and connection
+ * proxies implement {@link ConnectionProxy}, so that {@code DataSourceUtils} can unwrap them.
+ * All other calls go to an {@link Interceptor}.
+ */
+public abstract class ConnectionProxyingDataSource extends DelegatingDataSource {
+
+    protected ConnectionProxyingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * @return the connection to hand out: the connection itself, or a proxy made by
+     * {@link #proxy(Connection, Interceptor)}
+     */
+    protected abstract Connection wrap(Connection connection);
+
+    protected static Connection proxy(Connection connection, Interceptor interceptor) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxyingDataSource.class.getClassLoader(),
+            new Class<?>[] {ConnectionProxy.class}, (proxy, method, arguments) -> switch (method.getName()) {
+                case "equals" -> proxy == arguments[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "getTargetConnection" -> connection;
+                default -> interceptor.invoke(method, arguments);
+            });
+    }
+
+    /**
+     * Wraps a statement returned by a call to a connection, if it is one.
+     *
+     * @param method the method that was called on the connection
+     * @param result what the method returned
+     * @return a proxy made with the interceptor for the statement and its SQL, or the result itself
+     */
+    protected static Object proxyStatement(Method method, Object[] arguments, Object result,
+                                           StatementInterceptorFactory interceptorFactory) {
+        Class<?> statementType = method.getReturnType();
+
+        if (!(result instanceof Statement statement) || (statementType != Statement.class
+            && statementType != PreparedStatement.class && statementType != CallableStatement.class)) {
+            return result;
+        }
+
+        Interceptor interceptor = interceptorFactory.create(statement, sqlArgument(arguments));
+        return Proxy.newProxyInstance(ConnectionProxyingDataSource.class.getClassLoader(),
+            new Class<?>[] {statementType}, (proxy, statementMethod, statementArguments) -> switch (statementMethod.getName()) {
+                case "equals" -> proxy == statementArguments[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> interceptor.invoke(statementMethod, statementArguments);
+            });
+    }
+
+    /**
+     * @return the SQL passed as first argument, as to {@code prepareStatement} and
+     * {@code execute}, or {@code null}
+     */
+    protected static String sqlArgument(Object[] arguments) {
+        return arguments != null && arguments.length > 0 && arguments[0] instanceof String sql ? sql : null;
+    }
+
+    /**
+     * Calls a method of the target, throwing what the method throws.
+     */
+    protected static Object invoke(Object target, Method method, Object[] arguments) throws Throwable {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    protected interface Interceptor {
+
+        Object invoke(Method method, Object[] arguments) throws Throwable;
+    }
+
+    @FunctionalInterface
+    protected interface StatementInterceptorFactory {
+
+        /**
+         * @param sql the SQL the statement was prepared with, or {@code null}
+         */
+        Interceptor create(Statement statement, String sql);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sitodo.connection;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.function.UnaryOperator;
+
+/**
+ * Wraps the data source beans in a {@link ConnectionProxyingDataSource}. The wrappers are applied
+ * in a fixed order, the lowest order innermost, i.e. closest to the connection pool.
+ *
+ * <p>{@code @Order} on a bean method does not order bean post-processors, so the order is part
+ * of the post-processor itself, and its bean methods must declare this type.
+ */
+public final class DataSourceWrappingPostProcessor implements BeanPostProcessor, Ordered {
+
+    /**
+     * Slow statements are timed closest to the driver, so that the other wrappers do not add to
+     * their time.
+     */
+    public static final int SLOW_QUERY_ORDER = 100;
+
+    public static final int SQL_RECORDING_ORDER = 200;
+
+    /**
+     * Connections are held from when the application takes them, so their time is measured
+     * outermost.
+     */
+    public static final int CONNECTION_HOLD_TIME_ORDER = 300;
+
+    private final int order;
+
+    private final Class<? extends DataSource> wrapperType;
+
+    private final UnaryOperator<DataSource> wrapper;
+
+    public DataSourceWrappingPostProcessor(int order, Class<? extends DataSource> wrapperType,
+                                           UnaryOperator<DataSource> wrapper) {
+        this.order = order;
+        this.wrapperType = wrapperType;
+        this.wrapper = wrapper;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !wrapperType.isInstance(bean)) {
+            return wrapper.apply(dataSource);
+        }
+
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.sitodo.controller;
+
+import com.example.sitodo.dto.SearchResultDto;
+import com.example.sitodo.service.SearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Controller
+@Slf4j
+public class SearchController {
+
+    private SearchService searchService;
+
+    @Value("${sitodo.search.max-results:50}")
+    private int maxResults;
+
+    @Autowired
+    public void setSearchService(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping("/search")
+    public String search(@RequestParam(name = "q", required = false) String query,
+                         @RequestParam(name = "list", required = false) Long listId,
+                         Model model) {
+        model.addAttribute("query", query);
+        model.addAttribute("listId", listId);
+
+        if (query != null && !query.isBlank()) {
+            List<SearchResultDto> results = searchService.search(query, listId, maxResults);
+            log.debug("Found {} items matching '{}'", results.size(), query);
+
+            model.addAttribute("results", results);
+        }
+
+        return "search";
+    }
+}
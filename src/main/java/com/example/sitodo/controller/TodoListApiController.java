@@ -0,0 +1,128 @@
+package com.example.sitodo.controller;
+
+import com.example.sitodo.dto.TodoListChangesDto;
+import com.example.sitodo.dto.TodoListsDto;
+import com.example.sitodo.form.TodoListBatchForm;
+import com.example.sitodo.ratelimit.RateLimitFilter;
+import com.example.sitodo.service.TodoListService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@Slf4j
+public class TodoListApiController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Value("${sitodo.multi-get.max-ids:500}")
+    private int multiGetMaxIds;
+
+    private TodoListService todoListService;
+
+    @Autowired
+    public void setTodoListService(TodoListService todoListService) {
+        this.todoListService = todoListService;
+    }
+
+    /**
+     * Creates many lists with their items. The response contains the ID of each new list on its
+     * own line, in the order of the request, and is written as the lists are committed. If
+     * creating the lists fails, the response ends early and only contains the lists that were
+     * created.
+     *
+     * <p>Each list counts as one request against the client's rate limit; at most
+     * {@link TodoListBatchForm#MAX_LISTS} lists can be created at once.
+     */
+    @PostMapping(value = "/api/lists", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createLists(@Valid @RequestBody TodoListBatchForm todoListBatchForm,
+                                                             HttpServletRequest request) {
+        Duration retryAfter = RateLimitFilter.tryAcquire(request, todoListBatchForm.getLists().size());
+
+        if (!retryAfter.isZero()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimitFilter.toSeconds(retryAfter)))
+                .build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            todoListService.createTodoLists(todoListBatchForm.getLists(),
+                listIds -> writeIds(outputStream, listIds));
+            log.debug("Created {} lists", todoListBatchForm.getLists().size());
+        };
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Returns many lists at once, e.g. {@code /api/lists?ids=1,2,3}. IDs without a list are
+     * listed in {@code missingIds} instead of failing the request. At most
+     * {@code sitodo.multi-get.max-ids} IDs can be asked for at once.
+     */
+    @GetMapping("/api/lists")
+    public ResponseEntity<TodoListsDto> getLists(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > multiGetMaxIds) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TodoListsDto todoLists = todoListService.getTodoListsByIds(ids);
+        log.debug("Get {} lists: {} found, {} missing", ids.size(), todoLists.lists().size(),
+            todoLists.missingIds().size());
+
+        return ResponseEntity.ok(todoLists);
+    }
+
+    /**
+     * Returns the items of a list that changed after the given version. Clients without a copy
+     * of the list leave out {@code since} and receive all items.
+     */
+    @GetMapping("/api/list/{id}/changes")
+    public TodoListChangesDto getChanges(@PathVariable("id") Long id,
+                                         @RequestParam(name = "since", required = false) Long since) {
+        TodoListChangesDto changes = todoListService.getTodoListChanges(id, since);
+        log.debug("Sync list with ID {} from version {} to {}: {} changed, {} removed", id, since,
+            changes.version(), changes.items().size(), changes.removedItemIds().size());
+
+        return changes;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public void handleException(NoSuchElementException exception) {
+    }
+
+    private static void writeIds(OutputStream outputStream, Iterable<Long> ids) {
+        StringBuilder lines = new StringBuilder();
+        ids.forEach(id -> lines.append(id).append('\n'));
+
+        try {
+            outputStream.write(lines.toString().getBytes(StandardCharsets.US_ASCII));
+            outputStream.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.example.sitodo.controller;
 
+import com.example.sitodo.dto.TodoItemDto;
 import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
 import com.example.sitodo.form.TodoItemForm;
 import com.example.sitodo.service.MotivationMessageService;
 import com.example.sitodo.service.TodoListService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 @Controller
 @Slf4j
 public class TodoListController {
 
+    @Value("${sitodo.overview.page-size:50}")
+    private int overviewPageSize;
+
     private TodoListService todoListService;
 
     private MotivationMessageService motivationMessageService;
@@ -40,6 +49,28 @@ public class TodoListController {
         return "list";
     }
 
+    /**
+     * Shows the item counts of all lists, one page at a time. Pages are addressed by the ID of
+     * the last list on the previous page rather than by an offset, so later pages are as cheap as
+     * the first.
+     */
+    @GetMapping("/lists")
+    public String showLists(@RequestParam(name = "after", defaultValue = "0") long afterId, Model model) {
+        List<TodoListSummaryDto> summaries = todoListService.getTodoListSummaries(afterId, overviewPageSize + 1);
+        boolean hasNextPage = summaries.size() > overviewPageSize;
+        List<TodoListSummaryDto> page = hasNextPage ? summaries.subList(0, overviewPageSize) : summaries;
+
+        Map<Long, String> motivationMessages = new HashMap<>();
+        page.forEach(summary -> motivationMessages.put(summary.id(),
+            motivationMessageService.computeMotivationMessage(summary.totalItems(), summary.finishedItems())));
+
+        model.addAttribute("summaries", page);
+        model.addAttribute("motivationMessages", motivationMessages);
+        model.addAttribute("nextAfterId", hasNextPage ? page.get(page.size() - 1).id() : null);
+
+        return "lists";
+    }
+
     @GetMapping("/list/{id}")
     public String showList(@PathVariable("id") Long id, Model model) {
         TodoListDto foundTodoList = todoListService.getTodoListById(id);
@@ -55,7 +86,7 @@ public class TodoListController {
     @PostMapping("/list")
     public String newItem(@Valid TodoItemForm todoItemForm, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
-            bindingResult.getAllErrors().forEach(error -> log.warn(error.toString()));
+            bindingResult.getAllErrors().forEach(error -> log.warn("{}", error));
             return "list";
         }
 
@@ -69,7 +100,7 @@ public class TodoListController {
     public String newItem(@PathVariable("id") Long id, @Valid TodoItemForm todoItemForm,
                           BindingResult bindingResult, Model model) {
         if (bindingResult.hasErrors()) {
-            bindingResult.getAllErrors().forEach(error -> log.warn(error.toString()));
+            bindingResult.getAllErrors().forEach(error -> log.warn("{}", error));
 
             TodoListDto foundTodoList = todoListService.getTodoListById(id);
             log.debug("Show list with ID {}", foundTodoList.id());
@@ -96,6 +127,52 @@ public class TodoListController {
         return redirectToList(updated.id());
     }
 
+    @PostMapping("/list/{list_id}/move/{item_id}")
+    public String moveItem(@PathVariable("list_id") Long listId,
+                           @PathVariable("item_id") Long itemId,
+                           @RequestParam(name = "before", required = false) Long beforeItemId) {
+        todoListService.moveTodoItem(listId, itemId, beforeItemId);
+        log.debug("Moved item with ID {} in a list with ID {}", itemId, listId);
+
+        return redirectToList(listId);
+    }
+
+    @PostMapping("/list/{list_id}/delete/{item_id}")
+    public String deleteItem(@PathVariable("list_id") Long listId,
+                             @PathVariable("item_id") Long itemId) {
+        todoListService.deleteTodoItem(listId, itemId);
+        log.debug("Deleted item with ID {} from a list with ID {}", itemId, listId);
+
+        return redirectToList(listId);
+    }
+
+    @PostMapping("/list/{id}/clear-finished")
+    public String clearFinishedItems(@PathVariable("id") Long id) {
+        int deleted = todoListService.clearFinishedItems(id);
+        log.debug("Deleted {} finished items from a list with ID {}", deleted, id);
+
+        return redirectToList(id);
+    }
+
+    @PostMapping("/list/{id}/delete")
+    public String deleteList(@PathVariable("id") Long id) {
+        todoListService.deleteTodoList(id);
+        log.debug("Deleted list with ID {}", id);
+
+        return "redirect:/list";
+    }
+
+    @GetMapping("/list/{id}/archived")
+    public String showArchivedItems(@PathVariable("id") Long id, Model model) {
+        List<TodoItemDto> archivedItems = todoListService.getArchivedTodoItems(id);
+        log.debug("Show {} archived items of list with ID {}", archivedItems.size(), id);
+
+        model.addAttribute("listId", id);
+        model.addAttribute("archivedItems", archivedItems);
+
+        return "archived";
+    }
+
     @ExceptionHandler
     public String handleException(NoSuchElementException exception) {
         return "404";
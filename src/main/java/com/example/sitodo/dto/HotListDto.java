@@ -0,0 +1,9 @@
+package com.example.sitodo.dto;
+
+/**
+ * @param listId
+ * @param reads the estimated recent number of reads
+ * @param writes the estimated recent number of writes
+ * @param readWriteRatio reads per write, or the number of reads if there were no writes
+ */
+public record HotListDto(Long listId, long reads, long writes, double readWriteRatio) { }
@@ -0,0 +1,3 @@
+package com.example.sitodo.dto;
+
+public record SearchResultDto(Long listId, Long itemId, String title, double score) { }
@@ -0,0 +1,14 @@
+package com.example.sitodo.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param parameters the bind parameters; numbers, booleans and {@code null} as they are, other
+ *                   values replaced by their type
+ * @param serviceMethod the {@link com.example.sitodo.service.TodoListService} method that ran the
+ *                      statement, or {@code null} if it did not run in one
+ * @param plan the execution plan, or {@code null} while it is still being captured
+ */
+public record SlowQueryDto(Instant executedAt, long durationMillis, String sql, List<String> parameters,
+                           String serviceMethod, String plan) { }
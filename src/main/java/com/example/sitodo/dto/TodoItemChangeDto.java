@@ -0,0 +1,11 @@
+package com.example.sitodo.dto;
+
+import java.time.Instant;
+
+/**
+ * An item that was added or changed, as reported by a delta sync.
+ *
+ * @param dueAt when the item is due, or {@code null} if it has no due time
+ * @param sortKey the items of a list are ordered by ascending sort key
+ */
+public record TodoItemChangeDto(Long id, String title, Boolean finished, Instant dueAt, Long sortKey) { }
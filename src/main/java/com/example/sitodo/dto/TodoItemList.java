@@ -0,0 +1,145 @@
+package com.example.sitodo.dto;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * The items of a list, stored column by column: one array of IDs, one array of titles and a bit
+ * set of the finished items. A large list then costs three objects plus its titles instead of
+ * three objects per item. The array of due times is only created for lists where an item has one.
+ *
+ * <p>Reading an element creates its {@link TodoItemDto} on the fly, so the templates can iterate
+ * the list as before. Code that only needs the columns should use {@link #id(int)},
+ * {@link #title(int)} and {@link #isFinished(int)} instead.
+ */
+public final class TodoItemList extends AbstractList<TodoItemDto> implements RandomAccess {
+
+    private final long[] ids;
+
+    private final String[] titles;
+
+    private final BitSet finished;
+
+    private final Instant[] dueAts;
+
+    private final int size;
+
+    private TodoItemList(long[] ids, String[] titles, BitSet finished, Instant[] dueAts, int size) {
+        this.ids = ids;
+        this.titles = titles;
+        this.finished = finished;
+        this.dueAts = dueAts;
+        this.size = size;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    @Override
+    public TodoItemDto get(int index) {
+        return new TodoItemDto(id(index), title(index), isFinished(index), dueAt(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long id(int index) {
+        return ids[checkIndex(index)];
+    }
+
+    public String title(int index) {
+        return titles[checkIndex(index)];
+    }
+
+    public boolean isFinished(int index) {
+        return finished.get(checkIndex(index));
+    }
+
+    /**
+     * @return the due time of the item, or {@code null} if it has none
+     */
+    public Instant dueAt(int index) {
+        checkIndex(index);
+
+        return dueAts == null ? null : dueAts[index];
+    }
+
+    public int countFinished() {
+        return finished.cardinality();
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return index;
+    }
+
+    public static final class Builder {
+
+        private long[] ids;
+
+        private String[] titles;
+
+        private final BitSet finished = new BitSet();
+
+        private Instant[] dueAts;
+
+        private int size;
+
+        private Builder(int expectedSize) {
+            ids = new long[Math.max(expectedSize, 8)];
+            titles = new String[ids.length];
+        }
+
+        public Builder add(long id, String title, boolean isFinished) {
+            return add(id, title, isFinished, null);
+        }
+
+        public Builder add(long id, String title, boolean isFinished, Instant dueAt) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                titles = Arrays.copyOf(titles, size * 2);
+                if (dueAts != null) {
+                    dueAts = Arrays.copyOf(dueAts, size * 2);
+                }
+            }
+
+            ids[size] = id;
+            titles[size] = title;
+            finished.set(size, isFinished);
+            if (dueAt != null) {
+                if (dueAts == null) {
+                    dueAts = new Instant[ids.length];
+                }
+                dueAts[size] = dueAt;
+            }
+            size++;
+
+            return this;
+        }
+
+        /**
+         * The builder must not be used afterwards. The arrays are only copied if they are much
+         * larger than needed.
+         */
+        public TodoItemList build() {
+            if (ids.length - size > size / 4) {
+                ids = Arrays.copyOf(ids, size);
+                titles = Arrays.copyOf(titles, size);
+                if (dueAts != null) {
+                    dueAts = Arrays.copyOf(dueAts, size);
+                }
+            }
+
+            return new TodoItemList(ids, titles, finished, dueAts, size);
+        }
+    }
+}
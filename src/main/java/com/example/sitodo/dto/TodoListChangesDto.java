@@ -0,0 +1,16 @@
+package com.example.sitodo.dto;
+
+import java.util.List;
+
+/**
+ * The changes to a list since a version the client has.
+ *
+ * @param version the current version of the list, to ask for the next changes with
+ * @param full whether {@code items} are all items of the list, which replace the client's copy
+ *             instead of being merged into it; also when the removals since the requested
+ *             version are no longer kept
+ * @param items the items added or changed since the requested version, in display order
+ * @param removedItemIds the items removed since the requested version; empty if {@code full}
+ */
+public record TodoListChangesDto(Long id, long version, boolean full, List<TodoItemChangeDto> items,
+                                 List<Long> removedItemIds) { }
@@ -2,12 +2,19 @@ package com.example.sitodo.dto;
 
 import java.util.List;
 
+/**
+ * @param items the items in display order; lists read for display are a compact {@link TodoItemList}
+ */
 public record TodoListDto(Long id, List<TodoItemDto> items) {
 
     public Long countTotal() {
         return (long) items.size();
     }
     public Long countFinishedItems() {
+        if (items instanceof TodoItemList todoItemList) {
+            return (long) todoItemList.countFinished();
+        }
+
         return items.stream().filter(TodoItemDto::finished).count();
     }
 
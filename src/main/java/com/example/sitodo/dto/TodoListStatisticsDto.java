@@ -0,0 +1,10 @@
+package com.example.sitodo.dto;
+
+import java.time.Instant;
+
+/**
+ * @param checkedAt when the counts were last compared with the database, or {@code null} before
+ *                  the first check
+ */
+public record TodoListStatisticsDto(long lists, long items, long finishedItems, long unfinishedItems,
+                                    Instant checkedAt) { }
@@ -0,0 +1,3 @@
+package com.example.sitodo.dto;
+
+public record TodoListSummaryDto(Long id, long totalItems, long finishedItems) { }
@@ -0,0 +1,11 @@
+package com.example.sitodo.dto;
+
+import java.util.List;
+
+/**
+ * Lists fetched together by their IDs.
+ *
+ * @param lists the lists that were found, in the order their IDs were asked for
+ * @param missingIds the requested IDs without a list, in the order they were asked for
+ */
+public record TodoListsDto(List<TodoListDto> lists, List<Long> missingIds) { }
@@ -0,0 +1,290 @@
+package com.example.sitodo.due;
+
+import com.example.sitodo.event.TodoItemDueEvent;
+import com.example.sitodo.event.TodoItemsRemovedEvent;
+import com.example.sitodo.event.TodoListChangedEvent;
+import com.example.sitodo.repository.TodoItemRepository;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Marks items as due the moment their due time passes, and publishes a {@link TodoItemDueEvent}
+ * for each of them that is not finished.
+ *
+ * <p>Only the due times of the next {@code sitodo.due.window} are kept in memory, in a
+ * {@link TimingWheel}. They are loaded from the index on {@code todo_item(due_handled, due_at)}
+ * one window at a time, and items that get a due time within the loaded window are added when
+ * their transaction commits. An item is marked as handled in the same transaction that bumps the
+ * version of its list, and only items that are not handled yet are loaded, so after a restart
+ * the scheduler continues where it stopped: due times that passed in the meantime are handled
+ * right away, and no due time is handled twice. When the lists are sharded, windows are loaded
+ * from all shards in parallel, and each item is handled on its own shard.
+ */
+@Component
+@Profile("!memory")
+@Slf4j
+public class DueDateScheduler {
+
+    private static final int SLOTS_PER_LEVEL = 64;
+
+    private static final int LEVELS = 4;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Duration window;
+
+    private final TimingWheel<Long> wheel;
+
+    private final Map<Long, TimingWheel.Timer<Long>> timers = new HashMap<>();
+
+    /**
+     * All due times before this have been loaded into the wheel, or {@code null} before the
+     * first window has been loaded.
+     */
+    private Instant loadedUntil;
+
+    private TodoItemRepository todoItemRepository;
+
+    private TodoListRepository todoListRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private ShardRouter shardRouter;
+
+    private Counter dueItems;
+
+    public DueDateScheduler(@Value("${sitodo.due.tick:PT1S}") Duration tick,
+                            @Value("${sitodo.due.window:PT1H}") Duration window) {
+        this.window = window;
+        this.wheel = new TimingWheel<>(tick.toMillis(), SLOTS_PER_LEVEL, LEVELS, System.currentTimeMillis());
+    }
+
+    @Autowired
+    public void setTodoItemRepository(TodoItemRepository todoItemRepository) {
+        this.todoItemRepository = todoItemRepository;
+    }
+
+    @Autowired
+    public void setTodoListRepository(TodoListRepository todoListRepository) {
+        this.todoListRepository = todoListRepository;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.dueItems = Counter.builder("sitodo.due.items")
+            .description("Unfinished items whose due time has passed")
+            .register(meterRegistry);
+        Gauge.builder("sitodo.due.scheduled", this, DueDateScheduler::getScheduledCount)
+            .description("Due times of the loaded window that have not passed yet")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the due time of a new item once the current transaction commits. Due times after
+     * the loaded window are left to the next window.
+     *
+     * @param itemId
+     * @param dueAt
+     */
+    public void schedule(Long itemId, Instant dueAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(itemId, dueAt);
+                }
+            });
+        } else {
+            add(itemId, dueAt);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTodoItemsRemoved(TodoItemsRemovedEvent event) {
+        for (Long itemId : event.itemIds()) {
+            TimingWheel.Timer<Long> timer = timers.remove(itemId);
+
+            if (timer != null) {
+                timer.cancel();
+            }
+        }
+    }
+
+    public synchronized int getScheduledCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Handles the due times that have passed, and loads the next window when half of the loaded
+     * window has passed.
+     */
+    @Scheduled(fixedRateString = "${sitodo.due.tick:PT1S}")
+    public void tick() {
+        Instant now = Instant.now();
+        Instant from = null;
+        Instant until = null;
+
+        synchronized (this) {
+            if (loadedUntil == null || !loadedUntil.isAfter(now.plus(window.dividedBy(2)))) {
+                // Items committed from now on are added by schedule() if they are due before
+                // the new end of the window, the others are found by the query in loadWindow()
+                from = loadedUntil;
+                until = now.plus(window);
+                loadedUntil = until;
+            }
+        }
+
+        if (until != null) {
+            loadWindow(from, until);
+        }
+
+        List<Long> dueItemIds = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(now.toEpochMilli(), itemId -> {
+                timers.remove(itemId);
+                dueItemIds.add(itemId);
+            });
+        }
+
+        for (int start = 0; start < dueItemIds.size(); start += BATCH_SIZE) {
+            handleDue(dueItemIds.subList(start, Math.min(start + BATCH_SIZE, dueItemIds.size())), now);
+        }
+    }
+
+    /**
+     * @param from the start of the window, or {@code null} to include all earlier due times
+     * @param until the end of the window
+     */
+    private void loadWindow(Instant from, Instant until) {
+        List<TodoItemRepository.DueItem> items;
+
+        try {
+            items = shardRouter.onEachShard(() -> transactionTemplate.execute(status -> {
+                try (Stream<TodoItemRepository.DueItem> dueItems = from == null
+                    ? todoItemRepository.streamDueBefore(until)
+                    : todoItemRepository.streamDueBetween(from, until)) {
+                    return dueItems.toList();
+                }
+            })).stream().flatMap(List::stream).toList();
+        } catch (RuntimeException exception) {
+            synchronized (this) {
+                // Load the window again at the next tick
+                if (until.equals(loadedUntil)) {
+                    loadedUntil = from;
+                }
+            }
+            throw exception;
+        }
+
+        synchronized (this) {
+            for (TodoItemRepository.DueItem item : items) {
+                // Items scheduled by schedule() in the meantime are already in the wheel
+                timers.computeIfAbsent(item.getId(), itemId -> wheel.schedule(item.getDueAt().toEpochMilli(), itemId));
+            }
+        }
+
+        if (from == null) {
+            log.info("Loaded {} due times before {}", items.size(), until);
+        } else {
+            log.debug("Loaded {} due times from {} until {}", items.size(), from, until);
+        }
+    }
+
+    private void handleDue(List<Long> itemIds, Instant now) {
+        List<TodoItemRepository.DueItemReference> overdueItems = shardRouter.onShardsOf(itemIds, shardItemIds -> {
+            try {
+                return handleDueOnShard(shardItemIds, now);
+            } catch (RuntimeException exception) {
+                log.warn("Could not handle {} due items, retrying at the next tick", shardItemIds.size(), exception);
+                synchronized (this) {
+                    shardItemIds.forEach(itemId -> timers.computeIfAbsent(itemId, id -> wheel.schedule(now.toEpochMilli(), id)));
+                }
+                return List.<TodoItemRepository.DueItemReference>of();
+            }
+        }).stream().flatMap(List::stream).toList();
+
+        for (TodoItemRepository.DueItemReference item : overdueItems) {
+            eventPublisher.publishEvent(new TodoItemDueEvent(item.getTodoListId(), item.getId()));
+            eventPublisher.publishEvent(new TodoListChangedEvent(item.getTodoListId()));
+        }
+        dueItems.increment(overdueItems.size());
+    }
+
+    /**
+     * @return the items that are overdue, i.e. not finished
+     */
+    private List<TodoItemRepository.DueItemReference> handleDueOnShard(List<Long> itemIds, Instant now) {
+        return transactionTemplate.execute(status -> {
+            List<TodoItemRepository.DueItemReference> items = todoItemRepository.findDueUnhandled(itemIds, now);
+
+            if (items.isEmpty()) {
+                return items;
+            }
+
+            List<TodoItemRepository.DueItemReference> unfinished = items.stream()
+                .filter(item -> !Boolean.TRUE.equals(item.getFinished()))
+                .toList();
+            if (!unfinished.isEmpty()) {
+                // The rendered pages of these lists show the items as overdue from now on
+                todoListRepository.incrementVersions(unfinished.stream()
+                    .map(TodoItemRepository.DueItemReference::getTodoListId)
+                    .distinct()
+                    .toList());
+            }
+            todoItemRepository.markDueHandled(items.stream().map(TodoItemRepository.DueItemReference::getId).toList());
+
+            return unfinished;
+        });
+    }
+
+    private synchronized void add(Long itemId, Instant dueAt) {
+        if (loadedUntil == null || !dueAt.isBefore(loadedUntil)) {
+            return;
+        }
+
+        TimingWheel.Timer<Long> previous = timers.put(itemId, wheel.schedule(dueAt.toEpochMilli(), itemId));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.sitodo.due;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel: timers are kept in rings of slots, one ring per level, where a
+ * slot of level {@code n} spans {@code slotsPerLevel^n} ticks. A timer is placed in the lowest
+ * level whose ring still reaches its deadline. Whenever time crosses the boundary of a
+ * higher-level slot, the timers of that slot are moved down to the lower levels, until they
+ * expire from level 0.
+ *
+ * <p>Scheduling and cancelling a timer take constant time, independent of the number of timers;
+ * each slot is a doubly linked list. Advancing the wheel costs one step per tick plus one move
+ * per level for each timer. Timers beyond the range of the highest level wait in an overflow
+ * list.
+ *
+ * <p>Not thread-safe.
+ *
+ * @param <T> the value of a timer, passed on when it expires
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final int bits;
+
+    private final int mask;
+
+    private final Timer<T>[][] levels;
+
+    private final Timer<T> overflow = new Timer<>(null, null, 0);
+
+    /**
+     * All timers with a deadline up to this tick have expired.
+     */
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * @param tickMillis the resolution of the wheel; timers expire at most this late
+     * @param slotsPerLevel the number of slots of each level, a power of two
+     * @param levelCount the number of levels
+     * @param startMillis the current time
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, int slotsPerLevel, int levelCount, long startMillis) {
+        if (Integer.bitCount(slotsPerLevel) != 1 || slotsPerLevel < 2) {
+            throw new IllegalArgumentException("The number of slots must be a power of two: " + slotsPerLevel);
+        }
+        if (levelCount < 1 || (long) Integer.numberOfTrailingZeros(slotsPerLevel) * levelCount > 62) {
+            throw new IllegalArgumentException("Unsupported number of levels: " + levelCount);
+        }
+
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.mask = slotsPerLevel - 1;
+        this.levels = new Timer[levelCount][slotsPerLevel];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+
+        for (Timer<T>[] level : levels) {
+            for (int slot = 0; slot < level.length; slot++) {
+                level[slot] = new Timer<>(null, null, 0);
+            }
+        }
+    }
+
+    /**
+     * Adds a timer. A deadline that has already passed expires at the next {@link #advance}.
+     *
+     * @param deadlineMillis
+     * @param value
+     * @return the timer, to cancel it
+     */
+    public Timer<T> schedule(long deadlineMillis, T value) {
+        Timer<T> timer = new Timer<>(this, value, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        place(timer, currentTick + 1);
+        size++;
+
+        return timer;
+    }
+
+    /**
+     * Expires all timers with a deadline up to the given time, tick by tick.
+     *
+     * @param nowMillis
+     * @param expired receives the value of each expired timer
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+
+        while (currentTick < nowTick) {
+            currentTick++;
+
+            if ((currentTick & lowerBitsMask(levels.length)) == 0) {
+                cascade(overflow);
+            }
+            for (int level = levels.length - 1; level > 0; level--) {
+                if ((currentTick & lowerBitsMask(level)) == 0) {
+                    cascade(levels[level][slot(currentTick, level)]);
+                }
+            }
+
+            // Removed one by one, so that the callback may cancel or schedule other timers
+            Timer<T> slot = levels[0][slot(currentTick, 0)];
+            Timer<T> timer;
+            while ((timer = slot.pollFirst()) != null) {
+                size--;
+                expired.accept(timer.value);
+            }
+        }
+    }
+
+    /**
+     * @return the number of timers that have neither expired nor been cancelled
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Timer<T> slot) {
+        Timer<T> timer = slot.detachAll();
+
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.next = null;
+            place(timer, currentTick);
+            timer = next;
+        }
+    }
+
+    /**
+     * @param earliestTick timers with an earlier deadline are placed at this tick instead
+     */
+    private void place(Timer<T> timer, long earliestTick) {
+        long deadline = Math.max(timer.deadlineTick, earliestTick);
+
+        for (int level = 0; level < levels.length; level++) {
+            int shift = bits * (level + 1);
+
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                levels[level][slot(deadline, level)].link(timer);
+                return;
+            }
+        }
+
+        overflow.link(timer);
+    }
+
+    private int slot(long tick, int level) {
+        return (int) (tick >>> (bits * level)) & mask;
+    }
+
+    private long lowerBitsMask(int level) {
+        return (1L << (bits * level)) - 1;
+    }
+
+    /**
+     * A scheduled timer. The head of each slot is a timer without a wheel, which links the
+     * slot's timers into a ring.
+     */
+    public static final class Timer<T> {
+
+        private final TimingWheel<T> wheel;
+
+        private final T value;
+
+        private final long deadlineTick;
+
+        private Timer<T> previous = this;
+
+        private Timer<T> next = this;
+
+        private Timer(TimingWheel<T> wheel, T value, long deadlineTick) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        /**
+         * @return {@code true} if the timer was cancelled, {@code false} if it had already
+         *         expired or been cancelled
+         */
+        public boolean cancel() {
+            if (next == null) {
+                return false;
+            }
+
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+            wheel.size--;
+
+            return true;
+        }
+
+        private void link(Timer<T> timer) {
+            timer.previous = previous;
+            timer.next = this;
+            previous.next = timer;
+            previous = timer;
+        }
+
+        private Timer<T> pollFirst() {
+            if (next == this) {
+                return null;
+            }
+
+            Timer<T> first = next;
+            next = first.next;
+            next.previous = this;
+            first.previous = null;
+            first.next = null;
+
+            return first;
+        }
+
+        /**
+         * Removes all timers from the ring of this slot head.
+         *
+         * @return the first timer, linked to the others through {@code next} only, or
+         *         {@code null} if the slot was empty
+         */
+        private Timer<T> detachAll() {
+            if (next == this) {
+                return null;
+            }
+
+            Timer<T> first = next;
+            previous.next = null;
+            next = this;
+            previous = this;
+
+            return first;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.sitodo.event;
+
+/**
+ * Published by the service layer after a new item has been added to a list.
+ *
+ * @param listId the ID of the list
+ * @param itemId the ID of the new item
+ * @param title the title of the new item
+ */
+public record TodoItemAddedEvent(Long listId, Long itemId, String title) { }
@@ -0,0 +1,11 @@
+package com.example.sitodo.event;
+
+/**
+ * Published by {@link com.example.sitodo.due.DueDateScheduler} once the due time of an
+ * unfinished item has passed. Published after the item has been marked as handled, and only once
+ * per due time, also across restarts.
+ *
+ * @param listId the ID of the list
+ * @param itemId the ID of the item that came due
+ */
+public record TodoItemDueEvent(Long listId, Long itemId) { }
@@ -0,0 +1,11 @@
+package com.example.sitodo.event;
+
+import java.util.Collection;
+
+/**
+ * Published after items have been removed from a list, e.g. because they were archived.
+ *
+ * @param listId the ID of the list
+ * @param itemIds the IDs of the removed items
+ */
+public record TodoItemsRemovedEvent(Long listId, Collection<Long> itemIds) { }
@@ -0,0 +1,8 @@
+package com.example.sitodo.event;
+
+/**
+ * Published by the service layer after a list or one of its items has been modified.
+ *
+ * @param listId the ID of the modified list
+ */
+public record TodoListChangedEvent(Long listId) { }
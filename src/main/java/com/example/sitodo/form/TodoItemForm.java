@@ -1,12 +1,20 @@
 package com.example.sitodo.form;
 
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
 
 @Data
 public class TodoItemForm {
 
     @NotBlank
     private String title;
+
+    /**
+     * The optional due time, in the server's time zone.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueAt;
 }
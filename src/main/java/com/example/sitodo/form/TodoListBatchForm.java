@@ -0,0 +1,21 @@
+package com.example.sitodo.form;
+
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class TodoListBatchForm {
+
+    /**
+     * The most lists that one request may create.
+     */
+    public static final int MAX_LISTS = 1000;
+
+    @NotNull
+    @Size(max = MAX_LISTS)
+    private List<@NotNull @Valid TodoListForm> lists;
+}
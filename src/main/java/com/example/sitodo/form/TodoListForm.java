@@ -0,0 +1,14 @@
+package com.example.sitodo.form;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+public class TodoListForm {
+
+    @NotNull
+    private List<@NotBlank String> items;
+}
@@ -0,0 +1,72 @@
+package com.example.sitodo.hotlist;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimates how often each key has been seen, in constant memory. Estimates are never too low,
+ * and are too high by at most a small fraction of the total count with high probability.
+ *
+ * <p>All operations are lock-free, so the sketch can be updated from request threads.
+ */
+class CountMinSketch {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int widthMask;
+
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width the number of counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int width) {
+        int roundedWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(roundedWidth * SEEDS.length);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key
+     * @return the estimated count of the key, including this occurrence
+     */
+    long increment(long key) {
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+
+        return estimate;
+    }
+
+    long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+
+        return estimate;
+    }
+
+    /**
+     * Halves all counts, so that old occurrences weigh less than recent ones.
+     */
+    void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    private int index(int row, long key) {
+        long hash = (key ^ (key >>> 32)) * SEEDS[row];
+        hash ^= hash >>> 29;
+
+        return row * (widthMask + 1) + (int) (hash & widthMask);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.sitodo.hotlist;
+
+import com.example.sitodo.dto.HotListDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks which lists are read and written most often.
+ *
+ * <p>Reads and writes are counted in two {@link CountMinSketch count-min sketches}. Lists whose
+ * estimated total exceeds a threshold are put in a concurrent map of candidates, without taking a
+ * lock. The candidates are trimmed to the hottest lists, which also raises the threshold, when
+ * the hot lists are read, when the counts decay, and whenever the map has grown to twice the
+ * number of hot lists. A request that finds a trim already running leaves it to that thread.
+ * All counts are halved periodically, so the result reflects recent traffic.
+ */
+@Component
+public class HotListTracker {
+
+    private final CountMinSketch reads;
+
+    private final CountMinSketch writes;
+
+    private final int capacity;
+
+    /**
+     * The estimated total of each candidate when it was last offered.
+     */
+    private final ConcurrentMap<Long, Long> candidates = new ConcurrentHashMap<>();
+
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    /**
+     * The count a list must exceed to become a candidate. Zero while there are fewer candidates
+     * than hot lists.
+     */
+    private volatile long threshold;
+
+    public HotListTracker(@Value("${sitodo.hot-lists.size:20}") int capacity,
+                          @Value("${sitodo.hot-lists.sketch-width:2048}") int sketchWidth) {
+        this.reads = new CountMinSketch(sketchWidth);
+        this.writes = new CountMinSketch(sketchWidth);
+        this.capacity = capacity;
+    }
+
+    public void recordRead(Long listId) {
+        offer(listId, reads.increment(listId) + writes.estimate(listId));
+    }
+
+    public void recordWrite(Long listId) {
+        offer(listId, writes.increment(listId) + reads.estimate(listId));
+    }
+
+    /**
+     * Returns the hottest lists, hottest first.
+     */
+    public List<HotListDto> getHotLists() {
+        List<Long> listIds;
+
+        trimLock.lock();
+        try {
+            listIds = trim().stream()
+                .sorted(Comparator.comparingLong(Candidate::count).reversed())
+                .map(Candidate::listId)
+                .toList();
+        } finally {
+            trimLock.unlock();
+        }
+
+        return listIds.stream().map(listId -> {
+            long readCount = reads.estimate(listId);
+            long writeCount = writes.estimate(listId);
+
+            return new HotListDto(listId, readCount, writeCount,
+                writeCount == 0 ? readCount : (double) readCount / writeCount);
+        }).toList();
+    }
+
+    @Scheduled(fixedRateString = "${sitodo.hot-lists.decay-interval:PT5M}",
+        initialDelayString = "${sitodo.hot-lists.decay-interval:PT5M}")
+    public void decay() {
+        reads.decay();
+        writes.decay();
+
+        trimLock.lock();
+        try {
+            candidates.replaceAll((listId, count) -> count >>> 1);
+            threshold = 0;
+            trim();
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private void offer(Long listId, long count) {
+        if (count <= threshold) {
+            return;
+        }
+
+        candidates.merge(listId, count, Math::max);
+
+        if (candidates.size() > 2 * capacity && trimLock.tryLock()) {
+            try {
+                trim();
+            } finally {
+                trimLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes all but the hottest candidates and raises the threshold to the coolest of them.
+     * Must be called with the trim lock held.
+     *
+     * @return the remaining candidates, in no particular order
+     */
+    private PriorityQueue<Candidate> trim() {
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::count));
+
+        candidates.forEach((listId, count) -> {
+            heap.add(new Candidate(listId, count));
+
+            if (heap.size() > capacity) {
+                Candidate coolest = heap.poll();
+                candidates.remove(coolest.listId(), coolest.count());
+            }
+        });
+
+        threshold = heap.size() < capacity ? 0 : heap.peek().count();
+        return heap;
+    }
+
+    private record Candidate(Long listId, long count) { }
+}
@@ -0,0 +1,27 @@
+package com.example.sitodo.hotlist;
+
+import com.example.sitodo.dto.HotListDto;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Shows the hottest lists at {@code /actuator/hotlists}.
+ */
+@Component
+@Endpoint(id = "hotlists")
+public class HotListsEndpoint {
+
+    private final HotListTracker hotListTracker;
+
+    public HotListsEndpoint(HotListTracker hotListTracker) {
+        this.hotListTracker = hotListTracker;
+    }
+
+    @ReadOperation
+    public List<HotListDto> hotLists() {
+        return hotListTracker.getHotLists();
+    }
+}
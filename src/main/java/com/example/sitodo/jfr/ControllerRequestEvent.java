@@ -0,0 +1,26 @@
+package com.example.sitodo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A request handled by a controller, from the start of the handler until the response is
+ * complete (including rendering).
+ */
+@Name("sitodo.ControllerRequest")
+@Label("Controller Request")
+@Category({"Sitodo", "Web"})
+@StackTrace(false)
+class ControllerRequestEvent extends Event {
+
+    @Label("HTTP Method")
+    String httpMethod;
+
+    @Label("Path")
+    String path;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Status")
+    int status;
+}
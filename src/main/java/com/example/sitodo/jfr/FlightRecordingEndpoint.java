@@ -0,0 +1,142 @@
+package com.example.sitodo.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controls a bounded Flight Recorder recording at {@code /actuator/flightrecording}:
+ * {@code POST} starts it, {@code GET} shows its state, {@code GET .../dump} downloads what it has
+ * recorded so far and {@code DELETE} stops and discards it.
+ *
+ * <p>The recording keeps at most {@code sitodo.jfr.max-age} and {@code sitodo.jfr.max-size} of
+ * data, so it can be left running until the next latency spike.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint implements DisposableBean {
+
+    private static final List<Class<? extends jdk.jfr.Event>> EVENT_TYPES = List.of(ServiceCallEvent.class,
+        ControllerRequestEvent.class, TemplateRenderEvent.class, SqlStatementEvent.class);
+
+    private final String settings;
+
+    private final Duration maxAge;
+
+    private final DataSize maxSize;
+
+    private Recording recording;
+
+    private Path lastDump;
+
+    public FlightRecordingEndpoint(@Value("${sitodo.jfr.settings:default}") String settings,
+                                   @Value("${sitodo.jfr.max-age:PT10M}") Duration maxAge,
+                                   @Value("${sitodo.jfr.max-size:50MB}") DataSize maxSize) {
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", recording != null && recording.getState() == RecordingState.RUNNING);
+        status.put("settings", settings);
+        status.put("maxAge", maxAge.toString());
+        status.put("maxSize", maxSize.toBytes());
+
+        if (recording != null) {
+            status.put("startTime", String.valueOf(recording.getStartTime()));
+            status.put("size", recording.getSize());
+        }
+
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start() {
+        if (recording == null) {
+            try {
+                recording = new Recording(Configuration.getConfiguration(settings));
+            } catch (IOException | ParseException exception) {
+                throw new IllegalStateException("Could not load the Flight Recorder settings '" + settings + "'", exception);
+            }
+
+            EVENT_TYPES.forEach(eventType -> recording.enable(eventType));
+            recording.setName("sitodo");
+            recording.setToDisk(true);
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSize.toBytes());
+            recording.start();
+            log.info("Started a Flight Recorder recording (settings {}, max. age {}, max. size {})", settings, maxAge, maxSize);
+        }
+
+        return status();
+    }
+
+    /**
+     * @return the recorded data, or {@code null} (HTTP 404) if no recording is running
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump(@Selector String action) {
+        if (!"dump".equals(action) || recording == null) {
+            return null;
+        }
+
+        try {
+            // The previous dump has been downloaded by now; keep at most one on disk
+            if (lastDump != null) {
+                Files.deleteIfExists(lastDump);
+            }
+            lastDump = Files.createTempFile("sitodo-", ".jfr");
+            recording.dump(lastDump);
+
+            return new FileSystemResource(lastDump);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("Stopped the Flight Recorder recording");
+        }
+
+        return status();
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        stop();
+
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+        }
+    }
+}
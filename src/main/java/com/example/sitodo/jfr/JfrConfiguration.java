@@ -0,0 +1,33 @@
+package com.example.sitodo.jfr;
+
+import com.example.sitodo.connection.DataSourceWrappingPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Emits the custom Flight Recorder events. Events cost almost nothing unless a recording that
+ * enables them is running, e.g. one started through the {@link FlightRecordingEndpoint}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sitodo.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new WebRequestRecorder());
+    }
+
+    @Bean
+    ServiceCallRecorder serviceCallRecorder() {
+        return new ServiceCallRecorder();
+    }
+
+    @Bean
+    static DataSourceWrappingPostProcessor sqlRecordingDataSourcePostProcessor() {
+        return new DataSourceWrappingPostProcessor(DataSourceWrappingPostProcessor.SQL_RECORDING_ORDER,
+            SqlRecordingDataSource.class, SqlRecordingDataSource::new);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.sitodo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A call of a {@link com.example.sitodo.service.TodoListService} method.
+ */
+@Name("sitodo.ServiceCall")
+@Label("Service Call")
+@Category({"Sitodo", "Service"})
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("List ID")
+    long listId;
+
+    @Label("Item Count")
+    @Description("The number of items in the returned list, or -1 if the method does not return a list")
+    int itemCount;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,52 @@
+package com.example.sitodo.jfr;
+
+import com.example.sitodo.dto.TodoListDto;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.Collection;
+
+/**
+ * Records a {@link ServiceCallEvent} for every call of a
+ * {@link com.example.sitodo.service.TodoListService} method.
+ */
+@Aspect
+class ServiceCallRecorder {
+
+    @Around("execution(* com.example.sitodo.service.TodoListService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable throwable) {
+            event.failed = true;
+            throw throwable;
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                Object[] arguments = joinPoint.getArgs();
+                event.method = joinPoint.getSignature().getName();
+                event.listId = arguments.length > 0 && arguments[0] instanceof Long listId ? listId : -1;
+                event.itemCount = -1;
+
+                if (result instanceof TodoListDto todoList) {
+                    event.listId = todoList.id() == null ? -1 : todoList.id();
+                    event.itemCount = todoList.items().size();
+                } else if (result instanceof Collection<?> items) {
+                    event.itemCount = items.size();
+                }
+                event.commit();
+            }
+        }
+    }
+}
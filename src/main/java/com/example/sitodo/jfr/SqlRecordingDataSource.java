@@ -0,0 +1,60 @@
+package com.example.sitodo.jfr;
+
+import com.example.sitodo.connection.ConnectionProxyingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Records a {@link SqlStatementEvent} for every statement executed on its connections.
+ *
+ * <p>Connections are only wrapped while the event is enabled in a running recording, so there is
+ * no overhead otherwise. Statements on connections taken before a recording started are not
+ * recorded.
+ */
+class SqlRecordingDataSource extends ConnectionProxyingDataSource {
+
+    SqlRecordingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    protected Connection wrap(Connection connection) {
+        if (!new SqlStatementEvent().isEnabled()) {
+            return connection;
+        }
+
+        return proxy(connection, (method, arguments) ->
+            proxyStatement(method, arguments, invoke(connection, method, arguments), StatementHandler::new));
+    }
+
+    private record StatementHandler(Statement statement, String preparedSql) implements Interceptor {
+
+        @Override
+        public Object invoke(Method method, Object[] arguments) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return ConnectionProxyingDataSource.invoke(statement, method, arguments);
+            }
+
+            SqlStatementEvent event = new SqlStatementEvent();
+            event.begin();
+            try {
+                return ConnectionProxyingDataSource.invoke(statement, method, arguments);
+            } catch (Throwable throwable) {
+                event.failed = true;
+                throw throwable;
+            } finally {
+                event.end();
+
+                if (event.shouldCommit()) {
+                    String directSql = sqlArgument(arguments);
+                    event.sql = directSql != null ? directSql : preparedSql;
+                    event.batch = method.getName().endsWith("Batch");
+                    event.commit();
+                }
+            }
+        }
+    }
+}
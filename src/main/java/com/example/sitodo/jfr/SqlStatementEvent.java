@@ -0,0 +1,22 @@
+package com.example.sitodo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The execution of a SQL statement, without fetching its results.
+ */
+@Name("sitodo.SqlStatement")
+@Label("SQL Statement")
+@Category({"Sitodo", "Database"})
+@StackTrace(false)
+class SqlStatementEvent extends Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Batch")
+    boolean batch;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,22 @@
+package com.example.sitodo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The rendering of a Thymeleaf template.
+ */
+@Name("sitodo.TemplateRender")
+@Label("Template Render")
+@Category({"Sitodo", "Web"})
+@StackTrace(false)
+class TemplateRenderEvent extends Event {
+
+    @Label("Template")
+    String template;
+
+    @Label("List ID")
+    long listId;
+
+    @Label("Item Count")
+    int itemCount;
+}
@@ -0,0 +1,76 @@
+package com.example.sitodo.jfr;
+
+import com.example.sitodo.dto.TodoListDto;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records a {@link ControllerRequestEvent} for every request handled by a controller, and a
+ * {@link TemplateRenderEvent} for every rendering of the {@code list} template.
+ */
+class WebRequestRecorder implements HandlerInterceptor {
+
+    private static final String REQUEST_EVENT = WebRequestRecorder.class.getName() + ".request";
+
+    private static final String RENDER_EVENT = WebRequestRecorder.class.getName() + ".render";
+
+    private static final String RECORDED_TEMPLATE = "list";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ControllerRequestEvent event = new ControllerRequestEvent();
+
+        if (event.isEnabled() && handler instanceof HandlerMethod) {
+            event.begin();
+            request.setAttribute(REQUEST_EVENT, event);
+        }
+
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || !RECORDED_TEMPLATE.equals(modelAndView.getViewName())) {
+            return;
+        }
+
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        if (event.isEnabled()) {
+            event.template = RECORDED_TEMPLATE;
+            event.listId = -1;
+
+            if (modelAndView.getModel().get("todoList") instanceof TodoListDto todoList) {
+                event.listId = todoList.id();
+                event.itemCount = todoList.items().size();
+            }
+            event.begin();
+            request.setAttribute(RENDER_EVENT, event);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        if (request.getAttribute(RENDER_EVENT) instanceof TemplateRenderEvent renderEvent) {
+            renderEvent.commit();
+        }
+
+        if (request.getAttribute(REQUEST_EVENT) instanceof ControllerRequestEvent requestEvent) {
+            requestEvent.end();
+
+            if (requestEvent.shouldCommit()) {
+                HandlerMethod handlerMethod = (HandlerMethod) handler;
+                requestEvent.httpMethod = request.getMethod();
+                requestEvent.path = request.getRequestURI();
+                requestEvent.handler = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+                requestEvent.status = response.getStatus();
+                requestEvent.commit();
+            }
+        }
+    }
+}
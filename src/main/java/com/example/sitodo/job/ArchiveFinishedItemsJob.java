@@ -0,0 +1,211 @@
+package com.example.sitodo.job;
+
+import com.example.sitodo.event.TodoItemsRemovedEvent;
+import com.example.sitodo.event.TodoListChangedEvent;
+import com.example.sitodo.repository.ArchivedTodoItemRepository;
+import com.example.sitodo.repository.TodoItemRepository;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.shard.ShardRouter;
+import com.example.sitodo.stats.TodoListStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves items that have been finished for a while out of their lists into the archive, so that
+ * lists that are used for a long time only load their open and recently finished items.
+ *
+ * <p>Items are moved in batches of {@code sitodo.archive.batch-size}, each in its own short
+ * transaction, so that the job never holds the locks of many lists at once. When the lists are
+ * sharded, the shards are archived in parallel.
+ *
+ * <p>The job also prunes the removals recorded for delta sync that are older than
+ * {@code sitodo.archive.removal-retention}.
+ */
+@Component
+@Profile("!memory")
+@ConditionalOnProperty(name = "sitodo.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ArchiveFinishedItemsJob {
+
+    @Value("${sitodo.archive.min-age:P30D}")
+    private Duration minAge;
+
+    @Value("${sitodo.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${sitodo.archive.removal-retention:P7D}")
+    private Duration removalRetention;
+
+    private TodoListRepository todoListRepository;
+
+    private TodoItemRepository todoItemRepository;
+
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private TodoListStatistics todoListStatistics;
+
+    private ShardRouter shardRouter;
+
+    private Counter archivedItems;
+
+    private Timer runs;
+
+    @Autowired
+    public void setTodoListRepository(TodoListRepository todoListRepository) {
+        this.todoListRepository = todoListRepository;
+    }
+
+    @Autowired
+    public void setTodoItemRepository(TodoItemRepository todoItemRepository) {
+        this.todoItemRepository = todoItemRepository;
+    }
+
+    @Autowired
+    public void setArchivedTodoItemRepository(ArchivedTodoItemRepository archivedTodoItemRepository) {
+        this.archivedTodoItemRepository = archivedTodoItemRepository;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired
+    public void setTodoListStatistics(TodoListStatistics todoListStatistics) {
+        this.todoListStatistics = todoListStatistics;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.archivedItems = Counter.builder("sitodo.archive.items")
+            .description("Finished items moved into the archive")
+            .register(meterRegistry);
+        this.runs = Timer.builder("sitodo.archive.duration")
+            .description("Duration of the archive job runs")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sitodo.archive.interval:PT1H}",
+        initialDelayString = "${sitodo.archive.interval:PT1H}")
+    public void run() {
+        archiveItemsFinishedBefore(Instant.now().minus(minAge));
+        pruneRemovalsBefore(Instant.now().minus(removalRetention));
+    }
+
+    /**
+     * Archives all items that were finished before the given time.
+     *
+     * @param finishedBefore
+     * @return the number of archived items
+     */
+    public int archiveItemsFinishedBefore(Instant finishedBefore) {
+        return runs.record(() -> {
+            int total = shardRouter.onEachShard(() -> archiveShard(finishedBefore)).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+
+            if (total > 0) {
+                log.info("Archived {} items finished before {}", total, finishedBefore);
+            }
+
+            return total;
+        });
+    }
+
+    /**
+     * Deletes the removals recorded before the given time. Lists with pruned removals return the
+     * whole list to clients that last synced before them.
+     *
+     * @param removedBefore
+     * @return the number of pruned removals
+     */
+    public int pruneRemovalsBefore(Instant removedBefore) {
+        int total = shardRouter.onEachShard(() -> transactionTemplate.execute(status -> {
+            todoListRepository.updateRemovalsPrunedVersions(removedBefore);
+            return todoItemRepository.deleteRemovalsBefore(removedBefore);
+        })).stream().mapToInt(Integer::intValue).sum();
+
+        if (total > 0) {
+            log.info("Pruned {} removals recorded before {}", total, removedBefore);
+        }
+
+        return total;
+    }
+
+    private int archiveShard(Instant finishedBefore) {
+        int total = 0;
+        int selected;
+
+        do {
+            BatchResult result = transactionTemplate.execute(status -> archiveBatch(finishedBefore));
+            selected = result.selected();
+            total += result.archived();
+        } while (selected == batchSize);
+
+        return total;
+    }
+
+    private BatchResult archiveBatch(Instant finishedBefore) {
+        List<TodoItemRepository.ItemReference> items = todoItemRepository.findFinishedBefore(finishedBefore,
+            PageRequest.of(0, batchSize));
+
+        if (items.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        Map<Long, List<Long>> itemIdsByList = items.stream()
+            .collect(Collectors.groupingBy(TodoItemRepository.ItemReference::getTodoListId,
+                Collectors.mapping(TodoItemRepository.ItemReference::getId, Collectors.toList())));
+        List<Long> itemIds = items.stream().map(TodoItemRepository.ItemReference::getId).toList();
+
+        // Lock the lists first, like moves do, and re-check the items' state in the statements
+        // below in case they were marked as not finished in the meantime
+        todoListRepository.incrementVersions(itemIdsByList.keySet());
+        int archived = archivedTodoItemRepository.copyFinishedBefore(itemIds, finishedBefore, Instant.now());
+        todoItemRepository.recordRemovalsFinishedBefore(itemIds, finishedBefore);
+        int removed = todoItemRepository.deleteFinishedBefore(itemIds, finishedBefore);
+        todoListStatistics.recordItemsRemoved(removed, 0);
+
+        itemIdsByList.forEach((listId, removedItemIds) -> {
+            eventPublisher.publishEvent(new TodoItemsRemovedEvent(listId, removedItemIds));
+            eventPublisher.publishEvent(new TodoListChangedEvent(listId));
+        });
+        archivedItems.increment(archived);
+
+        return new BatchResult(items.size(), archived);
+    }
+
+    private record BatchResult(int selected, int archived) { }
+}
@@ -0,0 +1,51 @@
+package com.example.sitodo.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link AsyncAppender} that never blocks the logging thread and counts the events it drops.
+ * Once the queue is filled up to the discarding threshold, events below WARN are dropped; once
+ * it is full, all events are. The count is published as the {@code sitodo.logging.dropped}
+ * metric by {@link LoggingMetrics}.
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder droppedEvents = new LongAdder();
+
+    public DropCountingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // The queue would reject the event without telling, so it is dropped here to count it. An
+        // event may still be lost uncounted if another thread fills the last slot in between.
+        if (getRemainingCapacity() == 0) {
+            droppedEvents.increment();
+            return;
+        }
+
+        super.append(event);
+    }
+
+    /**
+     * Only asked while the queue is above the discarding threshold.
+     */
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+
+        if (discardable) {
+            droppedEvents.increment();
+        }
+
+        return discardable;
+    }
+}
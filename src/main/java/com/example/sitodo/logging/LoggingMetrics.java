@@ -0,0 +1,39 @@
+package com.example.sitodo.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes the events dropped by each {@link DropCountingAsyncAppender} of the root logger as
+ * the {@code sitodo.logging.dropped} metric, tagged with the appender name.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+
+        Iterator<Appender<ILoggingEvent>> appenders =
+            loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof DropCountingAsyncAppender appender) {
+                FunctionCounter.builder("sitodo.logging.dropped", appender, DropCountingAsyncAppender::getDroppedEvents)
+                    .description("Log events dropped because the queue of the asynchronous appender was full")
+                    .tag("appender", appender.getName())
+                    .register(registry);
+            }
+        }
+    }
+}
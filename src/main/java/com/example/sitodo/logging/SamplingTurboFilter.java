@@ -0,0 +1,80 @@
+package com.example.sitodo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets only a sample of the DEBUG and TRACE events of some loggers through, so that debug
+ * logging of hot paths can stay enabled in production. Rates are configured per logger as
+ * {@code name:rate} pairs separated by commas, e.g. {@code com.example.sitodo.controller:0.01}.
+ * Like levels, a rate applies to the descendants of a logger unless they have their own; other
+ * loggers are not sampled.
+ *
+ * <p>Only the logging calls themselves are sampled. Checks like {@code isDebugEnabled()} are
+ * left to the logger levels, so that a guarded call is not sampled twice.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private volatile Map<String, Double> rates = Map.of();
+
+    public void setRates(String rates) {
+        Map<String, Double> parsed = new HashMap<>();
+
+        for (String entry : rates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+
+            int separator = entry.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected logger:rate, found " + entry);
+            }
+
+            double rate = Double.parseDouble(entry.substring(separator + 1).trim());
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Sample rate must be between 0 and 1, found " + entry);
+            }
+            parsed.put(entry.substring(0, separator).trim(), rate);
+        }
+        this.rates = Map.copyOf(parsed);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Events the logger's level rejects anyway are left to it
+        if (format == null || level.isGreaterOrEqual(Level.INFO) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Double rate = rateFor(rates, logger.getName());
+        if (rate == null || rate >= 1) {
+            return FilterReply.NEUTRAL;
+        }
+
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Looks up the logger and then its parents, like logback does for levels.
+     */
+    private static Double rateFor(Map<String, Double> rates, String loggerName) {
+        String name = loggerName;
+
+        while (true) {
+            Double rate = rates.get(name);
+            int dot = name.lastIndexOf('.');
+
+            if (rate != null || dot < 0) {
+                return rate;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.sitodo.memory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps all lists in memory as {@link TodoListSnapshot snapshots}, for deployments that do not
+ * need a relational database, such as demos and tests.
+ *
+ * <p>Reads return the current snapshot without locking. Writes to the same list are serialised
+ * by one of a fixed set of lock stripes, so writes to different lists rarely wait for each other.
+ *
+ * <p>With the {@code journal} profile, every change is also written to a {@link TodoListJournal}
+ * while its lock stripe is held, so the journal contains the changes of each list in the order
+ * they were applied. Writes return once the journal has made them durable.
+ */
+@Component
+@Profile("memory")
+public class InMemoryTodoListStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Sorted by list ID, so that the overview can page through the lists without sorting them.
+     */
+    private final NavigableMap<Long, TodoListSnapshot> lists = new ConcurrentSkipListMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final AtomicLong listIdSequence = new AtomicLong();
+
+    private final AtomicLong itemIdSequence = new AtomicLong();
+
+    private TodoListJournal journal;
+
+    public InMemoryTodoListStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Restores the lists from the journal before the store is used.
+     */
+    @Autowired(required = false)
+    public void setJournal(TodoListJournal journal) {
+        journal.recover(this);
+        this.journal = journal;
+    }
+
+    /**
+     * @return the current snapshot of a list
+     */
+    public TodoListSnapshot get(long listId) throws NoSuchElementException {
+        TodoListSnapshot snapshot = lists.get(listId);
+
+        if (snapshot == null) {
+            throw new NoSuchElementException();
+        }
+
+        return snapshot;
+    }
+
+    public TodoListSnapshot create() {
+        return create(List.of());
+    }
+
+    /**
+     * Creates a list with items. The list is created and journaled as one change, so it is
+     * never seen or recovered without its items.
+     *
+     * @param titles the titles of the items, which get new IDs
+     * @return the snapshot of the new list
+     */
+    public TodoListSnapshot create(List<String> titles) {
+        long listId = listIdSequence.incrementAndGet();
+        TodoListMutation.AddItems addItems = new TodoListMutation.AddItems(
+            titles.stream().map(title -> nextItemId()).toList(), List.copyOf(titles));
+        TodoListSnapshot snapshot = addItems.apply(TodoListSnapshot.empty(listId));
+        long sequence;
+
+        synchronized (lockFor(listId)) {
+            lists.put(listId, snapshot);
+            sequence = journal == null ? 0 : journal.appendCreateList(listId, snapshot.version(), addItems);
+        }
+        awaitDurable(sequence);
+
+        return snapshot;
+    }
+
+    public long nextItemId() {
+        return itemIdSequence.incrementAndGet();
+    }
+
+    /**
+     * Applies a mutation to a list.
+     *
+     * @param listId
+     * @param mutation
+     * @return the snapshots before and after the mutation
+     */
+    public TodoListChange update(long listId, TodoListMutation mutation) throws NoSuchElementException {
+        TodoListChange change;
+        long sequence = 0;
+
+        synchronized (lockFor(listId)) {
+            TodoListSnapshot before = get(listId);
+            TodoListSnapshot after = mutation.apply(before);
+            change = new TodoListChange(before, after);
+
+            if (after != before) {
+                lists.put(listId, after);
+                sequence = journal == null ? 0 : journal.append(listId, after.version(), mutation);
+            }
+        }
+        awaitDurable(sequence);
+
+        return change;
+    }
+
+    /**
+     * @return the snapshot of the removed list
+     */
+    public TodoListSnapshot remove(long listId) throws NoSuchElementException {
+        TodoListSnapshot removed;
+        long sequence;
+
+        synchronized (lockFor(listId)) {
+            removed = lists.remove(listId);
+
+            if (removed == null) {
+                throw new NoSuchElementException();
+            }
+            sequence = journal == null ? 0 : journal.appendDeleteList(listId);
+        }
+        awaitDurable(sequence);
+
+        return removed;
+    }
+
+    /**
+     * @return the current snapshots of all lists
+     */
+    public Collection<TodoListSnapshot> snapshots() {
+        return lists.values();
+    }
+
+    /**
+     * @return the current snapshots of the lists with an ID greater than {@code afterId}, ordered
+     *         by ID; a view, so only the consumed part is traversed
+     */
+    public Collection<TodoListSnapshot> snapshotsAfter(long afterId) {
+        return lists.tailMap(afterId, false).values();
+    }
+
+    long lastListId() {
+        return listIdSequence.get();
+    }
+
+    long lastItemId() {
+        return itemIdSequence.get();
+    }
+
+    /**
+     * Replaces or adds a list while the journal is replayed. Not journaled.
+     */
+    void restore(TodoListSnapshot snapshot) {
+        lists.put(snapshot.listId(), snapshot);
+        listIdSequence.accumulateAndGet(snapshot.listId(), Math::max);
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            itemIdSequence.accumulateAndGet(snapshot.itemId(i), Math::max);
+        }
+    }
+
+    /**
+     * Removes a list while the journal is replayed. Not journaled.
+     */
+    void restoreRemoval(long listId) {
+        lists.remove(listId);
+        listIdSequence.accumulateAndGet(listId, Math::max);
+    }
+
+    /**
+     * Makes sure IDs are not reused, even those of lists and items that were deleted.
+     */
+    void restoreSequences(long lastListId, long lastItemId) {
+        listIdSequence.accumulateAndGet(lastListId, Math::max);
+        itemIdSequence.accumulateAndGet(lastItemId, Math::max);
+    }
+
+    /**
+     * @return the current snapshot of a list, or {@code null} if there is no such list
+     */
+    public TodoListSnapshot find(long listId) {
+        return lists.get(listId);
+    }
+
+    private void awaitDurable(long sequence) {
+        if (sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    private Object lockFor(long listId) {
+        return locks[(int) (listId ^ (listId >>> 32)) & (LOCK_STRIPES - 1)];
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.sitodo.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A fixed-size, memory-mapped file of journal records.
+ *
+ * <p>Each record is stored as its length, the CRC-32 of its body and the body. A length of zero
+ * marks the end of the records. A record that was only partly written when the process died
+ * fails its checksum and, together with everything after it, is discarded on recovery.
+ */
+final class JournalSegment implements Closeable {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final long index;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The position up to which the segment has been forced to disk.
+     */
+    private int forcedPosition;
+
+    private JournalSegment(long index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.index = index;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment open(Path path, long index, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        int mappedSize = (int) Math.max(size, channel.size());
+
+        return new JournalSegment(index, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+    }
+
+    long index() {
+        return index;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Reads the valid records from the start of the segment and positions the segment after
+     * them. Anything after the last valid record is zeroed, so that it cannot be mistaken for
+     * records later.
+     *
+     * @param recordConsumer receives the body of each valid record
+     * @return {@code true} if the records ended cleanly, {@code false} if a damaged record was found
+     */
+    boolean recover(Consumer<ByteBuffer> recordConsumer) {
+        CRC32 crc = new CRC32();
+        buffer.position(0);
+        boolean clean = true;
+
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+
+            if (length == 0) {
+                break;
+            }
+
+            int checksum = buffer.getInt(start + Integer.BYTES);
+            if (length < 0 || length > buffer.remaining() - HEADER_SIZE) {
+                clean = false;
+                break;
+            }
+
+            ByteBuffer body = buffer.slice(start + HEADER_SIZE, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                clean = false;
+                break;
+            }
+
+            recordConsumer.accept(body);
+            buffer.position(start + HEADER_SIZE + length);
+        }
+
+        if (!clean) {
+            zeroFrom(buffer.position());
+        }
+        forcedPosition = buffer.position();
+
+        return clean;
+    }
+
+    /**
+     * @return {@code false} if the record does not fit into the rest of the segment
+     */
+    boolean append(ByteBuffer body) {
+        int length = body.remaining();
+
+        if (buffer.remaining() < HEADER_SIZE + length) {
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.put(body);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        // Writing the length last means a record is never seen with a length but without its body
+        buffer.putInt(start, length);
+
+        return true;
+    }
+
+    /**
+     * Writes the records appended so far to disk. Must be called by the appending thread.
+     */
+    void force() {
+        force(buffer.position());
+    }
+
+    /**
+     * Writes the records up to a position to disk. May be called concurrently with appends, with
+     * a position the appending thread has published.
+     */
+    void force(int position) {
+        int from;
+
+        synchronized (this) {
+            from = forcedPosition;
+            if (position <= from) {
+                return;
+            }
+            forcedPosition = position;
+        }
+
+        buffer.force(from, position - from);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void zeroFrom(int position) {
+        ByteBuffer zeros = ByteBuffer.allocate(Math.min(64 * 1024, buffer.capacity()));
+
+        for (int offset = position; offset < buffer.capacity(); offset += zeros.capacity()) {
+            int length = Math.min(zeros.capacity(), buffer.capacity() - offset);
+            buffer.put(offset, zeros.array(), 0, length);
+        }
+        buffer.force();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.sitodo.memory;
+
+/**
+ * The result of applying a {@link TodoListMutation}.
+ *
+ * @param before the snapshot the mutation was applied to
+ * @param after the new snapshot of the list
+ */
+public record TodoListChange(TodoListSnapshot before, TodoListSnapshot after) { }
@@ -0,0 +1,557 @@
+package com.example.sitodo.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Makes the {@link InMemoryTodoListStore} durable without a database (the {@code journal}
+ * profile).
+ *
+ * <p>Every change is appended to a memory-mapped {@link JournalSegment}. A writer waits until its
+ * record has been forced to disk; concurrent writers share one force ("group commit"). On
+ * startup, the store is rebuilt from the latest snapshot file plus the records appended after it.
+ * In the background, the journal is compacted: it moves on to a new segment, writes the store's
+ * current state to a snapshot file and deletes the older segments.
+ *
+ * <p>Each record carries the version of its list after the change, so records that are already
+ * contained in a snapshot are skipped when they are replayed. Replaying stops at the first damaged
+ * record; the segments after it are renamed to {@code discarded-segment-*.log} and not replayed.
+ */
+@Component
+@Profile("journal")
+@Slf4j
+public class TodoListJournal implements DisposableBean {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{20})\\.log");
+
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d{20})\\.dat");
+
+    private static final int SNAPSHOT_MAGIC = 0x53544a31;
+
+    private static final byte CREATE_LIST = 1;
+
+    private static final byte DELETE_LIST = 2;
+
+    private static final byte ADD_ITEM = 3;
+
+    private static final byte SET_FINISHED = 4;
+
+    private static final byte MOVE = 5;
+
+    private static final byte DELETE_ITEM = 6;
+
+    private static final byte CLEAR_FINISHED = 7;
+
+    private static final byte ADD_ITEMS = 8;
+
+    private static final byte CREATE_LIST_WITH_ITEMS = 9;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final boolean fsync;
+
+    private final Object appendLock = new Object();
+
+    private final Object flushLock = new Object();
+
+    private final Object compactionLock = new Object();
+
+    private JournalSegment currentSegment;
+
+    private long appendedSequence;
+
+    private volatile long durableSequence;
+
+    private InMemoryTodoListStore store;
+
+    public TodoListJournal(@Value("${sitodo.journal.directory:data/journal}") Path directory,
+                           @Value("${sitodo.journal.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${sitodo.journal.fsync:true}") boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.fsync = fsync;
+    }
+
+    /**
+     * Rebuilds the lists of a store from the latest snapshot and the journal.
+     */
+    void recover(InMemoryTodoListStore store) {
+        long start = System.nanoTime();
+
+        try {
+            Files.createDirectories(directory);
+
+            long snapshotSegment = loadLatestSnapshot(store);
+            List<Long> segments = findFiles(SEGMENT_FILE);
+            int replayed = 0;
+            boolean damaged = false;
+
+            for (long index : segments) {
+                if (index < snapshotSegment) {
+                    // Left over from a compaction that was interrupted after writing the snapshot
+                    Files.deleteIfExists(segmentPath(index));
+                    continue;
+                }
+                if (damaged) {
+                    // Records after a damaged one may depend on it, so they must not be replayed
+                    Files.move(segmentPath(index), directory.resolve("discarded-" + segmentPath(index).getFileName()),
+                        StandardCopyOption.REPLACE_EXISTING);
+                    log.warn("Discarded journal segment {}, which follows a damaged record", index);
+                    continue;
+                }
+
+                JournalSegment segment = JournalSegment.open(segmentPath(index), index, segmentSize);
+                int[] count = {0};
+                if (!segment.recover(body -> {
+                    replay(store, body);
+                    count[0]++;
+                })) {
+                    log.warn("Discarded a damaged record at position {} of journal segment {}", segment.position(), index);
+                    damaged = true;
+                }
+                replayed += count[0];
+
+                if (currentSegment != null) {
+                    currentSegment.close();
+                }
+                currentSegment = segment;
+            }
+
+            if (currentSegment == null) {
+                currentSegment = JournalSegment.open(segmentPath(snapshotSegment), snapshotSegment, segmentSize);
+            }
+
+            this.store = store;
+            log.info("Recovered {} lists from {} ({} journal records) in {} ms", store.snapshots().size(),
+                directory, replayed, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not recover the journal in " + directory, exception);
+        }
+    }
+
+    /**
+     * Appends the creation of a list, together with its items if there are any.
+     *
+     * @param version the version of the list after the items were added
+     */
+    long appendCreateList(long listId, long version, TodoListMutation.AddItems addItems) {
+        if (addItems.itemIds().isEmpty()) {
+            return append(encode(CREATE_LIST, listId, 0L, 0).flip());
+        }
+
+        return append(encodeItems(CREATE_LIST_WITH_ITEMS, listId, version, addItems).flip());
+    }
+
+    long appendDeleteList(long listId) {
+        return append(encode(DELETE_LIST, listId, 0L, 0).flip());
+    }
+
+    /**
+     * Appends a change of a list. Must be called while the list's lock is held, so that the
+     * records of a list are in the order of its versions.
+     *
+     * @return the sequence number to pass to {@link #awaitDurable(long)}
+     */
+    long append(long listId, long version, TodoListMutation mutation) {
+        ByteBuffer body;
+
+        if (mutation instanceof TodoListMutation.AddItem addItem) {
+            byte[] title = addItem.title().getBytes(StandardCharsets.UTF_8);
+            body = encode(ADD_ITEM, listId, version, Long.BYTES + Integer.BYTES + title.length)
+                .putLong(addItem.itemId()).putInt(title.length).put(title);
+        } else if (mutation instanceof TodoListMutation.AddItems addItems) {
+            body = encodeItems(ADD_ITEMS, listId, version, addItems);
+        } else if (mutation instanceof TodoListMutation.SetFinished setFinished) {
+            body = encode(SET_FINISHED, listId, version, Long.BYTES + 1)
+                .putLong(setFinished.itemId()).put((byte) (setFinished.finished() ? 1 : 0));
+        } else if (mutation instanceof TodoListMutation.Move move) {
+            body = encode(MOVE, listId, version, 2 * Long.BYTES)
+                .putLong(move.itemId()).putLong(move.beforeItemId() == null ? 0L : move.beforeItemId());
+        } else if (mutation instanceof TodoListMutation.DeleteItem deleteItem) {
+            body = encode(DELETE_ITEM, listId, version, Long.BYTES).putLong(deleteItem.itemId());
+        } else {
+            body = encode(CLEAR_FINISHED, listId, version, 0);
+        }
+
+        return append(body.flip());
+    }
+
+    /**
+     * Waits until the record with the given sequence number, and all before it, are on disk.
+     * Whichever waiting writer gets the flush lock first forces the records of all of them.
+     */
+    void awaitDurable(long sequence) {
+        if (!fsync || durableSequence >= sequence) {
+            return;
+        }
+
+        synchronized (flushLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+
+            long target;
+            JournalSegment segment;
+            int position;
+            synchronized (appendLock) {
+                target = appendedSequence;
+                segment = currentSegment;
+                position = segment.position();
+            }
+
+            segment.force(position);
+            durableSequence = target;
+        }
+    }
+
+    /**
+     * Writes a snapshot and deletes the segments it replaces, once the current segment is half
+     * full or older segments are still around.
+     */
+    @Scheduled(fixedDelayString = "${sitodo.journal.compaction-interval:PT10M}",
+        initialDelayString = "${sitodo.journal.compaction-interval:PT10M}")
+    public void compactIfNeeded() {
+        boolean needed;
+
+        synchronized (appendLock) {
+            needed = currentSegment.position() > currentSegment.capacity() / 2
+                || findFilesQuietly(SEGMENT_FILE).size() > 1;
+        }
+
+        if (needed) {
+            compact();
+        }
+    }
+
+    public void compact() {
+        synchronized (compactionLock) {
+            long start = System.nanoTime();
+
+            try {
+                long snapshotSegment;
+                synchronized (appendLock) {
+                    roll();
+                    snapshotSegment = currentSegment.index();
+                }
+
+                // Every record in the older segments has been applied to the store before it was
+                // appended, so the snapshot contains all of them
+                writeSnapshot(snapshotSegment);
+
+                for (long index : findFiles(SEGMENT_FILE)) {
+                    if (index < snapshotSegment) {
+                        Files.deleteIfExists(segmentPath(index));
+                    }
+                }
+                for (long index : findFiles(SNAPSHOT_FILE)) {
+                    if (index < snapshotSegment) {
+                        Files.deleteIfExists(snapshotPath(index));
+                    }
+                }
+
+                log.info("Compacted the journal into snapshot {} in {} ms", snapshotSegment,
+                    (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException exception) {
+                log.error("Could not compact the journal in {}", directory, exception);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        synchronized (appendLock) {
+            if (currentSegment != null) {
+                currentSegment.close();
+            }
+        }
+    }
+
+    private long append(ByteBuffer body) {
+        synchronized (appendLock) {
+            if (!currentSegment.append(body.duplicate())) {
+                roll();
+
+                if (!currentSegment.append(body)) {
+                    throw new IllegalStateException("Journal record of " + body.remaining()
+                        + " bytes does not fit into a segment");
+                }
+            }
+
+            return ++appendedSequence;
+        }
+    }
+
+    /**
+     * Continues in a new segment. The old segment is forced first, so that waiting writers only
+     * need to force the current segment.
+     */
+    private void roll() {
+        long nextIndex = currentSegment.index() + 1;
+
+        try {
+            currentSegment.close();
+            currentSegment = JournalSegment.open(segmentPath(nextIndex), nextIndex, segmentSize);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not create journal segment " + nextIndex, exception);
+        }
+    }
+
+    private static ByteBuffer encode(byte type, long listId, long version, int payloadSize) {
+        ByteBuffer body = ByteBuffer.allocate(1 + 2 * Long.BYTES + payloadSize);
+
+        return body.put(type).putLong(listId).putLong(version);
+    }
+
+    private static ByteBuffer encodeItems(byte type, long listId, long version, TodoListMutation.AddItems addItems) {
+        List<byte[]> titles = addItems.titles().stream().map(title -> title.getBytes(StandardCharsets.UTF_8)).toList();
+        int payloadSize = Integer.BYTES + titles.stream().mapToInt(title -> Long.BYTES + Integer.BYTES + title.length).sum();
+        ByteBuffer body = encode(type, listId, version, payloadSize).putInt(titles.size());
+
+        for (int i = 0; i < titles.size(); i++) {
+            body.putLong(addItems.itemIds().get(i)).putInt(titles.get(i).length).put(titles.get(i));
+        }
+
+        return body;
+    }
+
+    private static TodoListMutation.AddItems decodeItems(InMemoryTodoListStore store, ByteBuffer body) {
+        int count = body.getInt();
+        List<Long> itemIds = new ArrayList<>(count);
+        List<String> titles = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            long itemId = body.getLong();
+            byte[] title = new byte[body.getInt()];
+            body.get(title);
+            store.restoreSequences(0L, itemId);
+            itemIds.add(itemId);
+            titles.add(new String(title, StandardCharsets.UTF_8));
+        }
+
+        return new TodoListMutation.AddItems(itemIds, titles);
+    }
+
+    private static void replay(InMemoryTodoListStore store, ByteBuffer body) {
+        byte type = body.get();
+        long listId = body.getLong();
+        long version = body.getLong();
+
+        if (type == CREATE_LIST) {
+            if (store.find(listId) == null) {
+                store.restore(TodoListSnapshot.empty(listId));
+            }
+            return;
+        }
+        if (type == CREATE_LIST_WITH_ITEMS) {
+            TodoListMutation.AddItems addItems = decodeItems(store, body);
+            if (store.find(listId) == null) {
+                store.restore(addItems.apply(TodoListSnapshot.empty(listId)));
+            }
+            return;
+        }
+        if (type == DELETE_LIST) {
+            store.restoreRemoval(listId);
+            return;
+        }
+
+        TodoListMutation mutation = switch (type) {
+            case ADD_ITEM -> {
+                long itemId = body.getLong();
+                byte[] title = new byte[body.getInt()];
+                body.get(title);
+                store.restoreSequences(0L, itemId);
+                yield new TodoListMutation.AddItem(itemId, new String(title, StandardCharsets.UTF_8));
+            }
+            case ADD_ITEMS -> decodeItems(store, body);
+            case SET_FINISHED -> new TodoListMutation.SetFinished(body.getLong(), body.get() == 1);
+            case MOVE -> {
+                long itemId = body.getLong();
+                long beforeItemId = body.getLong();
+                yield new TodoListMutation.Move(itemId, beforeItemId == 0L ? null : beforeItemId);
+            }
+            case DELETE_ITEM -> new TodoListMutation.DeleteItem(body.getLong());
+            case CLEAR_FINISHED -> new TodoListMutation.ClearFinished();
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+
+        TodoListSnapshot current = store.find(listId);
+        if (current == null || current.version() >= version) {
+            // The list was deleted later, or the snapshot already contains this change
+            return;
+        }
+
+        TodoListSnapshot updated = mutation.apply(current);
+        if (updated.version() != version) {
+            log.warn("Replaying version {} of list {} on version {}", version, listId, current.version());
+        }
+        store.restore(updated);
+    }
+
+    private long loadLatestSnapshot(InMemoryTodoListStore store) throws IOException {
+        List<Long> snapshots = new ArrayList<>(findFiles(SNAPSHOT_FILE));
+        snapshots.sort(Comparator.reverseOrder());
+
+        for (long index : snapshots) {
+            try {
+                readSnapshot(snapshotPath(index), store);
+                return index;
+            } catch (IOException exception) {
+                log.warn("Ignoring damaged journal snapshot {}", index, exception);
+                store.snapshots().clear();
+            }
+        }
+
+        return 0L;
+    }
+
+    private void writeSnapshot(long index) throws IOException {
+        Path temporary = directory.resolve("snapshot.tmp");
+        CRC32 crc = new CRC32();
+
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeLong(store.lastListId());
+            output.writeLong(store.lastItemId());
+
+            List<TodoListSnapshot> lists = List.copyOf(store.snapshots());
+            output.writeInt(lists.size());
+            for (TodoListSnapshot list : lists) {
+                output.writeLong(list.listId());
+                output.writeLong(list.version());
+                output.writeInt(list.size());
+
+                for (int i = 0; i < list.size(); i++) {
+                    output.writeLong(list.itemId(i));
+                    output.writeBoolean(list.isFinished(i));
+                    // Not writeUTF, which is limited to 65535 bytes
+                    byte[] title = list.title(i).getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(title.length);
+                    output.write(title);
+                }
+            }
+
+            output.flush();
+            new DataOutputStream(file).writeLong(crc.getValue());
+            file.getFD().sync();
+        }
+
+        Files.move(temporary, snapshotPath(index), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The older segments are deleted next, so the rename must be durable first
+        syncDirectory();
+    }
+
+    private void syncDirectory() throws IOException {
+        if (!fsync) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException exception) {
+            // Some platforms, such as Windows, cannot open directories; renames are durable there
+            log.debug("Could not sync the journal directory {}", directory, exception);
+        }
+    }
+
+    private static void readSnapshot(Path path, InMemoryTodoListStore store) throws IOException {
+        CRC32 crc = new CRC32();
+
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path));
+             DataInputStream input = new DataInputStream(new CheckedInputStream(file, crc))) {
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a journal snapshot: " + path);
+            }
+
+            long lastListId = input.readLong();
+            long lastItemId = input.readLong();
+            int listCount = input.readInt();
+            List<TodoListSnapshot> lists = new ArrayList<>(listCount);
+
+            for (int list = 0; list < listCount; list++) {
+                long listId = input.readLong();
+                long version = input.readLong();
+                int size = input.readInt();
+                long[] itemIds = new long[size];
+                String[] titles = new String[size];
+                BitSet finished = new BitSet(size);
+
+                for (int i = 0; i < size; i++) {
+                    itemIds[i] = input.readLong();
+                    finished.set(i, input.readBoolean());
+                    titles[i] = readTitle(input);
+                }
+                lists.add(TodoListSnapshot.of(listId, version, itemIds, titles, finished));
+            }
+
+            long expectedChecksum = crc.getValue();
+            if (new DataInputStream(file).readLong() != expectedChecksum) {
+                throw new IOException("Checksum mismatch in " + path);
+            }
+
+            lists.forEach(store::restore);
+            store.restoreSequences(lastListId, lastItemId);
+        }
+    }
+
+    private static String readTitle(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Damaged title length " + length);
+        }
+
+        byte[] title = new byte[length];
+        input.readFully(title);
+
+        return new String(title, StandardCharsets.UTF_8);
+    }
+
+    private List<Long> findFiles(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> pattern.matcher(file.getFileName().toString()))
+                .filter(Matcher::matches)
+                .map(matcher -> Long.valueOf(matcher.group(1)))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private List<Long> findFilesQuietly(Pattern pattern) {
+        try {
+            return findFiles(pattern);
+        } catch (IOException exception) {
+            return List.of();
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("segment-%020d.log", index));
+    }
+
+    private Path snapshotPath(long index) {
+        return directory.resolve(String.format("snapshot-%020d.dat", index));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sitodo.memory;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A change to a single list. Mutations are plain values, so that they can be written to the
+ * {@link TodoListJournal} and applied again when the journal is replayed.
+ */
+public sealed interface TodoListMutation {
+
+    /**
+     * @return the changed snapshot, or the given snapshot if nothing changes
+     */
+    TodoListSnapshot apply(TodoListSnapshot snapshot) throws NoSuchElementException;
+
+    record AddItem(long itemId, String title) implements TodoListMutation {
+
+        @Override
+        public TodoListSnapshot apply(TodoListSnapshot snapshot) {
+            return snapshot.withItem(itemId, title);
+        }
+    }
+
+    /**
+     * Adds several items at once, e.g. those of a new list.
+     *
+     * @param itemIds the IDs of the items, in the order of {@code titles}
+     */
+    record AddItems(List<Long> itemIds, List<String> titles) implements TodoListMutation {
+
+        @Override
+        public TodoListSnapshot apply(TodoListSnapshot snapshot) {
+            return itemIds.isEmpty() ? snapshot : snapshot.withItems(itemIds, titles);
+        }
+    }
+
+    /**
+     * Like the JPA implementation, setting the status of an item that is not in the list changes
+     * nothing.
+     */
+    record SetFinished(long itemId, boolean finished) implements TodoListMutation {
+
+        @Override
+        public TodoListSnapshot apply(TodoListSnapshot snapshot) {
+            return snapshot.indexOf(itemId) < 0 ? snapshot : snapshot.withFinished(itemId, finished);
+        }
+    }
+
+    record Move(long itemId, Long beforeItemId) implements TodoListMutation {
+
+        @Override
+        public TodoListSnapshot apply(TodoListSnapshot snapshot) throws NoSuchElementException {
+            return snapshot.withMoved(itemId, beforeItemId);
+        }
+    }
+
+    record DeleteItem(long itemId) implements TodoListMutation {
+
+        @Override
+        public TodoListSnapshot apply(TodoListSnapshot snapshot) throws NoSuchElementException {
+            int index = snapshot.indexOf(itemId);
+
+            if (index < 0) {
+                throw new NoSuchElementException();
+            }
+
+            BitSet removed = new BitSet();
+            removed.set(index);
+
+            return snapshot.without(removed);
+        }
+    }
+
+    record ClearFinished() implements TodoListMutation {
+
+        @Override
+        public TodoListSnapshot apply(TodoListSnapshot snapshot) {
+            return snapshot.countFinished() == 0 ? snapshot : snapshot.without(snapshot.finishedItems());
+        }
+    }
+}
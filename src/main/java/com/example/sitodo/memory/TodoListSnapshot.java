@@ -0,0 +1,187 @@
+package com.example.sitodo.memory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable version of a list, stored as parallel arrays: item IDs, titles and a bit set of
+ * finished items. Changes create a new snapshot, so readers never need a lock.
+ */
+public final class TodoListSnapshot {
+
+    private final long listId;
+
+    private final long version;
+
+    private final long[] itemIds;
+
+    private final String[] titles;
+
+    private final BitSet finished;
+
+    private TodoListSnapshot(long listId, long version, long[] itemIds, String[] titles, BitSet finished) {
+        this.listId = listId;
+        this.version = version;
+        this.itemIds = itemIds;
+        this.titles = titles;
+        this.finished = finished;
+    }
+
+    static TodoListSnapshot empty(long listId) {
+        return new TodoListSnapshot(listId, 0L, new long[0], new String[0], new BitSet());
+    }
+
+    /**
+     * Restores a snapshot, e.g. from a {@link TodoListJournal} snapshot file.
+     */
+    static TodoListSnapshot of(long listId, long version, long[] itemIds, String[] titles, BitSet finished) {
+        return new TodoListSnapshot(listId, version, itemIds, titles, finished);
+    }
+
+    public long listId() {
+        return listId;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return itemIds.length;
+    }
+
+    public long itemId(int index) {
+        return itemIds[index];
+    }
+
+    public String title(int index) {
+        return titles[index];
+    }
+
+    public boolean isFinished(int index) {
+        return finished.get(index);
+    }
+
+    public int countFinished() {
+        return finished.cardinality();
+    }
+
+    /**
+     * @return the position of an item, or {@code -1} if the list does not contain it
+     */
+    public int indexOf(long itemId) {
+        for (int i = 0; i < itemIds.length; i++) {
+            if (itemIds[i] == itemId) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public TodoListSnapshot withItem(long itemId, String title) {
+        long[] newItemIds = Arrays.copyOf(itemIds, itemIds.length + 1);
+        String[] newTitles = Arrays.copyOf(titles, titles.length + 1);
+        newItemIds[itemIds.length] = itemId;
+        newTitles[titles.length] = title;
+
+        return new TodoListSnapshot(listId, version + 1, newItemIds, newTitles, (BitSet) finished.clone());
+    }
+
+    /**
+     * Appends several items as one change.
+     */
+    public TodoListSnapshot withItems(List<Long> newItemIds, List<String> newTitles) {
+        long[] allItemIds = Arrays.copyOf(itemIds, itemIds.length + newItemIds.size());
+        String[] allTitles = Arrays.copyOf(titles, titles.length + newTitles.size());
+        for (int i = 0; i < newItemIds.size(); i++) {
+            allItemIds[itemIds.length + i] = newItemIds.get(i);
+            allTitles[titles.length + i] = newTitles.get(i);
+        }
+
+        return new TodoListSnapshot(listId, version + 1, allItemIds, allTitles, (BitSet) finished.clone());
+    }
+
+    public TodoListSnapshot withFinished(long itemId, boolean isFinished) {
+        int index = requireIndex(itemId);
+        BitSet newFinished = (BitSet) finished.clone();
+        newFinished.set(index, isFinished);
+
+        return new TodoListSnapshot(listId, version + 1, itemIds, titles, newFinished);
+    }
+
+    /**
+     * Moves an item before another item, or to the end if {@code beforeItemId} is {@code null}.
+     */
+    public TodoListSnapshot withMoved(long itemId, Long beforeItemId) {
+        int from = requireIndex(itemId);
+        int before = beforeItemId == null ? itemIds.length : requireIndex(beforeItemId);
+
+        // The old positions of the items, in their new order
+        int[] order = new int[itemIds.length];
+        int position = 0;
+        for (int i = 0; i < itemIds.length; i++) {
+            if (i == before) {
+                order[position++] = from;
+            }
+            if (i != from) {
+                order[position++] = i;
+            }
+        }
+        if (before == itemIds.length) {
+            order[position] = from;
+        }
+
+        long[] newItemIds = new long[itemIds.length];
+        String[] newTitles = new String[titles.length];
+        BitSet newFinished = new BitSet(itemIds.length);
+        for (int i = 0; i < order.length; i++) {
+            newItemIds[i] = itemIds[order[i]];
+            newTitles[i] = titles[order[i]];
+            newFinished.set(i, finished.get(order[i]));
+        }
+
+        return new TodoListSnapshot(listId, version + 1, newItemIds, newTitles, newFinished);
+    }
+
+    /**
+     * Removes the items at the given positions.
+     */
+    public TodoListSnapshot without(BitSet removed) {
+        int newSize = itemIds.length - removed.cardinality();
+        long[] newItemIds = new long[newSize];
+        String[] newTitles = new String[newSize];
+        BitSet newFinished = new BitSet(newSize);
+
+        int target = 0;
+        for (int i = 0; i < itemIds.length; i++) {
+            if (!removed.get(i)) {
+                newItemIds[target] = itemIds[i];
+                newTitles[target] = titles[i];
+                newFinished.set(target, finished.get(i));
+                target++;
+            }
+        }
+
+        return new TodoListSnapshot(listId, version + 1, newItemIds, newTitles, newFinished);
+    }
+
+    /**
+     * @return a copy of the finished bits, e.g. to remove all finished items
+     */
+    public BitSet finishedItems() {
+        return (BitSet) finished.clone();
+    }
+
+    private int requireIndex(long itemId) {
+        int index = indexOf(itemId);
+
+        if (index < 0) {
+            throw new NoSuchElementException();
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.sitodo.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A finished item that has been moved out of its list into the archive.
+ */
+@Data
+@Entity
+@Table(name = "todo_item_archive")
+@NoArgsConstructor
+public class ArchivedTodoItem {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long todoListId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column
+    private Long sortKey;
+
+    @Column
+    private Instant finishedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
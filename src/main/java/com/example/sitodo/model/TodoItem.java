@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Data
 @Entity
@@ -20,6 +21,46 @@ public class TodoItem {
     @Column
     private Boolean finished = Boolean.FALSE;
 
+    /**
+     * When the item was last marked as finished, or {@code null} if it is not finished.
+     */
+    @Column
+    private Instant finishedAt;
+
+    /**
+     * When the item is due, or {@code null} if it has no due time.
+     */
+    @Column
+    private Instant dueAt;
+
+    /**
+     * Whether the due time has passed and has been handled by
+     * {@link com.example.sitodo.due.DueDateScheduler}. Only changed by the scheduler's bulk
+     * updates, so that saving a list never overwrites it with a stale value.
+     */
+    @Column(nullable = false, updatable = false)
+    private Boolean dueHandled = Boolean.FALSE;
+
+    /**
+     * The ID of the list that owns this item. Maintained through {@link TodoList#getItems()}.
+     */
+    @Column(name = "todo_list_id", insertable = false, updatable = false)
+    private Long todoListId;
+
+    /**
+     * Items are ordered by ascending sort key. Keys are spaced apart, so that an item can be
+     * moved between two others by changing its own key only.
+     */
+    @Column
+    private Long sortKey;
+
+    /**
+     * The version of the list when the item was added or last changed, so that clients can
+     * fetch only the items changed since the version they have.
+     */
+    @Column(nullable = false)
+    private Long changeVersion = 0L;
+
     public TodoItem(String title) {
         this.title = title;
     }
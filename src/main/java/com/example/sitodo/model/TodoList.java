@@ -17,8 +17,19 @@ public class TodoList {
     private Long id;
 
     @OneToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @JoinColumn(name = "todo_list_id")
+    @OrderBy("sortKey")
     private List<TodoItem> items = new ArrayList<>();
 
+    /**
+     * Incremented on every change to the list or its items. Used to tell whether anything
+     * derived from the list (e.g. a rendered page) is still current. Only changed by the atomic
+     * {@link com.example.sitodo.repository.TodoListRepository#incrementVersion(Long)}, so that
+     * saving a list never writes back a stale version.
+     */
+    @Column(nullable = false, updatable = false)
+    private Long version = 0L;
+
     public TodoList(List<TodoItem> items) {
         this.items = items;
     }
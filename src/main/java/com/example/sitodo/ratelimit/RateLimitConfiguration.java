@@ -0,0 +1,61 @@
+package com.example.sitodo.ratelimit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sitodo.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+    @Bean
+    public RateLimiter createListRateLimiter(
+        @Value("${sitodo.rate-limit.create-list.capacity:20}") long capacity,
+        @Value("${sitodo.rate-limit.create-list.period:PT1M}") Duration period,
+        @Value("${sitodo.rate-limit.max-clients:100000}") int maxClients,
+        @Value("${sitodo.rate-limit.sweep-interval:PT1M}") Duration sweepInterval) {
+        return new RateLimiter("create-list", capacity, period, maxClients, sweepInterval);
+    }
+
+    @Bean
+    public RateLimiter updateListRateLimiter(
+        @Value("${sitodo.rate-limit.update-list.capacity:120}") long capacity,
+        @Value("${sitodo.rate-limit.update-list.period:PT1M}") Duration period,
+        @Value("${sitodo.rate-limit.max-clients:100000}") int maxClients,
+        @Value("${sitodo.rate-limit.sweep-interval:PT1M}") Duration sweepInterval) {
+        return new RateLimiter("update-list", capacity, period, maxClients, sweepInterval);
+    }
+
+    /**
+     * Limits the lists created through the batch API, each list counting as one request.
+     */
+    @Bean
+    public RateLimiter createListsRateLimiter(
+        @Value("${sitodo.rate-limit.create-lists.capacity:1000}") long capacity,
+        @Value("${sitodo.rate-limit.create-lists.period:PT10M}") Duration period,
+        @Value("${sitodo.rate-limit.max-clients:100000}") int maxClients,
+        @Value("${sitodo.rate-limit.sweep-interval:PT1M}") Duration sweepInterval) {
+        return new RateLimiter("create-lists", capacity, period, maxClients, sweepInterval);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+        @Qualifier("createListRateLimiter") RateLimiter createListRateLimiter,
+        @Qualifier("updateListRateLimiter") RateLimiter updateListRateLimiter,
+        @Qualifier("createListsRateLimiter") RateLimiter createListsRateLimiter,
+        @Value("${sitodo.rate-limit.client-header:}") String clientHeader) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+            new RateLimitFilter(createListRateLimiter, updateListRateLimiter, createListsRateLimiter, clientHeader));
+        registration.addUrlPatterns("/list", "/list/*", "/api/lists");
+        // Reject before any other filter does work for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+
+        return registration;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.sitodo.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the rate limits to the requests that write to the database: creating a list, and
+ * adding, updating, moving and deleting items of an existing list. Rejected requests get
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ *
+ * <p>Creating lists through the batch API costs one request per list. The number of lists is
+ * only known once the controller has read the request body, so the filter leaves the limit of
+ * those requests to the controller, see {@link #tryAcquire(ServletRequest, long)}.
+ *
+ * <p>Clients are identified by the value of a configurable header, e.g. an API key or the
+ * client address set by a reverse proxy, or else by their remote address.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Pattern LIST_WRITE_PATH = Pattern.compile("^/list/\\d+(/.*)?$");
+
+    private static final Pattern ITEM_UPDATE_PATH = Pattern.compile("^/list/\\d+/update/\\d+$");
+
+    private static final String DEFERRED_LIMIT_ATTRIBUTE = RateLimitFilter.class.getName() + ".deferredLimit";
+
+    private final RateLimiter createListLimiter;
+
+    private final RateLimiter updateListLimiter;
+
+    private final RateLimiter createListsLimiter;
+
+    private final String clientHeader;
+
+    public RateLimitFilter(RateLimiter createListLimiter, RateLimiter updateListLimiter,
+                           RateLimiter createListsLimiter, String clientHeader) {
+        this.createListLimiter = createListLimiter;
+        this.updateListLimiter = updateListLimiter;
+        this.createListsLimiter = createListsLimiter;
+        this.clientHeader = clientHeader;
+    }
+
+    /**
+     * Applies the limit of a request whose cost the filter could not tell, such as the number of
+     * lists created by one batch request.
+     *
+     * @param request the current request
+     * @param permits what the request costs, in requests
+     * @return {@link Duration#ZERO} if the request is allowed, or if it is not limited; otherwise
+     * the time until the client may retry
+     */
+    public static Duration tryAcquire(ServletRequest request, long permits) {
+        if (!(request.getAttribute(DEFERRED_LIMIT_ATTRIBUTE) instanceof DeferredLimit limit)) {
+            return Duration.ZERO;
+        }
+
+        // A request that costs more than a full bucket empties the bucket, rather than never passing
+        long cost = Math.min(permits, limit.limiter().getCapacity());
+        Duration retryAfter = limit.limiter().tryAcquire(limit.clientKey(), cost);
+        if (!retryAfter.isZero()) {
+            log.debug("Rejected request of client {} by rate limit {}", limit.clientKey(), limit.limiter().getName());
+        }
+
+        return retryAfter;
+    }
+
+    /**
+     * @return the value of a {@code Retry-After} header, in whole seconds
+     */
+    public static long toSeconds(Duration duration) {
+        long seconds = duration.getSeconds();
+
+        return duration.getNano() > 0 ? seconds + 1 : Math.max(seconds, 1);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if ("POST".equals(request.getMethod()) && "/api/lists".equals(pathOf(request))) {
+            request.setAttribute(DEFERRED_LIMIT_ATTRIBUTE, new DeferredLimit(createListsLimiter, findClientKey(request)));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter limiter = findLimiter(request);
+
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String clientKey = findClientKey(request);
+        Duration retryAfter = limiter.tryAcquire(clientKey);
+
+        if (retryAfter.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rejected request of client {} by rate limit {}", clientKey, limiter.getName());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(retryAfter)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, please try again later.");
+    }
+
+    private RateLimiter findLimiter(HttpServletRequest request) {
+        String path = pathOf(request);
+
+        if ("POST".equals(request.getMethod())) {
+            if ("/list".equals(path)) {
+                return createListLimiter;
+            }
+            if (LIST_WRITE_PATH.matcher(path).matches()) {
+                return updateListLimiter;
+            }
+        } else if ("GET".equals(request.getMethod()) && ITEM_UPDATE_PATH.matcher(path).matches()) {
+            return updateListLimiter;
+        }
+
+        return null;
+    }
+
+    private String findClientKey(HttpServletRequest request) {
+        if (StringUtils.hasText(clientHeader)) {
+            String headerValue = request.getHeader(clientHeader);
+
+            if (StringUtils.hasText(headerValue)) {
+                return headerValue;
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private record DeferredLimit(RateLimiter limiter, String clientKey) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.sitodo.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the request rate of each client with a {@link TokenBucket} per client.
+ *
+ * <p>Memory is bounded: buckets that have filled up again are dropped by a sweep that runs at
+ * most once per sweep interval, and once {@code maxClients} buckets exist, clients without a
+ * bucket share a single overflow bucket until the next sweep makes room.
+ */
+@Slf4j
+public class RateLimiter implements MeterBinder {
+
+    private final String name;
+
+    private final long capacity;
+
+    private final long refillInterval;
+
+    private final int maxClients;
+
+    private final long sweepInterval;
+
+    private final LongSupplier clock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final TokenBucket overflowBucket;
+
+    private final AtomicLong lastSweep;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * @param name the name of the limited endpoints, used as metric tag
+     * @param capacity the number of requests a client may make in a burst
+     * @param period the time in which a client's bucket refills completely
+     * @param maxClients the maximum number of clients with their own bucket
+     * @param sweepInterval how often full buckets are dropped
+     * @param clock the current time in nanoseconds
+     */
+    public RateLimiter(String name, long capacity, Duration period, int maxClients, Duration sweepInterval,
+                       LongSupplier clock) {
+        if (capacity <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and period");
+        }
+
+        this.name = name;
+        this.capacity = capacity;
+        this.refillInterval = Math.max(1, period.toNanos() / capacity);
+        this.maxClients = maxClients;
+        this.sweepInterval = sweepInterval.toNanos();
+        this.clock = clock;
+
+        long now = clock.getAsLong();
+        this.overflowBucket = new TokenBucket(now);
+        this.lastSweep = new AtomicLong(now);
+    }
+
+    public RateLimiter(String name, long capacity, Duration period, int maxClients, Duration sweepInterval) {
+        this(name, capacity, period, maxClients, sweepInterval, System::nanoTime);
+    }
+
+    /**
+     * Tries to take a token from a client's bucket.
+     *
+     * @param clientKey identifies the client
+     * @return {@link Duration#ZERO} if the request is allowed, otherwise the time until the client
+     * may retry
+     */
+    public Duration tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, 1);
+    }
+
+    /**
+     * Tries to take several tokens at once from a client's bucket, for a request that costs as
+     * much as several requests.
+     *
+     * @param clientKey identifies the client
+     * @param permits the number of tokens to take
+     * @return {@link Duration#ZERO} if the request is allowed, otherwise the time until the client
+     * may retry
+     * @throws IllegalArgumentException if more tokens are asked for than the bucket holds, which
+     * would never be allowed
+     */
+    public Duration tryAcquire(String clientKey, long permits) {
+        if (permits < 1 || permits > capacity) {
+            throw new IllegalArgumentException("Rate limit " + name + " cannot grant " + permits + " requests at once");
+        }
+
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.size() < maxClients
+                ? buckets.computeIfAbsent(clientKey, key -> new TokenBucket(now))
+                : overflowBucket;
+        }
+
+        long wait = bucket.tryAcquire(now, refillInterval, capacity, permits);
+        if (wait > 0) {
+            rejected.increment();
+            return Duration.ofNanos(wait);
+        }
+
+        allowed.increment();
+        return Duration.ZERO;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sitodo.rate.limit.requests", allowed, LongAdder::sum)
+            .tags("limit", name, "result", "allowed")
+            .description("Requests checked by the rate limiter")
+            .register(registry);
+        FunctionCounter.builder("sitodo.rate.limit.requests", rejected, LongAdder::sum)
+            .tags("limit", name, "result", "rejected")
+            .description("Requests checked by the rate limiter")
+            .register(registry);
+        FunctionCounter.builder("sitodo.rate.limit.evictions", evicted, LongAdder::sum)
+            .tag("limit", name)
+            .description("Idle client buckets dropped by the rate limiter")
+            .register(registry);
+        Gauge.builder("sitodo.rate.limit.clients", this, RateLimiter::size)
+            .tag("limit", name)
+            .description("Clients tracked by the rate limiter")
+            .register(registry);
+    }
+
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+
+        if (now - last < sweepInterval || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int removed = before - buckets.size();
+
+        if (removed > 0) {
+            evicted.add(removed);
+            log.debug("Dropped {} idle buckets of rate limit {}", removed, name);
+        }
+    }
+}
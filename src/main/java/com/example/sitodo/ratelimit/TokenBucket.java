@@ -0,0 +1,54 @@
+package com.example.sitodo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket whose whole state is a single timestamp, updated with compare-and-set.
+ *
+ * <p>Instead of counting tokens, the bucket stores the time at which it will be full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token moves that
+ * time one refill interval into the future; the request is rejected if the time would end up
+ * more than a whole bucket ahead of now. This behaves exactly like a bucket of
+ * {@code capacity} tokens that gains one token per refill interval.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Tries to take tokens, all or none of them.
+     *
+     * @param now the current time in nanoseconds
+     * @param refillInterval the nanoseconds it takes to gain one token
+     * @param capacity the number of tokens the bucket holds
+     * @param tokens the number of tokens to take, at most {@code capacity}
+     * @return {@code 0} if the tokens were taken, otherwise the nanoseconds until they are available
+     */
+    long tryAcquire(long now, long refillInterval, long capacity, long tokens) {
+        long burstTolerance = refillInterval * capacity;
+
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + refillInterval * tokens;
+            long wait = next - now - burstTolerance;
+
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A full bucket is indistinguishable from a new one, so it can be dropped.
+     */
+    boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+}
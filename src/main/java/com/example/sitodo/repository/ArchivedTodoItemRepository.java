@@ -0,0 +1,43 @@
+package com.example.sitodo.repository;
+
+import com.example.sitodo.model.ArchivedTodoItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTodoItemRepository extends CrudRepository<ArchivedTodoItem, Long> {
+
+    List<ArchivedTodoItem> findByTodoListIdOrderBySortKey(Long todoListId);
+
+    @Query("SELECT i.id FROM ArchivedTodoItem i WHERE i.todoListId = :listId ORDER BY i.id")
+    List<Long> findIdsByTodoListId(@Param("listId") Long listId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM ArchivedTodoItem i WHERE i.todoListId = :listId AND i.id IN :ids")
+    int deleteFromList(@Param("listId") Long listId, @Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM ArchivedTodoItem i WHERE i.todoListId = :listId")
+    int deleteAllFromList(@Param("listId") Long listId);
+
+    /**
+     * Copies items into the archive with a single statement, without loading them. Items that are
+     * no longer finished before the given time are skipped.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO todo_item_archive (id, todo_list_id, title, sort_key, finished_at, archived_at)
+        SELECT id, todo_list_id, title, sort_key, finished_at, :archivedAt FROM todo_item
+        WHERE id IN (:ids) AND finished = TRUE AND finished_at < :finishedBefore
+        """, nativeQuery = true)
+    int copyFinishedBefore(@Param("ids") Collection<Long> ids, @Param("finishedBefore") Instant finishedBefore,
+                           @Param("archivedAt") Instant archivedAt);
+}
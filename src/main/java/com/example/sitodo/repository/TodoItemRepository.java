@@ -0,0 +1,193 @@
+package com.example.sitodo.repository;
+
+import com.example.sitodo.model.TodoItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface TodoItemRepository extends CrudRepository<TodoItem, Long> {
+
+    Optional<TodoItem> findByIdAndTodoListId(Long id, Long todoListId);
+
+    List<TodoItem> findByTodoListIdOrderBySortKey(Long todoListId);
+
+    /**
+     * Streams the items of a list in display order without loading the entities. Must be
+     * consumed within a transaction.
+     */
+    @Query("SELECT i.id AS id, i.title AS title, i.finished AS finished, i.dueAt AS dueAt FROM TodoItem i WHERE i.todoListId = :listId ORDER BY i.sortKey")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ItemRow> streamByTodoListId(@Param("listId") Long listId);
+
+    /**
+     * Finds the items of several lists with one query, without loading the entities. The items
+     * of each list are in display order.
+     */
+    @Query("SELECT i.todoListId AS todoListId, i.id AS id, i.title AS title, i.finished AS finished, i.dueAt AS dueAt FROM TodoItem i WHERE i.todoListId IN :listIds ORDER BY i.todoListId, i.sortKey")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    List<ListItemRow> findByTodoListIds(@Param("listIds") Collection<Long> listIds);
+
+    /**
+     * Finds the items of a list that were added or changed after the given list version, in
+     * display order. Uses the index on the list and change version, so the cost grows with the
+     * number of changed items rather than with the size of the list.
+     */
+    @Query("SELECT i.id AS id, i.title AS title, i.finished AS finished, i.dueAt AS dueAt, i.sortKey AS sortKey FROM TodoItem i WHERE i.todoListId = :listId AND i.changeVersion > :since ORDER BY i.sortKey")
+    List<ChangedItem> findChangedSince(@Param("listId") Long listId, @Param("since") long since);
+
+    @Query("SELECT MAX(i.sortKey) FROM TodoItem i WHERE i.todoListId = :listId")
+    Optional<Long> findLastSortKey(@Param("listId") Long listId);
+
+    /**
+     * Finds the sort key of the item directly before the given sort key, ignoring one item
+     * (usually the item that is being moved).
+     */
+    @Query("SELECT MAX(i.sortKey) FROM TodoItem i WHERE i.todoListId = :listId AND i.sortKey < :sortKey AND i.id <> :ignoredId")
+    Optional<Long> findSortKeyBefore(@Param("listId") Long listId, @Param("sortKey") Long sortKey,
+                                     @Param("ignoredId") Long ignoredId);
+
+    @Query("SELECT i.id AS id, i.todoListId AS todoListId FROM TodoItem i WHERE i.finished = true AND i.finishedAt < :finishedBefore ORDER BY i.finishedAt")
+    List<ItemReference> findFinishedBefore(@Param("finishedBefore") Instant finishedBefore, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TodoItem i WHERE i.id IN :ids AND i.finished = true AND i.finishedAt < :finishedBefore")
+    int deleteFinishedBefore(@Param("ids") Collection<Long> ids, @Param("finishedBefore") Instant finishedBefore);
+
+    /**
+     * Streams the items with a due time before the given time that has not been handled yet.
+     * Must be consumed within a transaction.
+     */
+    @Query("SELECT i.id AS id, i.dueAt AS dueAt FROM TodoItem i WHERE i.dueHandled = false AND i.dueAt < :until")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<DueItem> streamDueBefore(@Param("until") Instant until);
+
+    /**
+     * Like {@link #streamDueBefore(Instant)}, for due times from {@code from} on.
+     */
+    @Query("SELECT i.id AS id, i.dueAt AS dueAt FROM TodoItem i WHERE i.dueHandled = false AND i.dueAt >= :from AND i.dueAt < :until")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<DueItem> streamDueBetween(@Param("from") Instant from, @Param("until") Instant until);
+
+    @Query("SELECT i.id AS id, i.todoListId AS todoListId, i.finished AS finished FROM TodoItem i WHERE i.id IN :ids AND i.dueHandled = false AND i.dueAt <= :now")
+    List<DueItemReference> findDueUnhandled(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE TodoItem i SET i.dueHandled = true WHERE i.id IN :ids")
+    int markDueHandled(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.id FROM TodoItem i WHERE i.todoListId = :listId ORDER BY i.id")
+    List<Long> findIdsByTodoListId(@Param("listId") Long listId, Pageable pageable);
+
+    @Query("SELECT i.id FROM TodoItem i WHERE i.todoListId = :listId AND i.finished = true ORDER BY i.id")
+    List<Long> findFinishedIdsByTodoListId(@Param("listId") Long listId, Pageable pageable);
+
+    @Query("SELECT COUNT(i) FROM TodoItem i WHERE i.todoListId = :listId AND i.id IN :ids AND i.finished = true")
+    long countFinishedInList(@Param("listId") Long listId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Records items that are about to be deleted from a list, with the current version of the
+     * list, so that {@link #findRemovedSince(Long, long)} can report them. Must be called after
+     * the version of the list has been incremented.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO todo_item_removal (item_id, todo_list_id, change_version)
+        SELECT i.id, i.todo_list_id, l.version FROM todo_item i JOIN todo_list l ON l.id = i.todo_list_id
+        WHERE i.todo_list_id = :listId AND i.id IN (:ids)
+        """, nativeQuery = true)
+    int recordRemovals(@Param("listId") Long listId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Like {@link #recordRemovals(Long, Collection)}, for the items that
+     * {@link #deleteFinishedBefore(Collection, Instant)} is about to delete.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO todo_item_removal (item_id, todo_list_id, change_version)
+        SELECT i.id, i.todo_list_id, l.version FROM todo_item i JOIN todo_list l ON l.id = i.todo_list_id
+        WHERE i.id IN (:ids) AND i.finished = TRUE AND i.finished_at < :finishedBefore
+        """, nativeQuery = true)
+    int recordRemovalsFinishedBefore(@Param("ids") Collection<Long> ids, @Param("finishedBefore") Instant finishedBefore);
+
+    @Query(value = "SELECT CAST(item_id AS BIGINT) FROM todo_item_removal WHERE todo_list_id = :listId AND change_version > :since ORDER BY item_id",
+        nativeQuery = true)
+    List<Long> findRemovedSince(@Param("listId") Long listId, @Param("since") long since);
+
+    @Modifying
+    @Query(value = "DELETE FROM todo_item_removal WHERE todo_list_id = :listId", nativeQuery = true)
+    int deleteRemovalsOfList(@Param("listId") Long listId);
+
+    /**
+     * Deletes the removals recorded before a time. Must be called after
+     * {@link TodoListRepository#updateRemovalsPrunedVersions(Instant)}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM todo_item_removal WHERE removed_at < :removedBefore", nativeQuery = true)
+    int deleteRemovalsBefore(@Param("removedBefore") Instant removedBefore);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM TodoItem i WHERE i.todoListId = :listId AND i.id IN :ids")
+    int deleteFromList(@Param("listId") Long listId, @Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM TodoItem i WHERE i.todoListId = :listId")
+    int deleteAllFromList(@Param("listId") Long listId);
+
+    interface ItemRow {
+
+        Long getId();
+
+        String getTitle();
+
+        Boolean getFinished();
+
+        Instant getDueAt();
+    }
+
+    interface ListItemRow extends ItemRow {
+
+        Long getTodoListId();
+    }
+
+    interface ChangedItem extends ItemRow {
+
+        Long getSortKey();
+    }
+
+    interface ItemReference {
+
+        Long getId();
+
+        Long getTodoListId();
+    }
+
+    interface DueItem {
+
+        Long getId();
+
+        Instant getDueAt();
+    }
+
+    interface DueItemReference {
+
+        Long getId();
+
+        Long getTodoListId();
+
+        Boolean getFinished();
+    }
+}
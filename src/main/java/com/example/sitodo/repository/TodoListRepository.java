@@ -1,9 +1,120 @@
 package com.example.sitodo.repository;
 
 import com.example.sitodo.model.TodoList;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface TodoListRepository extends CrudRepository<TodoList, Long> {
+
+    @Query("SELECT l.version FROM TodoList l WHERE l.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT l.id FROM TodoList l WHERE l.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE TodoList l SET l.version = l.version + 1 WHERE l.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE TodoList l SET l.version = l.version + 1 WHERE l.id IN :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the last version of the list whose removals are no longer recorded; changes since
+     * an earlier version cannot be told apart from the whole list
+     */
+    @Query(value = "SELECT removals_pruned_version FROM todo_list WHERE id = :id", nativeQuery = true)
+    Optional<Long> findRemovalsPrunedVersionById(@Param("id") Long id);
+
+    /**
+     * Raises the pruned version of each list to the last version of its removals recorded before
+     * a time, which {@link TodoItemRepository#deleteRemovalsBefore(Instant)} is about to delete.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE todo_list l SET removals_pruned_version = GREATEST(l.removals_pruned_version,
+            (SELECT MAX(r.change_version) FROM todo_item_removal r WHERE r.todo_list_id = l.id AND r.removed_at < :removedBefore))
+        WHERE l.id IN (SELECT r.todo_list_id FROM todo_item_removal r WHERE r.removed_at < :removedBefore)
+        """, nativeQuery = true)
+    int updateRemovalsPrunedVersions(@Param("removedBefore") Instant removedBefore);
+
+    /**
+     * Deletes a list without loading it. Its items must have been deleted before.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM TodoList l WHERE l.id = :id")
+    int deleteListById(@Param("id") Long id);
+
+    /**
+     * Counts the items and finished items of the lists after a list ID, in the order of their
+     * IDs. Only the requested page of lists is aggregated, so the cost does not grow with the
+     * number of lists.
+     */
+    @Query(value = """
+        SELECT l.id AS "id", COUNT(i.id) AS "totalItems", COUNT(CASE WHEN i.finished = TRUE THEN 1 END) AS "finishedItems"
+        FROM (SELECT id FROM todo_list WHERE id > :afterId ORDER BY id LIMIT :limit) l
+        LEFT JOIN todo_item i ON i.todo_list_id = l.id
+        GROUP BY l.id
+        ORDER BY l.id""", nativeQuery = true)
+    List<ListSummary> findSummariesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Counts all lists, items and finished items. Scans the item table, so it is only used to
+     * check the running statistics in the background.
+     */
+    @Query(value = """
+        SELECT (SELECT COUNT(*) FROM todo_list) AS "lists", COUNT(*) AS "items",
+            COUNT(CASE WHEN finished = TRUE THEN 1 END) AS "finishedItems"
+        FROM todo_item""", nativeQuery = true)
+    Totals countTotals();
+
+    /**
+     * Streams the titles of all items without loading the entities. Must be consumed within a
+     * transaction.
+     */
+    @Query("SELECT l.id AS listId, i.id AS itemId, i.title AS title FROM TodoList l JOIN l.items i")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ItemTitle> streamAllItemTitles();
+
+    interface ListSummary {
+
+        Long getId();
+
+        Long getTotalItems();
+
+        Long getFinishedItems();
+    }
+
+    interface Totals {
+
+        Long getLists();
+
+        Long getItems();
+
+        Long getFinishedItems();
+    }
+
+    interface ItemTitle {
+
+        Long getListId();
+
+        Long getItemId();
+
+        String getTitle();
+    }
 }
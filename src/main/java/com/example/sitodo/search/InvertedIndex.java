@@ -0,0 +1,255 @@
+package com.example.sitodo.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index over item titles.
+ *
+ * <p>Titles are split into lower-cased tokens. Every token is indexed as a whole and by its
+ * trigrams, so that a query token matches items containing the token itself (best), a token
+ * starting with it, or a token containing it (worst). All query tokens must match. Results are
+ * ranked by the sum of the match weights, each scaled by how rare the query token is.
+ */
+public class InvertedIndex {
+
+    private static final double EXACT_MATCH = 1.0;
+
+    private static final double PREFIX_MATCH = 0.75;
+
+    private static final double SUBSTRING_MATCH = 0.5;
+
+    private final Map<String, Postings> tokenPostings = new HashMap<>();
+
+    private final Map<String, Postings> trigramPostings = new HashMap<>();
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(long listId, long itemId, String title) {
+        IndexedItem item = new IndexedItem(listId, title, tokenize(title));
+
+        lock.writeLock().lock();
+        try {
+            IndexedItem previous = items.put(itemId, item);
+            if (previous != null) {
+                unindex(itemId, previous);
+            }
+
+            for (String token : item.tokens()) {
+                tokenPostings.computeIfAbsent(token, key -> new Postings()).add(itemId);
+                for (String trigram : trigrams(token)) {
+                    trigramPostings.computeIfAbsent(trigram, key -> new Postings()).add(itemId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem removed = items.remove(itemId);
+            if (removed != null) {
+                unindex(itemId, removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best matching items for a query.
+     *
+     * @param query
+     * @param listId if not {@code null}, only items of this list are returned
+     * @param limit the maximum number of results
+     * @return the matching items, best first
+     */
+    public List<Hit> search(String query, Long listId, int limit) {
+        String[] queryTokens = Arrays.stream(tokenize(query)).distinct().toArray(String[]::new);
+
+        if (queryTokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+
+            for (String queryToken : queryTokens) {
+                Postings candidates = findCandidates(queryToken);
+                if (candidates == null) {
+                    return List.of();
+                }
+
+                double inverseFrequency = Math.log(1.0 + (double) items.size() / candidates.size());
+                Map<Long, Double> tokenScores = new HashMap<>();
+
+                for (int i = 0; i < candidates.size(); i++) {
+                    long itemId = candidates.get(i);
+                    if (scores != null && !scores.containsKey(itemId)) {
+                        continue;
+                    }
+
+                    IndexedItem item = items.get(itemId);
+                    if (listId != null && item.listId() != listId) {
+                        continue;
+                    }
+
+                    double weight = matchWeight(queryToken, item.tokens());
+                    if (weight > 0) {
+                        double previousScore = scores == null ? 0.0 : scores.get(itemId);
+                        tokenScores.put(itemId, previousScore + weight * inverseFrequency);
+                    }
+                }
+
+                scores = tokenScores;
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings findCandidates(String queryToken) {
+        List<String> queryTrigrams = trigrams(queryToken);
+
+        if (queryTrigrams.isEmpty()) {
+            // Too short for trigrams, only whole tokens can match
+            return tokenPostings.get(queryToken);
+        }
+
+        List<Postings> postingsList = new ArrayList<>();
+        for (String trigram : queryTrigrams) {
+            Postings postings = trigramPostings.get(trigram);
+            if (postings == null) {
+                return null;
+            }
+            postingsList.add(postings);
+        }
+        postingsList.sort(Comparator.comparingInt(Postings::size));
+
+        Postings result = postingsList.get(0);
+        for (int i = 1; i < postingsList.size() && !result.isEmpty(); i++) {
+            result = intersect(result, postingsList.get(i));
+        }
+
+        return result.isEmpty() ? null : result;
+    }
+
+    private List<Hit> topHits(Map<Long, Double> scores, int limit) {
+        Comparator<Hit> byRank = Comparator.comparingDouble(Hit::score).thenComparing(Hit::itemId, Comparator.reverseOrder());
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, byRank);
+
+        scores.forEach((itemId, score) -> {
+            IndexedItem item = items.get(itemId);
+            best.offer(new Hit(item.listId(), itemId, item.title(), score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(byRank.reversed());
+
+        return hits;
+    }
+
+    private void unindex(long itemId, IndexedItem item) {
+        for (String token : item.tokens()) {
+            removePosting(tokenPostings, token, itemId);
+            for (String trigram : trigrams(token)) {
+                removePosting(trigramPostings, trigram, itemId);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Postings> index, String key, long itemId) {
+        Postings postings = index.get(key);
+
+        if (postings != null) {
+            postings.remove(itemId);
+            if (postings.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Postings intersect(Postings smaller, Postings larger) {
+        Postings result = new Postings();
+
+        for (int i = 0; i < smaller.size(); i++) {
+            long id = smaller.get(i);
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+
+        return result;
+    }
+
+    private static double matchWeight(String queryToken, String[] tokens) {
+        double weight = 0.0;
+
+        for (String token : tokens) {
+            if (token.equals(queryToken)) {
+                return EXACT_MATCH;
+            } else if (token.startsWith(queryToken)) {
+                weight = Math.max(weight, PREFIX_MATCH);
+            } else if (token.contains(queryToken)) {
+                weight = Math.max(weight, SUBSTRING_MATCH);
+            }
+        }
+
+        return weight;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+            .filter(token -> !token.isEmpty())
+            .toArray(String[]::new);
+    }
+
+    private static List<String> trigrams(String token) {
+        List<String> trigrams = new ArrayList<>();
+
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            trigrams.add(token.substring(i, i + 3));
+        }
+
+        return trigrams;
+    }
+
+    private record IndexedItem(long listId, String title, String[] tokens) { }
+
+    /**
+     * A search result.
+     *
+     * @param listId
+     * @param itemId
+     * @param title
+     * @param score higher is better
+     */
+    public record Hit(long listId, long itemId, String title, double score) { }
+}
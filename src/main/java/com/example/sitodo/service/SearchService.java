@@ -0,0 +1,21 @@
+package com.example.sitodo.service;
+
+import com.example.sitodo.dto.SearchResultDto;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public interface SearchService {
+
+    /**
+     * Finds the items whose titles best match a query. Every word of the query must match a word
+     * in the title, either fully, as its beginning, or as part of it.
+     *
+     * @param query
+     * @param listId if not {@code null}, only items of this list are searched
+     * @param limit the maximum number of results
+     * @return the matching items, best match first
+     */
+    List<SearchResultDto> search(String query, Long listId, int limit);
+}
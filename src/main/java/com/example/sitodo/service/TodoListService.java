@@ -1,19 +1,124 @@
 package com.example.sitodo.service;
 
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListChangesDto;
 import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
+import com.example.sitodo.dto.TodoListsDto;
 import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.shard.PlacesNewList;
+import com.example.sitodo.shard.ShardKey;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 @Service
 public interface TodoListService {
 
-    TodoListDto getTodoListById(Long listId) throws NoSuchElementException;
+    TodoListDto getTodoListById(@ShardKey Long listId) throws NoSuchElementException;
 
+    /**
+     * Returns many lists at once. The lists and their items are read with a fixed number of
+     * queries per shard, however many IDs are asked for.
+     *
+     * @param listIds the lists to return; duplicates are returned once
+     * @return the lists that were found, and the IDs that were not
+     */
+    TodoListsDto getTodoListsByIds(Collection<Long> listIds);
+
+    /**
+     * Returns the item counts of a page of lists, for an overview of all lists.
+     *
+     * @param afterId the ID of the last list on the previous page, or 0 for the first page
+     * @param limit the maximum number of lists to return
+     * @return the lists with an ID greater than {@code afterId}, ordered by ID
+     */
+    List<TodoListSummaryDto> getTodoListSummaries(long afterId, int limit);
+
+    /**
+     * Returns the current version of a list without loading its items. The version changes
+     * whenever the list or any of its items is modified.
+     *
+     * @param listId
+     * @return the version of the list
+     */
+    long getTodoListVersion(@ShardKey Long listId) throws NoSuchElementException;
+
+    /**
+     * Returns the items of a list that were added, changed or removed after a version, so that
+     * a client can bring its copy of the list up to date without fetching all of it.
+     *
+     * @param listId
+     * @param since the version of the client's copy, as returned by an earlier call, or
+     *              {@code null} to fetch the whole list
+     * @return the changes, and the version to ask for the next changes with; the whole list if
+     * the changes since {@code since} are no longer known
+     */
+    TodoListChangesDto getTodoListChanges(@ShardKey Long listId, Long since) throws NoSuchElementException;
+
+    @PlacesNewList
     TodoListDto addTodoItem(TodoItemForm todoItemForm);
 
-    TodoListDto addTodoItem(Long listId, TodoItemForm todoItemForm) throws NoSuchElementException;
+    TodoListDto addTodoItem(@ShardKey Long listId, TodoItemForm todoItemForm) throws NoSuchElementException;
+
+    /**
+     * Creates many lists with their items at once. The lists are created in chunks, each in its
+     * own transaction; if a chunk fails, the lists of the earlier chunks remain. When the lists
+     * are sharded, all lists of one call are placed on the same shard.
+     *
+     * @param todoLists the lists to create
+     * @param createdListIds receives the IDs of the lists of each chunk, in the order of the given
+     *                       lists, once the chunk has been committed
+     */
+    @PlacesNewList
+    void createTodoLists(List<TodoListForm> todoLists, Consumer<List<Long>> createdListIds);
+
+    TodoListDto setTodoItemFinished(@ShardKey Long listId, Long itemId, Boolean finished) throws NoSuchElementException;
+
+    /**
+     * Moves an item to another place in its list. Only the moved item is updated.
+     *
+     * @param listId
+     * @param itemId the item to move
+     * @param beforeItemId the item that should follow the moved item, or {@code null} to move
+     *                     the item to the end of the list
+     */
+    void moveTodoItem(@ShardKey Long listId, Long itemId, Long beforeItemId) throws NoSuchElementException;
+
+    /**
+     * Returns the finished items that have been moved out of a list into the archive.
+     *
+     * @param listId
+     * @return the archived items, in their former order
+     */
+    List<TodoItemDto> getArchivedTodoItems(@ShardKey Long listId) throws NoSuchElementException;
+
+    /**
+     * Deletes a single item from a list.
+     *
+     * @param listId
+     * @param itemId
+     */
+    void deleteTodoItem(@ShardKey Long listId, Long itemId) throws NoSuchElementException;
+
+    /**
+     * Deletes all finished items of a list. Large lists are cleared in several transactions, so
+     * other writers of the list only wait for one chunk at a time.
+     *
+     * @param listId
+     * @return the number of deleted items
+     */
+    int clearFinishedItems(@ShardKey Long listId) throws NoSuchElementException;
 
-    TodoListDto setTodoItemFinished(Long listId, Long itemId, Boolean finished) throws NoSuchElementException;
+    /**
+     * Deletes a list together with its items and archived items. Like
+     * {@link #clearFinishedItems(Long)}, the items of large lists are deleted in chunks.
+     *
+     * @param listId
+     */
+    void deleteTodoList(@ShardKey Long listId) throws NoSuchElementException;
 }
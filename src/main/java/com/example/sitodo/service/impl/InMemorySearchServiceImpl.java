@@ -0,0 +1,138 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.SearchResultDto;
+import com.example.sitodo.event.TodoItemAddedEvent;
+import com.example.sitodo.event.TodoItemsRemovedEvent;
+import com.example.sitodo.memory.InMemoryTodoListStore;
+import com.example.sitodo.memory.TodoListSnapshot;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.search.InvertedIndex;
+import com.example.sitodo.service.SearchService;
+import com.example.sitodo.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Searches an {@link InvertedIndex} that is built from the database at startup and kept up to
+ * date by the events published by {@link com.example.sitodo.service.TodoListService}.
+ */
+@Service
+@ConditionalOnProperty(name = "sitodo.search.backend", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemorySearchServiceImpl implements SearchService {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    /**
+     * The IDs of the items removed while the index is being built, or {@code null} when it is not.
+     */
+    private volatile Set<Long> removedDuringBuild;
+
+    private TodoListRepository todoListRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private InMemoryTodoListStore todoListStore;
+
+    private ShardRouter shardRouter;
+
+    @Autowired(required = false)
+    public void setTodoListRepository(TodoListRepository todoListRepository) {
+        this.todoListRepository = todoListRepository;
+    }
+
+    @Autowired(required = false)
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Autowired(required = false)
+    public void setTodoListStore(InMemoryTodoListStore todoListStore) {
+        this.todoListStore = todoListStore;
+    }
+
+    @Override
+    public List<SearchResultDto> search(String query, Long listId, int limit) {
+        return index.search(query, listId, limit).stream()
+            .map(hit -> new SearchResultDto(hit.listId(), hit.itemId(), hit.title(), hit.score()))
+            .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemAdded(TodoItemAddedEvent event) {
+        index.add(event.listId(), event.itemId(), event.title());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemsRemoved(TodoItemsRemovedEvent event) {
+        Set<Long> removed = removedDuringBuild;
+        if (removed != null) {
+            removed.addAll(event.itemIds());
+        }
+
+        event.itemIds().forEach(index::remove);
+    }
+
+    /**
+     * Loads the existing items in the background, so that a large database does not delay the
+     * startup. Items added in the meantime are indexed through the events as usual; items removed
+     * in the meantime are removed again once the build is done, in case the builder read them
+     * before they were removed. Without a database (see the {@code memory} profile), the items are
+     * loaded from the in-memory store, which is only non-empty when it was recovered from a journal.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (todoListRepository == null || transactionTemplate == null) {
+            if (todoListStore != null) {
+                for (TodoListSnapshot snapshot : todoListStore.snapshots()) {
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        index.add(snapshot.listId(), snapshot.itemId(i), snapshot.title(i));
+                    }
+                }
+            }
+            return;
+        }
+
+        removedDuringBuild = ConcurrentHashMap.newKeySet();
+        Thread builder = new Thread(this::indexItemTitles, "search-index-builder");
+
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void indexItemTitles() {
+        long start = System.nanoTime();
+
+        try {
+            shardRouter.runOnEachShard(() -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TodoListRepository.ItemTitle> titles = todoListRepository.streamAllItemTitles()) {
+                    titles.forEach(title -> index.add(title.getListId(), title.getItemId(), title.getTitle()));
+                }
+            }));
+        } finally {
+            Set<Long> removed = removedDuringBuild;
+            removedDuringBuild = null;
+            removed.forEach(index::remove);
+        }
+
+        log.info("Indexed {} item titles in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.TodoItemChangeDto;
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoItemList;
+import com.example.sitodo.dto.TodoListChangesDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
+import com.example.sitodo.dto.TodoListsDto;
+import com.example.sitodo.event.TodoItemAddedEvent;
+import com.example.sitodo.event.TodoItemsRemovedEvent;
+import com.example.sitodo.event.TodoListChangedEvent;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.hotlist.HotListTracker;
+import com.example.sitodo.memory.InMemoryTodoListStore;
+import com.example.sitodo.memory.TodoListMutation;
+import com.example.sitodo.memory.TodoListSnapshot;
+import com.example.sitodo.service.TodoListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Stores the lists in an {@link InMemoryTodoListStore} instead of the database. Used with the
+ * {@code memory} profile; items are never archived and due times are ignored in this mode.
+ */
+@Service
+@Profile("memory")
+public class InMemoryTodoListServiceImpl implements TodoListService {
+
+    private InMemoryTodoListStore store;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private HotListTracker hotListTracker;
+
+    @Autowired
+    public void setStore(InMemoryTodoListStore store) {
+        this.store = store;
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired
+    public void setHotListTracker(HotListTracker hotListTracker) {
+        this.hotListTracker = hotListTracker;
+    }
+
+    @Override
+    public TodoListDto getTodoListById(Long listId) throws NoSuchElementException {
+        TodoListSnapshot snapshot = store.get(listId);
+        hotListTracker.recordRead(listId);
+
+        return createTodoListDto(snapshot);
+    }
+
+    @Override
+    public TodoListsDto getTodoListsByIds(Collection<Long> listIds) {
+        List<TodoListDto> todoLists = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+
+        for (Long listId : listIds.stream().filter(Objects::nonNull).distinct().toList()) {
+            TodoListSnapshot snapshot = store.find(listId);
+
+            if (snapshot == null) {
+                missingIds.add(listId);
+            } else {
+                todoLists.add(createTodoListDto(snapshot));
+                hotListTracker.recordRead(listId);
+            }
+        }
+
+        return new TodoListsDto(todoLists, missingIds);
+    }
+
+    @Override
+    public List<TodoListSummaryDto> getTodoListSummaries(long afterId, int limit) {
+        return store.snapshotsAfter(afterId).stream()
+            .limit(limit)
+            .map(snapshot -> new TodoListSummaryDto(snapshot.listId(), snapshot.size(), snapshot.countFinished()))
+            .toList();
+    }
+
+    @Override
+    public long getTodoListVersion(Long listId) throws NoSuchElementException {
+        return store.get(listId).version();
+    }
+
+    /**
+     * Snapshots do not keep the version of each item, so any change returns the whole list,
+     * with the positions of the items as their sort keys.
+     */
+    @Override
+    public TodoListChangesDto getTodoListChanges(Long listId, Long since) throws NoSuchElementException {
+        TodoListSnapshot snapshot = store.get(listId);
+
+        if (since != null && since == snapshot.version()) {
+            return new TodoListChangesDto(listId, snapshot.version(), false, List.of(), List.of());
+        }
+
+        List<TodoItemChangeDto> items = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            items.add(new TodoItemChangeDto(snapshot.itemId(i), snapshot.title(i), snapshot.isFinished(i), null, (long) i));
+        }
+
+        return new TodoListChangesDto(listId, snapshot.version(), true, items, List.of());
+    }
+
+    @Override
+    public TodoListDto addTodoItem(TodoItemForm todoItemForm) {
+        TodoListSnapshot created = store.create(List.of(todoItemForm.getTitle()));
+
+        eventPublisher.publishEvent(new TodoItemAddedEvent(created.listId(), created.itemId(0), created.title(0)));
+        publishListChanged(created.listId());
+
+        return createTodoListDto(created);
+    }
+
+    @Override
+    public TodoListDto addTodoItem(Long listId, TodoItemForm todoItemForm) throws NoSuchElementException {
+        long itemId = store.nextItemId();
+        TodoListSnapshot updated = store.update(listId, new TodoListMutation.AddItem(itemId, todoItemForm.getTitle())).after();
+
+        eventPublisher.publishEvent(new TodoItemAddedEvent(listId, itemId, todoItemForm.getTitle()));
+        publishListChanged(listId);
+
+        return createTodoListDto(updated);
+    }
+
+    @Override
+    public void createTodoLists(List<TodoListForm> todoLists, Consumer<List<Long>> createdListIds) {
+        List<Long> listIds = new ArrayList<>(todoLists.size());
+
+        for (TodoListForm todoList : todoLists) {
+            TodoListSnapshot created = store.create(todoList.getItems());
+
+            for (int i = 0; i < created.size(); i++) {
+                eventPublisher.publishEvent(new TodoItemAddedEvent(created.listId(), created.itemId(i), created.title(i)));
+            }
+            listIds.add(created.listId());
+        }
+
+        createdListIds.accept(listIds);
+    }
+
+    @Override
+    public TodoListDto setTodoItemFinished(Long listId, Long itemId, Boolean finished) throws NoSuchElementException {
+        TodoListSnapshot updated = store.update(listId,
+            new TodoListMutation.SetFinished(itemId, Boolean.TRUE.equals(finished))).after();
+        publishListChanged(listId);
+
+        return createTodoListDto(updated);
+    }
+
+    @Override
+    public void moveTodoItem(Long listId, Long itemId, Long beforeItemId) throws NoSuchElementException {
+        store.update(listId, new TodoListMutation.Move(itemId, beforeItemId));
+        publishListChanged(listId);
+    }
+
+    @Override
+    public List<TodoItemDto> getArchivedTodoItems(Long listId) throws NoSuchElementException {
+        store.get(listId);
+
+        return List.of();
+    }
+
+    @Override
+    public void deleteTodoItem(Long listId, Long itemId) throws NoSuchElementException {
+        store.update(listId, new TodoListMutation.DeleteItem(itemId));
+        publishItemsRemoved(listId, List.of(itemId));
+    }
+
+    @Override
+    public int clearFinishedItems(Long listId) throws NoSuchElementException {
+        TodoListSnapshot before = store.update(listId, new TodoListMutation.ClearFinished()).before();
+        List<Long> removedIds = new ArrayList<>();
+
+        before.finishedItems().stream().forEach(index -> removedIds.add(before.itemId(index)));
+        publishItemsRemoved(listId, removedIds);
+
+        return removedIds.size();
+    }
+
+    @Override
+    public void deleteTodoList(Long listId) throws NoSuchElementException {
+        TodoListSnapshot removed = store.remove(listId);
+        List<Long> removedIds = new ArrayList<>(removed.size());
+
+        for (int i = 0; i < removed.size(); i++) {
+            removedIds.add(removed.itemId(i));
+        }
+        publishItemsRemoved(listId, removedIds);
+    }
+
+    private void publishItemsRemoved(Long listId, List<Long> itemIds) {
+        eventPublisher.publishEvent(new TodoItemsRemovedEvent(listId, itemIds));
+        publishListChanged(listId);
+    }
+
+    private void publishListChanged(Long listId) {
+        eventPublisher.publishEvent(new TodoListChangedEvent(listId));
+        hotListTracker.recordWrite(listId);
+    }
+
+    private static TodoListDto createTodoListDto(TodoListSnapshot snapshot) {
+        TodoItemList.Builder items = TodoItemList.builder(snapshot.size());
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            items.add(snapshot.itemId(i), snapshot.title(i), snapshot.isFinished(i));
+        }
+
+        return new TodoListDto(snapshot.listId(), items.build());
+    }
+}
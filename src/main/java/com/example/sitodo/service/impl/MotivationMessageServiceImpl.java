@@ -79,7 +79,7 @@ public class MotivationMessageServiceImpl implements MotivationMessageService {
             }
         }
 
-        log.debug("Resulting output: {}", output.toString());
+        log.debug("Resulting output: {}", output);
 
         return output.toString();
     }
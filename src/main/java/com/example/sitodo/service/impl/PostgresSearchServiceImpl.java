@@ -0,0 +1,100 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.SearchResultDto;
+import com.example.sitodo.service.SearchService;
+import com.example.sitodo.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Searches with PostgreSQL's native full-text search, backed by the GIN index on
+ * {@code to_tsvector('simple', title)} created by the changelog on PostgreSQL databases. When the
+ * lists are sharded, a search over all lists asks every shard for its best results and merges
+ * them.
+ */
+@Service
+@ConditionalOnProperty(name = "sitodo.search.backend", havingValue = "postgres")
+public class PostgresSearchServiceImpl implements SearchService {
+
+    private static final String SEARCH_QUERY = """
+        SELECT i.todo_list_id AS list_id, i.id AS item_id, i.title,
+               ts_rank(to_tsvector('simple', i.title), q.query) AS score
+        FROM todo_item i, to_tsquery('simple', :query) AS q(query)
+        WHERE to_tsvector('simple', i.title) @@ q.query
+          AND (CAST(:listId AS BIGINT) IS NULL OR i.todo_list_id = :listId)
+        ORDER BY score DESC, i.id
+        LIMIT :limit
+        """;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private ShardRouter shardRouter;
+
+    @Autowired
+    public void setJdbcTemplate(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public List<SearchResultDto> search(String query, Long listId, int limit) {
+        String tsQuery = toPrefixTsQuery(query);
+
+        if (tsQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("query", tsQuery)
+            .addValue("listId", listId)
+            .addValue("limit", limit);
+
+        if (listId != null) {
+            return shardRouter.onShardOf(listId, () -> query(parameters));
+        }
+
+        return shardRouter.onEachShard(() -> query(parameters)).stream()
+            .flatMap(List::stream)
+            .sorted(Comparator.comparingDouble(SearchResultDto::score).reversed()
+                .thenComparing(SearchResultDto::itemId))
+            .limit(limit)
+            .toList();
+    }
+
+    private List<SearchResultDto> query(MapSqlParameterSource parameters) {
+        return jdbcTemplate.query(SEARCH_QUERY, parameters, (resultSet, rowNum) -> new SearchResultDto(
+            resultSet.getLong("list_id"),
+            resultSet.getLong("item_id"),
+            resultSet.getString("title"),
+            resultSet.getDouble("score")
+        ));
+    }
+
+    /**
+     * Turns free text into a tsquery that requires every word as a prefix, e.g.
+     * {@code "buy mil"} becomes {@code "buy:* & mil:*"}.
+     */
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+            .filter(token -> !token.isEmpty())
+            .map(token -> token + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+}
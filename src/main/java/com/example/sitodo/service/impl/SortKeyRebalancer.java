@@ -0,0 +1,155 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.model.TodoItem;
+import com.example.sitodo.repository.TodoItemRepository;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreads the sort keys of a list's items evenly again once moves have used up the room
+ * between neighbouring keys.
+ */
+@Component
+@Profile("!memory")
+@Slf4j
+public class SortKeyRebalancer {
+
+    /**
+     * The distance between the sort keys of neighbouring items after appending or rebalancing.
+     * Allows 16 moves into the same slot before the keys run out.
+     */
+    static final long SORT_KEY_GAP = 1L << 16;
+
+    /**
+     * Once neighbouring keys are closer than this, the list is rebalanced in the background.
+     */
+    static final long MIN_SORT_KEY_GAP = 1L << 4;
+
+    private final Set<Long> pendingListIds = ConcurrentHashMap.newKeySet();
+
+    private TodoListRepository todoListRepository;
+
+    private TodoItemRepository todoItemRepository;
+
+    private TaskExecutor taskExecutor;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ShardRouter shardRouter;
+
+    @Autowired
+    public void setTodoListRepository(TodoListRepository todoListRepository) {
+        this.todoListRepository = todoListRepository;
+    }
+
+    @Autowired
+    public void setTodoItemRepository(TodoItemRepository todoItemRepository) {
+        this.todoItemRepository = todoItemRepository;
+    }
+
+    @Autowired
+    public void setTaskExecutor(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Computes a sort key that places an item directly before another item. Must be called within
+     * a transaction.
+     *
+     * @param listId
+     * @param movedItemId the item that will receive the sort key
+     * @param before the item that should follow the moved item
+     * @return the new sort key
+     */
+    public long sortKeyBefore(Long listId, Long movedItemId, TodoItem before) {
+        Long previousKey = todoItemRepository.findSortKeyBefore(listId, before.getSortKey(), movedItemId).orElse(null);
+
+        if (previousKey == null) {
+            return before.getSortKey() - SORT_KEY_GAP;
+        }
+
+        if (before.getSortKey() - previousKey < 2) {
+            // No key left between the neighbours: this move has to wait for the rebalance
+            log.debug("Sort keys of list with ID {} are exhausted, rebalancing now", listId);
+            rebalance(listId);
+            previousKey = todoItemRepository.findSortKeyBefore(listId, before.getSortKey(), movedItemId).orElseThrow();
+        } else if (before.getSortKey() - previousKey < 2 * MIN_SORT_KEY_GAP) {
+            rebalanceLater(listId);
+        }
+
+        return previousKey + (before.getSortKey() - previousKey) / 2;
+    }
+
+    /**
+     * Rewrites the sort keys of all items of a list with even gaps, keeping their order. Must be
+     * called within a transaction.
+     */
+    public void rebalance(Long listId) {
+        // Locks the list row, like a move does
+        if (todoListRepository.incrementVersion(listId) == 0) {
+            return;
+        }
+        long version = todoListRepository.findVersionById(listId).orElseThrow();
+
+        List<TodoItem> items = todoItemRepository.findByTodoListIdOrderBySortKey(listId);
+
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setSortKey((i + 1) * SORT_KEY_GAP);
+            items.get(i).setChangeVersion(version);
+        }
+    }
+
+    /**
+     * Schedules a rebalance of a list in the background, after the current transaction commits.
+     */
+    public void rebalanceLater(Long listId) {
+        if (!pendingListIds.add(listId)) {
+            return;
+        }
+
+        Runnable task = () -> taskExecutor.execute(() -> {
+            try {
+                shardRouter.runOnShardOf(listId,
+                    () -> transactionTemplate.executeWithoutResult(status -> rebalance(listId)));
+                log.debug("Rebalanced sort keys of list with ID {}", listId);
+            } finally {
+                pendingListIds.remove(listId);
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.form.TodoListForm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts new lists and their items with JDBC batches instead of saving each list through JPA.
+ *
+ * <p>The IDs of a whole batch are taken from the sequence that JPA uses in a single query. Must be
+ * called within a transaction. On PostgreSQL, add {@code reWriteBatchedInserts=true} to the
+ * connection URL, so that the driver sends each batch as multi-row inserts.
+ */
+@Component
+@Profile("!memory")
+public class TodoListBatchInserter {
+
+    private static final String H2_ALLOCATE_IDS =
+        "SELECT NEXT VALUE FOR hibernate_sequence FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String POSTGRES_ALLOCATE_IDS =
+        "SELECT nextval('hibernate_sequence') FROM generate_series(1, ?)";
+
+    private static final String INSERT_LIST = "INSERT INTO todo_list (id, version) VALUES (?, 0)";
+
+    private static final String INSERT_ITEM =
+        "INSERT INTO todo_item (id, title, finished, todo_list_id, sort_key) VALUES (?, ?, FALSE, ?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private String allocateIdsQuery;
+
+    @Autowired
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+
+        String database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+            DatabaseMetaData::getDatabaseProductName);
+        this.allocateIdsQuery = switch (database) {
+            case "H2" -> H2_ALLOCATE_IDS;
+            case "PostgreSQL" -> POSTGRES_ALLOCATE_IDS;
+            default -> throw new IllegalStateException("Cannot allocate IDs in batches on " + database);
+        };
+    }
+
+    /**
+     * @param todoLists
+     * @return the IDs of the new lists and their items, in the order of the given lists
+     */
+    public InsertedLists insert(List<TodoListForm> todoLists) {
+        int itemCount = todoLists.stream().mapToInt(todoList -> todoList.getItems().size()).sum();
+        long[] ids = jdbcTemplate.queryForList(allocateIdsQuery, Long.class, todoLists.size() + itemCount).stream()
+            .mapToLong(Long::longValue)
+            .toArray();
+
+        long[] listIds = new long[todoLists.size()];
+        long[] itemIds = new long[itemCount];
+        List<Object[]> listRows = new ArrayList<>(listIds.length);
+        List<Object[]> itemRows = new ArrayList<>(itemCount);
+        int next = 0;
+        int item = 0;
+
+        for (int list = 0; list < listIds.length; list++) {
+            listIds[list] = ids[next++];
+            listRows.add(new Object[] {listIds[list]});
+
+            List<String> titles = todoLists.get(list).getItems();
+            for (int position = 0; position < titles.size(); position++) {
+                itemIds[item] = ids[next++];
+                itemRows.add(new Object[] {itemIds[item], titles.get(position), listIds[list],
+                    (position + 1) * SortKeyRebalancer.SORT_KEY_GAP});
+                item++;
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_LIST, listRows);
+        jdbcTemplate.batchUpdate(INSERT_ITEM, itemRows);
+
+        return new InsertedLists(listIds, itemIds);
+    }
+
+    /**
+     * @param itemIds the IDs of the items of all lists, list by list
+     */
+    public record InsertedLists(long[] listIds, long[] itemIds) { }
+}
@@ -1,76 +1,317 @@
 package com.example.sitodo.service.impl;
 
+import com.example.sitodo.dto.TodoItemChangeDto;
 import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoItemList;
+import com.example.sitodo.dto.TodoListChangesDto;
 import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
+import com.example.sitodo.dto.TodoListsDto;
+import com.example.sitodo.due.DueDateScheduler;
+import com.example.sitodo.event.TodoItemAddedEvent;
+import com.example.sitodo.event.TodoItemsRemovedEvent;
+import com.example.sitodo.event.TodoListChangedEvent;
 import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.hotlist.HotListTracker;
 import com.example.sitodo.model.TodoItem;
 import com.example.sitodo.model.TodoList;
+import com.example.sitodo.repository.ArchivedTodoItemRepository;
+import com.example.sitodo.repository.TodoItemRepository;
 import com.example.sitodo.repository.TodoListRepository;
 import com.example.sitodo.service.TodoListService;
+import com.example.sitodo.shard.ShardRouter;
+import com.example.sitodo.stats.TodoListStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Profile("!memory")
 public class TodoListServiceImpl implements TodoListService {
 
+    @Value("${sitodo.delete.chunk-size:1000}")
+    private int deleteChunkSize;
+
+    @Value("${sitodo.provisioning.chunk-size:1000}")
+    private int provisioningChunkSize;
+
     private TodoListRepository todoListRepository;
 
+    private TodoItemRepository todoItemRepository;
+
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    private SortKeyRebalancer sortKeyRebalancer;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    private HotListTracker hotListTracker;
+
+    private TodoListStatistics todoListStatistics;
+
+    private TodoListBatchInserter todoListBatchInserter;
+
+    private DueDateScheduler dueDateScheduler;
+
+    private ShardRouter shardRouter;
+
     @Autowired
     public void setTodoListRepository(TodoListRepository todoListRepository) {
         this.todoListRepository = todoListRepository;
     }
 
+    @Autowired
+    public void setTodoItemRepository(TodoItemRepository todoItemRepository) {
+        this.todoItemRepository = todoItemRepository;
+    }
+
+    @Autowired
+    public void setArchivedTodoItemRepository(ArchivedTodoItemRepository archivedTodoItemRepository) {
+        this.archivedTodoItemRepository = archivedTodoItemRepository;
+    }
+
+    @Autowired
+    public void setSortKeyRebalancer(SortKeyRebalancer sortKeyRebalancer) {
+        this.sortKeyRebalancer = sortKeyRebalancer;
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Autowired
+    public void setHotListTracker(HotListTracker hotListTracker) {
+        this.hotListTracker = hotListTracker;
+    }
+
+    @Autowired
+    public void setTodoListStatistics(TodoListStatistics todoListStatistics) {
+        this.todoListStatistics = todoListStatistics;
+    }
+
+    @Autowired
+    public void setTodoListBatchInserter(TodoListBatchInserter todoListBatchInserter) {
+        this.todoListBatchInserter = todoListBatchInserter;
+    }
+
+    @Autowired
+    public void setDueDateScheduler(DueDateScheduler dueDateScheduler) {
+        this.dueDateScheduler = dueDateScheduler;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Builds the list straight from the item rows, without loading the entities.
+     */
     @Override
+    @Transactional(readOnly = true)
     public TodoListDto getTodoListById(Long listId) throws NoSuchElementException {
-        Optional<TodoList> queryResult = todoListRepository.findById(listId);
-
-        if (queryResult.isEmpty()) {
+        if (todoListRepository.findVersionById(listId).isEmpty()) {
             throw new NoSuchElementException();
         }
 
-        TodoList foundTodoList = queryResult.get();
+        TodoItemList.Builder items = TodoItemList.builder(0);
+        try (Stream<TodoItemRepository.ItemRow> rows = todoItemRepository.streamByTodoListId(listId)) {
+            rows.forEach(row -> items.add(row.getId(), row.getTitle(), Boolean.TRUE.equals(row.getFinished()), row.getDueAt()));
+        }
+        hotListTracker.recordRead(listId);
+
+        return new TodoListDto(listId, items.build());
+    }
+
+    /**
+     * Reads the lists of each shard with two queries, one for the lists and one for the items of
+     * all of them, instead of two per list. IDs of shards that do not exist are reported as
+     * missing without asking any shard.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TodoListsDto getTodoListsByIds(Collection<Long> listIds) {
+        List<Long> requestedIds = listIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> routableIds = requestedIds.stream().filter(shardRouter::hasShardOf).toList();
+
+        Map<Long, TodoListDto> found = new HashMap<>();
+        shardRouter.onShardsOf(routableIds, shardListIds -> readOnlyTransactionTemplate.execute(status -> readTodoLists(shardListIds)))
+            .forEach(todoLists -> todoLists.forEach(todoList -> found.put(todoList.id(), todoList)));
+
+        List<TodoListDto> todoLists = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long listId : requestedIds) {
+            TodoListDto todoList = found.get(listId);
+
+            if (todoList == null) {
+                missingIds.add(listId);
+            } else {
+                todoLists.add(todoList);
+                hotListTracker.recordRead(listId);
+            }
+        }
+
+        return new TodoListsDto(todoLists, missingIds);
+    }
+
+    /**
+     * Takes the page from each shard and merges them; the IDs of the shards interleave, so the
+     * first {@code limit} of the merged lists are the page.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TodoListSummaryDto> getTodoListSummaries(long afterId, int limit) {
+        return shardRouter.onEachShard(() -> todoListRepository.findSummariesAfter(afterId, limit)).stream()
+            .flatMap(List::stream)
+            .sorted(Comparator.comparing(TodoListRepository.ListSummary::getId))
+            .limit(limit)
+            .map(summary -> new TodoListSummaryDto(summary.getId(), summary.getTotalItems(), summary.getFinishedItems()))
+            .toList();
+    }
+
+    @Override
+    public long getTodoListVersion(Long listId) throws NoSuchElementException {
+        return todoListRepository.findVersionById(listId).orElseThrow();
+    }
+
+    /**
+     * Reads the version before the changes, so that a change committed in between is at worst
+     * reported again by the next call, never skipped. The pruned version is read after the
+     * removals, so that removals pruned in between turn the result into the whole list.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TodoListChangesDto getTodoListChanges(Long listId, Long since) throws NoSuchElementException {
+        long version = todoListRepository.findVersionById(listId).orElseThrow();
+        List<Long> removedItemIds = since == null ? List.of() : todoItemRepository.findRemovedSince(listId, since);
+        boolean full = since == null || since < todoListRepository.findRemovalsPrunedVersionById(listId).orElseThrow();
+        long after = full ? -1 : since;
+
+        List<TodoItemChangeDto> items = todoItemRepository.findChangedSince(listId, after).stream()
+            .map(item -> new TodoItemChangeDto(item.getId(), item.getTitle(), item.getFinished(), item.getDueAt(), item.getSortKey()))
+            .toList();
 
-        return createTodoListDto(foundTodoList);
+        return new TodoListChangesDto(listId, version, full, items, full ? List.of() : removedItemIds);
     }
 
     @Override
     public TodoListDto addTodoItem(TodoItemForm todoItemForm) {
-        TodoItem todoItem = new TodoItem();
-        todoItem.setTitle(todoItemForm.getTitle());
+        TodoItem todoItem = createTodoItem(todoItemForm);
+        todoItem.setSortKey(SortKeyRebalancer.SORT_KEY_GAP);
         TodoList todoList = new TodoList();
         todoList.addTodoItem(todoItem);
 
         TodoList savedTodoList = todoListRepository.save(todoList);
+        todoListStatistics.recordListsCreated(1);
+        publishItemAdded(savedTodoList);
 
         return createTodoListDto(savedTodoList);
     }
 
     @Override
     public TodoListDto addTodoItem(Long listId, TodoItemForm todoItemForm) throws NoSuchElementException {
+        // Incrementing the version first locks the list, so that concurrent writers of the list
+        // run one after the other and never end up with the same version. The version is read
+        // back from the database, as a list loaded earlier in the transaction still has the old one
+        if (todoListRepository.incrementVersion(listId) == 0) {
+            throw new NoSuchElementException();
+        }
+        long version = todoListRepository.findVersionById(listId).orElseThrow();
+
         Optional<TodoList> queryResult = todoListRepository.findById(listId);
 
         if (queryResult.isEmpty()) {
             throw new NoSuchElementException();
         }
 
-        TodoItem todoItem = new TodoItem();
-        todoItem.setTitle(todoItemForm.getTitle());
+        TodoItem todoItem = createTodoItem(todoItemForm);
         TodoList foundTodoList = queryResult.get();
+        todoItem.setSortKey(nextSortKey(foundTodoList));
         foundTodoList.addTodoItem(todoItem);
+        todoItem.setChangeVersion(version);
 
         TodoList savedTodoList = todoListRepository.save(foundTodoList);
+        publishItemAdded(savedTodoList);
 
         return createTodoListDto(savedTodoList);
     }
 
+    /**
+     * Inserts the lists of each chunk with {@link TodoListBatchInserter} instead of saving them
+     * one by one. New lists cannot have a rendered page yet, so only the search index is told
+     * about their items.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void createTodoLists(List<TodoListForm> todoLists, Consumer<List<Long>> createdListIds) {
+        for (int start = 0; start < todoLists.size(); start += provisioningChunkSize) {
+            List<TodoListForm> chunk = todoLists.subList(start, Math.min(start + provisioningChunkSize, todoLists.size()));
+
+            TodoListBatchInserter.InsertedLists inserted = transactionTemplate.execute(status -> {
+                TodoListBatchInserter.InsertedLists result = todoListBatchInserter.insert(chunk);
+                int item = 0;
+
+                for (int list = 0; list < chunk.size(); list++) {
+                    for (String title : chunk.get(list).getItems()) {
+                        eventPublisher.publishEvent(new TodoItemAddedEvent(result.listIds()[list], result.itemIds()[item++], title));
+                    }
+                }
+                todoListStatistics.recordListsCreated(chunk.size());
+                todoListStatistics.recordItemsAdded(result.itemIds().length);
+
+                return result;
+            });
+
+            createdListIds.accept(LongStream.of(inserted.listIds()).boxed().toList());
+        }
+    }
+
     @Override
     public TodoListDto setTodoItemFinished(Long listId, Long itemId, Boolean finished) throws NoSuchElementException {
+        if (todoListRepository.incrementVersion(listId) == 0) {
+            throw new NoSuchElementException();
+        }
+        long version = todoListRepository.findVersionById(listId).orElseThrow();
+
         Optional<TodoList> queryResult = todoListRepository.findById(listId);
 
         if (queryResult.isEmpty()) {
@@ -81,21 +322,227 @@ public class TodoListServiceImpl implements TodoListService {
 
         for (TodoItem item : foundTodoList.getItems()) {
             if (item.getId().equals(itemId)) {
+                if (Boolean.TRUE.equals(item.getFinished()) != Boolean.TRUE.equals(finished)) {
+                    todoListStatistics.recordItemsFinished(Boolean.TRUE.equals(finished) ? 1 : -1);
+                }
                 item.setFinished(finished);
+                item.setFinishedAt(Boolean.TRUE.equals(finished) ? Instant.now() : null);
+                item.setChangeVersion(version);
             }
         }
 
         TodoList updatedTodoList = todoListRepository.save(foundTodoList);
+        eventPublisher.publishEvent(new TodoListChangedEvent(updatedTodoList.getId()));
+        hotListTracker.recordWrite(listId);
 
         return createTodoListDto(updatedTodoList);
     }
 
+    @Override
+    public void moveTodoItem(Long listId, Long itemId, Long beforeItemId) throws NoSuchElementException {
+        TodoItem movedItem = todoItemRepository.findByIdAndTodoListId(itemId, listId).orElseThrow();
+
+        if (itemId.equals(beforeItemId)) {
+            return;
+        }
+
+        // Updating the list locks its row before any sort key is read, so that moves and
+        // rebalances of the same list never compute sort keys from each other's uncommitted state
+        if (todoListRepository.incrementVersion(listId) == 0) {
+            throw new NoSuchElementException();
+        }
+
+        if (beforeItemId == null) {
+            long lastSortKey = todoItemRepository.findLastSortKey(listId).orElse(0L);
+            movedItem.setSortKey(lastSortKey + SortKeyRebalancer.SORT_KEY_GAP);
+        } else {
+            TodoItem before = todoItemRepository.findByIdAndTodoListId(beforeItemId, listId).orElseThrow();
+            movedItem.setSortKey(sortKeyRebalancer.sortKeyBefore(listId, itemId, before));
+        }
+        movedItem.setChangeVersion(todoListRepository.findVersionById(listId).orElseThrow());
+
+        eventPublisher.publishEvent(new TodoListChangedEvent(listId));
+        hotListTracker.recordWrite(listId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TodoItemDto> getArchivedTodoItems(Long listId) throws NoSuchElementException {
+        if (!todoListRepository.existsById(listId)) {
+            throw new NoSuchElementException();
+        }
+
+        return archivedTodoItemRepository.findByTodoListIdOrderBySortKey(listId).stream()
+            .map(item -> new TodoItemDto(item.getId(), item.getTitle(), true))
+            .toList();
+    }
+
+    @Override
+    public void deleteTodoItem(Long listId, Long itemId) throws NoSuchElementException {
+        if (todoListRepository.incrementVersion(listId) == 0) {
+            throw new NoSuchElementException();
+        }
+
+        long finished = todoItemRepository.countFinishedInList(listId, List.of(itemId));
+        todoItemRepository.recordRemovals(listId, List.of(itemId));
+        if (todoItemRepository.deleteFromList(listId, List.of(itemId)) == 0) {
+            throw new NoSuchElementException();
+        }
+
+        todoListStatistics.recordItemsRemoved(finished, 1 - finished);
+        publishItemsRemoved(listId, List.of(itemId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int clearFinishedItems(Long listId) throws NoSuchElementException {
+        return deleteInChunks(listId, () -> todoItemRepository.findFinishedIdsByTodoListId(listId, firstChunk()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteTodoList(Long listId) throws NoSuchElementException {
+        deleteInChunks(listId, () -> todoItemRepository.findIdsByTodoListId(listId, firstChunk()));
+
+        List<Long> archivedIds;
+        do {
+            archivedIds = transactionTemplate.execute(status -> {
+                List<Long> itemIds = archivedTodoItemRepository.findIdsByTodoListId(listId, firstChunk());
+
+                if (!itemIds.isEmpty()) {
+                    archivedTodoItemRepository.deleteFromList(listId, itemIds);
+                }
+
+                return itemIds;
+            });
+        } while (archivedIds.size() == deleteChunkSize);
+
+        // Items added since the last chunk are deleted together with the list
+        transactionTemplate.executeWithoutResult(status -> {
+            todoListRepository.incrementVersion(listId);
+            List<Long> remainingIds = todoItemRepository.findIdsByTodoListId(listId, Pageable.unpaged());
+            long finished = remainingIds.isEmpty() ? 0 : todoItemRepository.countFinishedInList(listId, remainingIds);
+            todoItemRepository.deleteAllFromList(listId);
+            todoItemRepository.deleteRemovalsOfList(listId);
+            archivedTodoItemRepository.deleteAllFromList(listId);
+
+            if (todoListRepository.deleteListById(listId) > 0) {
+                todoListStatistics.recordListDeleted();
+            }
+            todoListStatistics.recordItemsRemoved(finished, remainingIds.size() - finished);
+            publishItemsRemoved(listId, remainingIds);
+        });
+    }
+
+    /**
+     * Deletes the items of a list chunk by chunk, each chunk in its own transaction, until the
+     * selector returns fewer items than a full chunk.
+     *
+     * @param listId
+     * @param selector selects the IDs of the next chunk of items to delete
+     * @return the number of deleted items
+     */
+    private int deleteInChunks(Long listId, Supplier<List<Long>> selector) throws NoSuchElementException {
+        int deleted = 0;
+        List<Long> chunk;
+
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                // Lock the list, so that the chunk is not modified concurrently
+                if (todoListRepository.incrementVersion(listId) == 0) {
+                    throw new NoSuchElementException();
+                }
+
+                List<Long> itemIds = selector.get();
+
+                if (!itemIds.isEmpty()) {
+                    long finished = todoItemRepository.countFinishedInList(listId, itemIds);
+                    todoItemRepository.recordRemovals(listId, itemIds);
+                    int removed = todoItemRepository.deleteFromList(listId, itemIds);
+                    todoListStatistics.recordItemsRemoved(finished, removed - finished);
+                    publishItemsRemoved(listId, itemIds);
+                }
+
+                return itemIds;
+            });
+            deleted += chunk.size();
+        } while (chunk.size() == deleteChunkSize);
+
+        return deleted;
+    }
+
+    /**
+     * Reads the lists of one shard that exist, like {@link #getTodoListById(Long)} but with one
+     * query for the items of all of them.
+     */
+    private List<TodoListDto> readTodoLists(List<Long> listIds) {
+        Map<Long, TodoItemList.Builder> items = new LinkedHashMap<>();
+        todoListRepository.findExistingIds(listIds).forEach(listId -> items.put(listId, TodoItemList.builder(0)));
+
+        if (!items.isEmpty()) {
+            for (TodoItemRepository.ListItemRow row : todoItemRepository.findByTodoListIds(items.keySet())) {
+                items.get(row.getTodoListId())
+                    .add(row.getId(), row.getTitle(), Boolean.TRUE.equals(row.getFinished()), row.getDueAt());
+            }
+        }
+
+        return items.entrySet().stream()
+            .map(entry -> new TodoListDto(entry.getKey(), entry.getValue().build()))
+            .toList();
+    }
+
+    private PageRequest firstChunk() {
+        return PageRequest.ofSize(deleteChunkSize);
+    }
+
+    private static TodoItem createTodoItem(TodoItemForm todoItemForm) {
+        TodoItem todoItem = new TodoItem();
+        todoItem.setTitle(todoItemForm.getTitle());
+
+        if (todoItemForm.getDueAt() != null) {
+            todoItem.setDueAt(todoItemForm.getDueAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        return todoItem;
+    }
+
+    private static long nextSortKey(TodoList todoList) {
+        return todoList.getItems().stream()
+            .map(TodoItem::getSortKey)
+            .filter(Objects::nonNull)
+            .max(Long::compare)
+            .orElse(0L) + SortKeyRebalancer.SORT_KEY_GAP;
+    }
+
+    private void publishItemAdded(TodoList savedTodoList) {
+        List<TodoItem> items = savedTodoList.getItems();
+        TodoItem addedItem = items.get(items.size() - 1);
+
+        todoListStatistics.recordItemsAdded(1);
+        if (addedItem.getDueAt() != null) {
+            dueDateScheduler.schedule(addedItem.getId(), addedItem.getDueAt());
+        }
+        eventPublisher.publishEvent(new TodoItemAddedEvent(savedTodoList.getId(), addedItem.getId(), addedItem.getTitle()));
+        eventPublisher.publishEvent(new TodoListChangedEvent(savedTodoList.getId()));
+        hotListTracker.recordWrite(savedTodoList.getId());
+    }
+
+    private void publishItemsRemoved(Long listId, List<Long> itemIds) {
+        eventPublisher.publishEvent(new TodoItemsRemovedEvent(listId, itemIds));
+        eventPublisher.publishEvent(new TodoListChangedEvent(listId));
+        hotListTracker.recordWrite(listId);
+    }
+
+    /**
+     * Used after writes, where the entities are loaded anyway. Pages are rendered from
+     * {@link #getTodoListById(Long)}, which builds the compact {@link TodoItemList}.
+     */
     private static TodoListDto createTodoListDto(TodoList todoList) {
         Long id = todoList.getId();
         List<TodoItem> items = todoList.getItems();
 
         return new TodoListDto(id, items.stream().map(
-            item -> new TodoItemDto(item.getId(), item.getTitle(), item.getFinished())).toList()
+            item -> new TodoItemDto(item.getId(), item.getTitle(), item.getFinished(), item.getDueAt())).toList()
         );
     }
 }
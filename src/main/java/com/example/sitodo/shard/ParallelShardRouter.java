@@ -0,0 +1,116 @@
+package com.example.sitodo.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ShardRouter} of the {@code sharded} profile. Work on several shards runs on a
+ * thread pool with one thread per shard, so a query over all shards takes about as long as on
+ * the slowest shard.
+ */
+class ParallelShardRouter implements ShardRouter, DisposableBean {
+
+    private final int shardCount;
+
+    private final ExecutorService executor;
+
+    ParallelShardRouter(int shardCount) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.shardCount = shardCount;
+        this.executor = Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean hasShardOf(long id) {
+        return ShardContext.shardOf(id) < shardCount;
+    }
+
+    @Override
+    public <T> T onShardOf(long id, Supplier<T> task) {
+        return ShardContext.callOn(existingShardOf(id), task);
+    }
+
+    @Override
+    public <T> List<T> onEachShard(Supplier<T> task) {
+        List<Future<T>> results = new ArrayList<>(shardCount);
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            int taskShard = shard;
+            results.add(executor.submit(() -> ShardContext.callOn(taskShard, task)));
+        }
+
+        return await(results);
+    }
+
+    @Override
+    public <T> List<T> onShardsOf(Collection<Long> ids, Function<List<Long>, T> task) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        ids.forEach(id -> idsByShard.computeIfAbsent(existingShardOf(id), shard -> new ArrayList<>()).add(id));
+
+        if (idsByShard.size() == 1) {
+            Map.Entry<Integer, List<Long>> group = idsByShard.entrySet().iterator().next();
+
+            return List.of(ShardContext.callOn(group.getKey(), () -> task.apply(group.getValue())));
+        }
+
+        List<Future<T>> results = new ArrayList<>(idsByShard.size());
+        idsByShard.forEach((shard, shardIds) ->
+            results.add(executor.submit(() -> ShardContext.callOn(shard, () -> task.apply(shardIds)))));
+
+        return await(results);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private int existingShardOf(long id) {
+        if (!hasShardOf(id)) {
+            throw new NoSuchElementException("No shard " + ShardContext.shardOf(id) + " for ID " + id);
+        }
+
+        return ShardContext.shardOf(id);
+    }
+
+    private static <T> List<T> await(List<Future<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException exception) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", exception);
+        } catch (ExecutionException exception) {
+            futures.forEach(future -> future.cancel(true));
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+
+        return results;
+    }
+}
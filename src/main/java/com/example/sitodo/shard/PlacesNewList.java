@@ -0,0 +1,17 @@
+package com.example.sitodo.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link com.example.sitodo.service.TodoListService} method that creates lists. With the
+ * {@code sharded} profile, the whole call runs on a shard chosen by the configured placement.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PlacesNewList {
+}
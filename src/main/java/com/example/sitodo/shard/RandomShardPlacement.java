@@ -0,0 +1,55 @@
+package com.example.sitodo.shard;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Places each new list on a random shard, with probabilities in proportion to the weights of the
+ * shards.
+ */
+class RandomShardPlacement implements ShardPlacement {
+
+    private final int[] cumulativeWeights;
+
+    RandomShardPlacement(int[] weights) {
+        checkWeights(weights);
+
+        this.cumulativeWeights = new int[weights.length];
+        int sum = 0;
+
+        for (int shard = 0; shard < weights.length; shard++) {
+            sum += weights[shard];
+            cumulativeWeights[shard] = sum;
+        }
+    }
+
+    @Override
+    public int nextShard() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int shard = 0;
+
+        while (cumulativeWeights[shard] <= point) {
+            shard++;
+        }
+
+        return shard;
+    }
+
+    /**
+     * @return the total weight
+     */
+    static int checkWeights(int[] weights) {
+        int total = 0;
+
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Shard weights must not be negative: " + weight);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one shard must have a weight above 0");
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.sitodo.shard;
+
+/**
+ * Places new lists in turns, in proportion to the weights of the shards. Uses smooth weighted
+ * round-robin: each turn, every shard earns its weight, and the shard with the most credit is
+ * chosen and pays back the total weight. With weights 2 and 1, the shards are chosen in the order
+ * 0, 1, 0, 0, 1, 0 rather than 0, 0, 1, 0, 0, 1.
+ */
+class RoundRobinShardPlacement implements ShardPlacement {
+
+    private final int[] weights;
+
+    private final int totalWeight;
+
+    private final long[] credits;
+
+    RoundRobinShardPlacement(int[] weights) {
+        this.weights = weights.clone();
+        this.totalWeight = RandomShardPlacement.checkWeights(weights);
+        this.credits = new long[weights.length];
+    }
+
+    @Override
+    public synchronized int nextShard() {
+        int chosen = 0;
+
+        for (int shard = 0; shard < weights.length; shard++) {
+            credits[shard] += weights[shard];
+
+            if (credits[shard] > credits[chosen]) {
+                chosen = shard;
+            }
+        }
+        credits[chosen] -= totalWeight;
+
+        return chosen;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sitodo.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard that the current thread works on, read by {@link ShardRoutingDataSource} whenever a
+ * connection is taken. Must be set before a transaction begins, because the transaction keeps
+ * the connection it started with.
+ *
+ * <p>The IDs of lists and items tell their shard: each shard's sequence counts in steps of
+ * {@link #MAX_SHARDS}, starting at a different offset (see {@code db.changelog-shard.yaml}).
+ */
+public final class ShardContext {
+
+    /**
+     * The step of the ID sequences, which limits the number of shards. Must never change once
+     * IDs have been given out.
+     */
+    static final int MAX_SHARDS = 64;
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) MAX_SHARDS);
+    }
+
+    /**
+     * @return the current shard, or {@code null} if none has been selected
+     */
+    public static Integer current() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> task) {
+        Integer outerShard = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+
+        try {
+            return task.get();
+        } finally {
+            if (outerShard == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(outerShard);
+            }
+        }
+    }
+}
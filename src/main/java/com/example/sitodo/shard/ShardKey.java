@@ -0,0 +1,18 @@
+package com.example.sitodo.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the list ID parameter of a {@link com.example.sitodo.service.TodoListService} method.
+ * With the {@code sharded} profile, the whole call, including its transaction, runs on the shard
+ * of that list.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ShardKey {
+}
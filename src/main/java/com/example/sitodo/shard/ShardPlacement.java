@@ -0,0 +1,16 @@
+package com.example.sitodo.shard;
+
+/**
+ * Chooses the shard of a new list, see {@link ShardProperties.Placement}.
+ */
+interface ShardPlacement {
+
+    int nextShard();
+
+    static ShardPlacement of(ShardProperties.Placement placement, int[] weights) {
+        return switch (placement) {
+            case ROUND_ROBIN -> new RoundRobinShardPlacement(weights);
+            case RANDOM -> new RandomShardPlacement(weights);
+        };
+    }
+}
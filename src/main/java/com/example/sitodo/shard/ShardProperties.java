@@ -0,0 +1,54 @@
+package com.example.sitodo.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The databases of the {@code sharded} profile (see {@code application-sharded.properties}).
+ */
+@Data
+@ConfigurationProperties(prefix = "sitodo.shards")
+public class ShardProperties {
+
+    /**
+     * One entry per shard. Shards may be added at the end, but never removed or reordered,
+     * because the IDs of lists and items point to their shard by its position.
+     */
+    private List<Shard> datasources = new ArrayList<>();
+
+    private Placement placement = Placement.ROUND_ROBIN;
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        /**
+         * The share of new lists placed on this shard, relative to the other shards. A shard
+         * with weight 0 keeps serving its lists but gets no new ones.
+         */
+        private int weight = 1;
+    }
+
+    public enum Placement {
+
+        /**
+         * Takes turns, in proportion to the weights.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * Picks a shard at random, with probabilities in proportion to the weights.
+         */
+        RANDOM
+    }
+}
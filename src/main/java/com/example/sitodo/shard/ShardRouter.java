@@ -0,0 +1,59 @@
+package com.example.sitodo.shard;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs database work on the right shard. Work that is not started through
+ * {@link com.example.sitodo.service.TodoListService} (background jobs, statistics, search) uses
+ * it to reach the shard of a list, or all shards.
+ *
+ * <p>Without the {@code sharded} profile there is only one database and each task simply runs in
+ * the calling thread.
+ */
+public interface ShardRouter {
+
+    /**
+     * @return whether the ID belongs to a shard that exists; IDs of other shards cannot belong
+     *         to any list or item
+     */
+    boolean hasShardOf(long id);
+
+    /**
+     * Runs a task on the shard that holds the list or item with the given ID.
+     *
+     * @throws java.util.NoSuchElementException if the ID belongs to a shard that does not exist
+     */
+    <T> T onShardOf(long id, Supplier<T> task);
+
+    /**
+     * Runs a task on every shard, in parallel.
+     *
+     * @return the result of each shard
+     */
+    <T> List<T> onEachShard(Supplier<T> task);
+
+    /**
+     * Groups the IDs of lists or items by their shard and runs the task for each group on its
+     * shard, in parallel.
+     *
+     * @return the result of each group
+     */
+    <T> List<T> onShardsOf(Collection<Long> ids, Function<List<Long>, T> task);
+
+    default void runOnShardOf(long id, Runnable task) {
+        onShardOf(id, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    default void runOnEachShard(Runnable task) {
+        onEachShard(() -> {
+            task.run();
+            return null;
+        });
+    }
+}
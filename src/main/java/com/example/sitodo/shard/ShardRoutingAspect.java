@@ -0,0 +1,97 @@
+package com.example.sitodo.shard;
+
+import com.example.sitodo.service.TodoListService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the shard of each {@link TodoListService} call from its {@link ShardKey} parameter, or
+ * places a new list for methods marked with {@link PlacesNewList}. Runs before the transaction
+ * of the call begins. Other methods, like the overview of all lists, reach the shards through
+ * {@link ShardRouter} themselves.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class ShardRoutingAspect {
+
+    private static final int NO_KEY = -1;
+
+    private final int shardCount;
+
+    private final ShardPlacement placement;
+
+    private final Map<Method, Route> routes = new ConcurrentHashMap<>();
+
+    ShardRoutingAspect(int shardCount, ShardPlacement placement) {
+        this.shardCount = shardCount;
+        this.placement = placement;
+    }
+
+    @Around("execution(* com.example.sitodo.service.TodoListService.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Route route = routes.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+            ShardRoutingAspect::findRoute);
+        Integer shard = null;
+
+        if (route.placesNewList()) {
+            shard = placement.nextShard();
+        } else if (route.keyParameter() != NO_KEY && joinPoint.getArgs()[route.keyParameter()] instanceof Long listId) {
+            shard = ShardContext.shardOf(listId);
+
+            if (shard >= shardCount) {
+                // Not an ID that any shard has given out
+                throw new NoSuchElementException();
+            }
+        }
+
+        if (shard == null) {
+            return joinPoint.proceed();
+        }
+
+        return ShardContext.callOn(shard, () -> {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        });
+    }
+
+    /**
+     * Reads the annotations from the interface, which the implementations do not inherit.
+     */
+    private static Route findRoute(Method method) {
+        Method declared;
+
+        try {
+            declared = TodoListService.class.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException exception) {
+            return new Route(false, NO_KEY);
+        }
+
+        Annotation[][] parameterAnnotations = declared.getParameterAnnotations();
+        for (int parameter = 0; parameter < parameterAnnotations.length; parameter++) {
+            for (Annotation annotation : parameterAnnotations[parameter]) {
+                if (annotation instanceof ShardKey) {
+                    return new Route(false, parameter);
+                }
+            }
+        }
+
+        return new Route(declared.isAnnotationPresent(PlacesNewList.class), NO_KEY);
+    }
+
+    private record Route(boolean placesNewList, int keyParameter) { }
+}
@@ -0,0 +1,60 @@
+package com.example.sitodo.shard;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the changelog on each shard in turn. {@code db.changelog-shard.yaml} adds one changeset
+ * to the regular changelog, which makes the ID sequence of each shard start at the shard's
+ * offset and count in steps of {@link ShardContext#MAX_SHARDS}.
+ *
+ * <p>As a {@link SpringLiquibase} bean, it replaces the auto-configured Liquibase run, and Spring
+ * Boot initialises JPA only after it.
+ */
+@Slf4j
+class ShardedSpringLiquibase extends SpringLiquibase {
+
+    static final String CHANGE_LOG = "classpath:/db/changelog/db.changelog-shard.yaml";
+
+    private final List<? extends DataSource> shards;
+
+    ShardedSpringLiquibase(List<? extends DataSource> shards) {
+        this.shards = shards;
+        setChangeLog(CHANGE_LOG);
+        setDataSource(shards.get(0));
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            return;
+        }
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            Map<String, String> shardParameters = new HashMap<>();
+            if (parameters != null) {
+                shardParameters.putAll(parameters);
+            }
+            shardParameters.put("shardFirstId", String.valueOf(ShardContext.MAX_SHARDS + shard));
+            shardParameters.put("shardIdStep", String.valueOf(ShardContext.MAX_SHARDS));
+
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setResourceLoader(getResourceLoader());
+            liquibase.setDataSource(shards.get(shard));
+            liquibase.setChangeLog(getChangeLog());
+            liquibase.setContexts(getContexts());
+            liquibase.setLabels(getLabels());
+            liquibase.setDropFirst(isDropFirst());
+            liquibase.setChangeLogParameters(shardParameters);
+
+            log.info("Running Liquibase on shard {}", shard);
+            liquibase.afterPropertiesSet();
+        }
+    }
+}
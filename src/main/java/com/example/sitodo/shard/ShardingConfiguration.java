@@ -0,0 +1,100 @@
+package com.example.sitodo.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads the lists over several databases (see {@code application-sharded.properties}). Each
+ * shard has its own connection pool and Liquibase run; JPA and JDBC use a
+ * {@link ShardRoutingDataSource} in front of them.
+ *
+ * <p>The pools are not beans themselves, so that the data source wrappers of the JFR and slow
+ * query configurations only wrap the routing data source, once.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("sharded")
+@EnableConfigurationProperties({ShardProperties.class, LiquibaseProperties.class})
+public class ShardingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    ShardDataSources shardDataSources(ShardProperties properties) {
+        List<ShardProperties.Shard> shards = properties.getDatasources();
+
+        if (shards.isEmpty() || shards.size() > ShardContext.MAX_SHARDS) {
+            throw new IllegalStateException("Between 1 and " + ShardContext.MAX_SHARDS
+                + " shards must be configured in sitodo.shards.datasources, found " + shards.size());
+        }
+
+        List<HikariDataSource> pools = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            ShardProperties.Shard shardProperties = shards.get(shard);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("sitodo-shard-" + shard);
+            pool.setJdbcUrl(shardProperties.getUrl());
+            pool.setUsername(shardProperties.getUsername());
+            pool.setPassword(shardProperties.getPassword());
+            pool.setMaximumPoolSize(shardProperties.getMaximumPoolSize());
+            pools.add(pool);
+        }
+
+        return new ShardDataSources(pools);
+    }
+
+    /**
+     * Publishes the pool metrics ({@code hikaricp.*}) of each shard, tagged with its pool name.
+     */
+    @Bean
+    MeterBinder shardPoolMetrics(ShardDataSources shardDataSources) {
+        return meterRegistry -> shardDataSources.pools()
+            .forEach(pool -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry)));
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ShardDataSources shardDataSources) {
+        return new ShardRoutingDataSource(shardDataSources.pools());
+    }
+
+    @Bean
+    SpringLiquibase liquibase(ShardDataSources shardDataSources, LiquibaseProperties liquibaseProperties) {
+        SpringLiquibase liquibase = new ShardedSpringLiquibase(shardDataSources.pools());
+        liquibase.setContexts(liquibaseProperties.getContexts());
+        liquibase.setLabels(liquibaseProperties.getLabels());
+        liquibase.setDropFirst(liquibaseProperties.isDropFirst());
+        liquibase.setShouldRun(liquibaseProperties.isEnabled());
+        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
+
+        return liquibase;
+    }
+
+    @Bean
+    ShardRouter shardRouter(ShardProperties properties) {
+        return new ParallelShardRouter(properties.getDatasources().size());
+    }
+
+    @Bean
+    ShardRoutingAspect shardRoutingAspect(ShardProperties properties) {
+        int[] weights = properties.getDatasources().stream().mapToInt(ShardProperties.Shard::getWeight).toArray();
+
+        return new ShardRoutingAspect(weights.length, ShardPlacement.of(properties.getPlacement(), weights));
+    }
+
+    record ShardDataSources(List<HikariDataSource> pools) {
+
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
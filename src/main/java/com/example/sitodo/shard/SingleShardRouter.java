@@ -0,0 +1,43 @@
+package com.example.sitodo.shard;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ShardRouter} for a single database: every task runs once, in the calling thread.
+ */
+@Component
+@Profile("!sharded")
+public class SingleShardRouter implements ShardRouter {
+
+    @Override
+    public boolean hasShardOf(long id) {
+        return true;
+    }
+
+    @Override
+    public <T> T onShardOf(long id, Supplier<T> task) {
+        return task.get();
+    }
+
+    @Override
+    public <T> List<T> onEachShard(Supplier<T> task) {
+        return Collections.singletonList(task.get());
+    }
+
+    @Override
+    public <T> List<T> onShardsOf(Collection<Long> ids, Function<List<Long>, T> task) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return Collections.singletonList(task.apply(new ArrayList<>(ids)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.sitodo.slowquery;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Remembers which {@link com.example.sitodo.service.TodoListService} method the current thread
+ * is running, so that slow statements can be attributed to it.
+ */
+@Aspect
+class ServiceMethodTracker {
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    @Around("execution(* com.example.sitodo.service.TodoListService.*(..))")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        String outerMethod = CURRENT_METHOD.get();
+        CURRENT_METHOD.set("TodoListService." + joinPoint.getSignature().getName());
+
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (outerMethod == null) {
+                CURRENT_METHOD.remove();
+            } else {
+                CURRENT_METHOD.set(outerMethod);
+            }
+        }
+    }
+}
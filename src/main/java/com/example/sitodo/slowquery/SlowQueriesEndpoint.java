@@ -0,0 +1,32 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.dto.SlowQueryDto;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Shows the most recent slow statements at {@code /actuator/slowqueries}; {@code DELETE} clears
+ * them.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    public SlowQueriesEndpoint(SlowQueryRecorder slowQueryRecorder) {
+        this.slowQueryRecorder = slowQueryRecorder;
+    }
+
+    @ReadOperation
+    public List<SlowQueryDto> slowQueries() {
+        return slowQueryRecorder.getSlowQueries();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryRecorder.clear();
+    }
+}
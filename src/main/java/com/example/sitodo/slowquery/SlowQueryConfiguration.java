@@ -0,0 +1,41 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.connection.DataSourceWrappingPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Records slow SQL statements when {@code sitodo.slow-query.enabled} is set.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sitodo.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfiguration {
+
+    @Bean
+    public SlowQueryRecorder slowQueryRecorder(@Value("${sitodo.slow-query.threshold:PT0.1S}") Duration threshold,
+                                               @Value("${sitodo.slow-query.capacity:100}") int capacity,
+                                               @Value("${sitodo.slow-query.explain:true}") boolean explain) {
+        return new SlowQueryRecorder(threshold, capacity, explain);
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(SlowQueryRecorder slowQueryRecorder) {
+        return new SlowQueriesEndpoint(slowQueryRecorder);
+    }
+
+    @Bean
+    ServiceMethodTracker serviceMethodTracker() {
+        return new ServiceMethodTracker();
+    }
+
+    @Bean
+    static DataSourceWrappingPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> slowQueryRecorder) {
+        return new DataSourceWrappingPostProcessor(DataSourceWrappingPostProcessor.SLOW_QUERY_ORDER, SlowQueryDataSource.class,
+            dataSource -> new SlowQueryDataSource(dataSource, slowQueryRecorder.getObject()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.connection.ConnectionProxyingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times every statement executed on its connections and passes those slower than the threshold
+ * to the {@link SlowQueryRecorder}, together with their bind parameters.
+ */
+class SlowQueryDataSource extends ConnectionProxyingDataSource {
+
+    private final SlowQueryRecorder recorder;
+
+    SlowQueryDataSource(DataSource targetDataSource, SlowQueryRecorder recorder) {
+        super(targetDataSource);
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected Connection wrap(Connection connection) {
+        return proxy(connection, (method, arguments) ->
+            proxyStatement(method, arguments, invoke(connection, method, arguments), StatementHandler::new));
+    }
+
+    private final class StatementHandler implements Interceptor {
+
+        private final Statement statement;
+
+        private final String preparedSql;
+
+        private final List<Object> parameters = new ArrayList<>();
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Method method, Object[] arguments) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("set") && arguments != null && arguments.length >= 2 && arguments[0] instanceof Integer index) {
+                setParameter(index, name.equals("setNull") ? null : arguments[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute")) {
+                return execute(method, arguments);
+            }
+
+            return ConnectionProxyingDataSource.invoke(statement, method, arguments);
+        }
+
+        private Object execute(Method method, Object[] arguments) throws Throwable {
+            long start = System.nanoTime();
+
+            try {
+                return ConnectionProxyingDataSource.invoke(statement, method, arguments);
+            } finally {
+                long duration = System.nanoTime() - start;
+
+                if (duration >= recorder.thresholdNanos()) {
+                    String directSql = sqlArgument(arguments);
+                    boolean direct = directSql != null;
+                    String sql = direct ? directSql : preparedSql;
+
+                    // The parameters of a batch are gone by now, so batches are recorded without them
+                    if (sql != null) {
+                        recorder.record(sql, direct || method.getName().endsWith("Batch") ? List.of() : parameters,
+                            duration, getTargetDataSource());
+                    }
+                }
+            }
+        }
+
+        private void setParameter(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+    }
+}
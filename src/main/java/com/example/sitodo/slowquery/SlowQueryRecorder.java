@@ -0,0 +1,189 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.dto.SlowQueryDto;
+import com.example.sitodo.shard.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent statements that took longer than a threshold in a ring buffer.
+ *
+ * <p>The execution plan of each recorded statement is captured afterwards on a background thread,
+ * by running {@code EXPLAIN} with the original bind parameters on a separate connection to the
+ * same shard. The parameters are only kept until then; the record itself only contains redacted
+ * parameters.
+ * When the background thread falls behind, plans are skipped rather than queued without bound.
+ */
+@Slf4j
+public class SlowQueryRecorder implements DisposableBean {
+
+    private static final List<String> EXPLAINABLE = List.of("select", "with", "insert", "update", "delete");
+
+    private static final List<String> EXPLAIN_DATABASES = List.of("H2", "PostgreSQL");
+
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    private final long thresholdNanos;
+
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryRecorder(Duration threshold, int capacity, boolean explain) {
+        this.slowQueries = new AtomicReferenceArray<>(capacity);
+        this.thresholdNanos = threshold.toNanos();
+
+        if (explain) {
+            explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        } else {
+            explainExecutor = null;
+        }
+    }
+
+    long thresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /**
+     * Records a statement that took at least the threshold.
+     *
+     * @param parameters the bind parameters by index (starting at 0), or an empty list
+     * @param dataSource where to run {@code EXPLAIN}; must not record statements itself
+     */
+    void record(String sql, List<Object> parameters, long durationNanos, DataSource dataSource) {
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), durationNanos, sql, redact(parameters),
+            ServiceMethodTracker.currentMethod());
+        long index = recordedCount.getAndIncrement();
+        slowQueries.set((int) (index % slowQueries.length()), slowQuery);
+
+        if (explainExecutor == null) {
+            slowQuery.plan = "";
+        } else {
+            List<Object> boundParameters = new ArrayList<>(parameters);
+            Integer shard = ShardContext.current();
+            explainExecutor.execute(() -> slowQuery.plan = shard == null
+                ? explain(sql, boundParameters, dataSource)
+                : ShardContext.callOn(shard, () -> explain(sql, boundParameters, dataSource)));
+        }
+    }
+
+    /**
+     * @return the recorded statements, most recent first
+     */
+    public List<SlowQueryDto> getSlowQueries() {
+        long count = recordedCount.get();
+        int size = (int) Math.min(count, slowQueries.length());
+        List<SlowQueryDto> result = new ArrayList<>(size);
+
+        for (long index = count - 1; index >= count - size; index--) {
+            SlowQuery slowQuery = slowQueries.get((int) (index % slowQueries.length()));
+
+            if (slowQuery != null) {
+                result.add(new SlowQueryDto(slowQuery.executedAt, slowQuery.durationNanos / 1_000_000, slowQuery.sql,
+                    slowQuery.parameters, slowQuery.serviceMethod, slowQuery.plan));
+            }
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slowQueries.length(); i++) {
+            slowQueries.set(i, null);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (explainExecutor != null) {
+            explainExecutor.shutdownNow();
+        }
+    }
+
+    static List<String> redact(List<Object> parameters) {
+        return parameters.stream().map(parameter -> {
+            if (parameter == null || parameter instanceof Number || parameter instanceof Boolean) {
+                return String.valueOf(parameter);
+            }
+
+            return "<" + parameter.getClass().getSimpleName() + ">";
+        }).toList();
+    }
+
+    private static String explain(String sql, List<Object> parameters, DataSource dataSource) {
+        String firstWord = sql.stripLeading().split("\\s", 2)[0].toLowerCase(Locale.ROOT);
+        if (!EXPLAINABLE.contains(firstWord)) {
+            return "";
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            String database = connection.getMetaData().getDatabaseProductName();
+            if (!EXPLAIN_DATABASES.contains(database)) {
+                return "EXPLAIN is not supported for " + database;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(plan.isEmpty() ? "" : "\n").append(resultSet.getString(1));
+                    }
+                }
+
+                return plan.toString();
+            }
+        } catch (SQLException | RuntimeException exception) {
+            log.debug("Could not explain {}", sql, exception);
+            return "EXPLAIN failed: " + exception.getMessage();
+        }
+    }
+
+    private static final class SlowQuery {
+
+        private final Instant executedAt;
+
+        private final long durationNanos;
+
+        private final String sql;
+
+        private final List<String> parameters;
+
+        private final String serviceMethod;
+
+        private volatile String plan;
+
+        private SlowQuery(Instant executedAt, long durationNanos, String sql, List<String> parameters,
+                          String serviceMethod) {
+            this.executedAt = executedAt;
+            this.durationNanos = durationNanos;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.serviceMethod = serviceMethod;
+        }
+    }
+}
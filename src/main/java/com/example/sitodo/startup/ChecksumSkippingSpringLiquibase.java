@@ -0,0 +1,74 @@
+package com.example.sitodo.startup;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * A {@link SpringLiquibase} that remembers the checksum of the changelog it has applied and skips
+ * the whole Liquibase run (changelog parsing, lock acquisition, history lookup) on the next boot
+ * if the changelog has not changed since.
+ */
+@Slf4j
+public class ChecksumSkippingSpringLiquibase extends SpringLiquibase {
+
+    static final String CHECKSUM_TABLE = "sitodo_schema_checksum";
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            super.afterPropertiesSet();
+            return;
+        }
+
+        String checksum = computeChangeLogChecksum();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(getDataSource());
+
+        if (checksum != null && checksum.equals(findAppliedChecksum(jdbcTemplate))) {
+            log.info("Changelog {} is unchanged (checksum {}), skipping Liquibase", getChangeLog(), checksum);
+            return;
+        }
+
+        super.afterPropertiesSet();
+
+        if (checksum != null) {
+            storeAppliedChecksum(jdbcTemplate, checksum);
+        }
+    }
+
+    private String computeChangeLogChecksum() {
+        Resource changeLog = getResourceLoader().getResource(getChangeLog());
+
+        try (InputStream inputStream = changeLog.getInputStream()) {
+            return DigestUtils.md5DigestAsHex(inputStream);
+        } catch (IOException exception) {
+            log.warn("Could not read changelog {}, Liquibase will always run", getChangeLog(), exception);
+            return null;
+        }
+    }
+
+    private static String findAppliedChecksum(JdbcTemplate jdbcTemplate) {
+        try {
+            List<String> checksums = jdbcTemplate.queryForList("SELECT checksum FROM " + CHECKSUM_TABLE, String.class);
+
+            return checksums.isEmpty() ? null : checksums.get(0);
+        } catch (DataAccessException exception) {
+            // The table does not exist yet, e.g. on a fresh database
+            return null;
+        }
+    }
+
+    private static void storeAppliedChecksum(JdbcTemplate jdbcTemplate, String checksum) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + CHECKSUM_TABLE + " (checksum VARCHAR(32) NOT NULL)");
+        jdbcTemplate.update("DELETE FROM " + CHECKSUM_TABLE);
+        jdbcTemplate.update("INSERT INTO " + CHECKSUM_TABLE + " (checksum) VALUES (?)", checksum);
+    }
+}
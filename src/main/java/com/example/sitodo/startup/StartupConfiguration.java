@@ -0,0 +1,40 @@
+package com.example.sitodo.startup;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans used by the startup-optimised mode (see {@code application-startup.properties}).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(LiquibaseProperties.class)
+public class StartupConfiguration {
+
+    /**
+     * Replaces the auto-configured {@link SpringLiquibase} with one that skips unchanged changelogs.
+     * Not used with the {@code sharded} profile, whose own Liquibase run migrates every shard.
+     */
+    @Bean
+    @Profile("!sharded")
+    @ConditionalOnProperty(name = "sitodo.startup.skip-unchanged-schema", havingValue = "true")
+    public SpringLiquibase liquibase(DataSource dataSource, LiquibaseProperties properties) {
+        SpringLiquibase liquibase = new ChecksumSkippingSpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(properties.getChangeLog());
+        liquibase.setContexts(properties.getContexts());
+        liquibase.setLabels(properties.getLabels());
+        liquibase.setDefaultSchema(properties.getDefaultSchema());
+        liquibase.setDropFirst(properties.isDropFirst());
+        liquibase.setShouldRun(properties.isEnabled());
+        liquibase.setChangeLogParameters(properties.getParameters());
+
+        return liquibase;
+    }
+}
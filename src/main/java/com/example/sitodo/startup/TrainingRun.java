@@ -0,0 +1,60 @@
+package com.example.sitodo.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+
+/**
+ * Exercises the common request paths once and then shuts the application down.
+ *
+ * <p>Used when building the container image: running the application with
+ * {@code -XX:ArchiveClassesAtExit} and this training run enabled produces a class-data-sharing
+ * archive that contains every class needed to serve the first requests.
+ */
+@Component
+@ConditionalOnProperty(name = "sitodo.startup.training-run", havingValue = "true")
+@Slf4j
+public class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Value("${local.server.port}")
+    private int serverPort;
+
+    private final RestTemplate restTemplate;
+
+    public TrainingRun(RestTemplateBuilder restTemplateBuilder) {
+        this.restTemplate = restTemplateBuilder.build();
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        String baseUrl = "http://localhost:" + serverPort;
+
+        try {
+            restTemplate.getForEntity(baseUrl + "/list", String.class);
+
+            MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+            form.add("title", "Training run");
+            URI listLocation = restTemplate.postForLocation(baseUrl + "/list", form);
+
+            if (listLocation != null) {
+                ResponseEntity<String> list = restTemplate.getForEntity(URI.create(baseUrl).resolve(listLocation), String.class);
+                log.info("Training run finished with HTTP {}", list.getStatusCodeValue());
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Training run did not complete", exception);
+        }
+
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
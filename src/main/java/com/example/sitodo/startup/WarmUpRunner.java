@@ -0,0 +1,174 @@
+package com.example.sitodo.startup;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Warms the application up before it accepts traffic, so that the first requests after a deploy
+ * do not pay for class loading, JIT compilation, filling the connection pool and parsing the
+ * templates.
+ *
+ * <p>Each round adds items to a scratch list, finishes and reopens them, renders the list page
+ * over HTTP and deletes the items again, so that every round does the same work. Rounds are
+ * repeated until {@code sitodo.warm-up.stable-rounds} rounds in a row take as long as the round
+ * before within {@code sitodo.warm-up.tolerance}, or until the round or time limit is reached.
+ * The scratch list is deleted afterwards.
+ *
+ * <p>Spring Boot marks the application as ready to accept traffic ({@code /actuator/health/readiness})
+ * only after all runners have returned.
+ */
+@Component
+@ConditionalOnProperty(name = "sitodo.warm-up.enabled", havingValue = "true")
+@Slf4j
+public class WarmUpRunner implements ApplicationRunner {
+
+    static final String SCRATCH_LIST_TITLE = "Warm-up";
+
+    @Value("${sitodo.warm-up.round-size:20}")
+    private int roundSize;
+
+    @Value("${sitodo.warm-up.max-rounds:50}")
+    private int maxRounds;
+
+    @Value("${sitodo.warm-up.stable-rounds:3}")
+    private int stableRounds;
+
+    @Value("${sitodo.warm-up.tolerance:0.1}")
+    private double tolerance;
+
+    @Value("${sitodo.warm-up.max-duration:PT1M}")
+    private Duration maxDuration;
+
+    private TodoListService todoListService;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private Environment environment;
+
+    private final RestTemplate restTemplate;
+
+    private volatile Result result;
+
+    public WarmUpRunner(RestTemplateBuilder restTemplateBuilder) {
+        this.restTemplate = restTemplateBuilder.build();
+    }
+
+    @Autowired
+    public void setTodoListService(TodoListService todoListService) {
+        this.todoListService = todoListService;
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        try {
+            result = warmUp();
+            log.info("Warm-up {} after {} rounds in {} ms, last round took {} ms",
+                result.settled() ? "settled" : "stopped", result.rounds(), result.total().toMillis(),
+                result.lastRound().toMillis());
+        } catch (RuntimeException exception) {
+            log.warn("Warm-up did not complete", exception);
+        }
+    }
+
+    /**
+     * @return the result of the warm-up, or {@code null} if it has not completed
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    Result warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        Long listId = todoListService.addTodoItem(createTodoItemForm(SCRATCH_LIST_TITLE)).id();
+        String listUrl = listUrl(listId);
+
+        int rounds = 0;
+        int stable = 0;
+        long previous = 0;
+        try {
+            while (rounds < maxRounds && stable < stableRounds && System.nanoTime() < deadline) {
+                long roundStart = System.nanoTime();
+                runRound(listId, listUrl);
+                long duration = System.nanoTime() - roundStart;
+
+                stable = rounds > 0 && Math.abs(duration - previous) <= tolerance * previous ? stable + 1 : 0;
+                previous = duration;
+                rounds++;
+            }
+        } finally {
+            todoListService.deleteTodoList(listId);
+        }
+
+        return new Result(rounds, stable >= stableRounds, Duration.ofNanos(previous),
+            Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void runRound(Long listId, String listUrl) {
+        for (int i = 0; i < roundSize; i++) {
+            TodoListDto todoList = todoListService.addTodoItem(listId, createTodoItemForm(SCRATCH_LIST_TITLE + " " + i));
+            Long itemId = todoList.items().get(todoList.items().size() - 1).id();
+
+            todoListService.setTodoItemFinished(listId, itemId, true);
+            todoListService.setTodoItemFinished(listId, itemId, false);
+            if (listUrl == null) {
+                todoListService.getTodoListById(listId);
+            } else {
+                restTemplate.getForEntity(listUrl, String.class);
+            }
+            todoListService.deleteTodoItem(listId, itemId);
+        }
+    }
+
+    /**
+     * @return the URL of the list page, or {@code null} if the application has no web server
+     */
+    private String listUrl(Long listId) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+
+        return port == null || port <= 0 ? null : "http://localhost:" + port + "/list/" + listId;
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+
+    /**
+     * @param rounds the number of rounds run
+     * @param settled whether the round durations settled before a limit was reached
+     * @param lastRound the duration of the last round
+     * @param total the duration of the whole warm-up, including the clean-up
+     */
+    public record Result(int rounds, boolean settled, Duration lastRound, Duration total) { }
+}
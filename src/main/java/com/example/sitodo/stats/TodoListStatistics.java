@@ -0,0 +1,183 @@
+package com.example.sitodo.stats;
+
+import com.example.sitodo.dto.TodoListStatisticsDto;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts all lists, finished items and unfinished items without querying the database.
+ *
+ * <p>The write paths of {@link com.example.sitodo.service.impl.TodoListServiceImpl} and the
+ * archive job report their changes here. Each count is a {@link LongAdder}, so concurrent writers
+ * update separate cells instead of contending for one value; a change is only applied once its
+ * transaction has committed.
+ *
+ * <p>The counts are loaded from the database at startup and compared with it periodically (with
+ * all shards at once when the lists are sharded). A difference is only corrected when two
+ * consecutive checks find the same difference, because a single check may see a write whose
+ * commit has not been counted yet.
+ */
+@Component
+@Profile("!memory")
+@Slf4j
+public class TodoListStatistics {
+
+    private final LongAdder lists = new LongAdder();
+
+    private final LongAdder finishedItems = new LongAdder();
+
+    private final LongAdder unfinishedItems = new LongAdder();
+
+    private TodoListRepository todoListRepository;
+
+    private ShardRouter shardRouter;
+
+    private Counter corrections;
+
+    private volatile Instant checkedAt;
+
+    private Counts previousDifference;
+
+    @Autowired
+    public void setTodoListRepository(TodoListRepository todoListRepository) {
+        this.todoListRepository = todoListRepository;
+    }
+
+    @Autowired
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("sitodo.lists", lists, LongAdder::sum)
+            .description("Number of lists")
+            .register(meterRegistry);
+        Gauge.builder("sitodo.items", finishedItems, LongAdder::sum)
+            .description("Number of items in lists")
+            .tag("state", "finished")
+            .register(meterRegistry);
+        Gauge.builder("sitodo.items", unfinishedItems, LongAdder::sum)
+            .description("Number of items in lists")
+            .tag("state", "unfinished")
+            .register(meterRegistry);
+        this.corrections = Counter.builder("sitodo.stats.corrections")
+            .description("Checks that found and corrected a difference to the database")
+            .register(meterRegistry);
+    }
+
+    public void recordListsCreated(long count) {
+        add(count, 0, 0);
+    }
+
+    public void recordListDeleted() {
+        add(-1, 0, 0);
+    }
+
+    public void recordItemsAdded(long count) {
+        add(0, 0, count);
+    }
+
+    /**
+     * @param count the number of items marked as finished, negative for items marked as not finished
+     */
+    public void recordItemsFinished(long count) {
+        add(0, count, -count);
+    }
+
+    public void recordItemsRemoved(long finished, long unfinished) {
+        add(0, -finished, -unfinished);
+    }
+
+    public TodoListStatisticsDto getStatistics() {
+        Counts counts = current();
+
+        return new TodoListStatisticsDto(counts.lists(), counts.finishedItems() + counts.unfinishedItems(),
+            counts.finishedItems(), counts.unfinishedItems(), checkedAt);
+    }
+
+    /**
+     * Compares the counts with the database. Runs at startup, which loads the initial counts, and
+     * then every {@code sitodo.stats.check-interval}.
+     */
+    @Scheduled(fixedDelayString = "${sitodo.stats.check-interval:PT5M}")
+    public synchronized void check() {
+        Counts totals = shardRouter.onEachShard(todoListRepository::countTotals).stream()
+            .map(shardTotals -> new Counts(shardTotals.getLists(), shardTotals.getFinishedItems(),
+                shardTotals.getItems() - shardTotals.getFinishedItems()))
+            .reduce(new Counts(0, 0, 0), Counts::plus);
+        Counts counts = current();
+        Counts difference = new Counts(totals.lists() - counts.lists(),
+            totals.finishedItems() - counts.finishedItems(),
+            totals.unfinishedItems() - counts.unfinishedItems());
+
+        if (checkedAt == null) {
+            apply(difference);
+            log.info("Loaded statistics: {} lists, {} items", totals.lists(),
+                totals.finishedItems() + totals.unfinishedItems());
+        } else if (difference.isZero()) {
+            previousDifference = null;
+        } else if (difference.equals(previousDifference)) {
+            apply(difference);
+            corrections.increment();
+            previousDifference = null;
+            log.warn("Corrected statistics by {} lists, {} finished and {} unfinished items",
+                difference.lists(), difference.finishedItems(), difference.unfinishedItems());
+        } else {
+            previousDifference = difference;
+            log.debug("Statistics differ from the database by {}, checking again", difference);
+        }
+
+        checkedAt = Instant.now();
+    }
+
+    private Counts current() {
+        return new Counts(lists.sum(), finishedItems.sum(), unfinishedItems.sum());
+    }
+
+    private void add(long listDelta, long finishedDelta, long unfinishedDelta) {
+        Counts delta = new Counts(listDelta, finishedDelta, unfinishedDelta);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private void apply(Counts delta) {
+        lists.add(delta.lists());
+        finishedItems.add(delta.finishedItems());
+        unfinishedItems.add(delta.unfinishedItems());
+    }
+
+    private record Counts(long lists, long finishedItems, long unfinishedItems) {
+
+        boolean isZero() {
+            return lists == 0 && finishedItems == 0 && unfinishedItems == 0;
+        }
+
+        Counts plus(Counts other) {
+            return new Counts(lists + other.lists, finishedItems + other.finishedItems,
+                unfinishedItems + other.unfinishedItems);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.sitodo.stats;
+
+import com.example.sitodo.dto.TodoListStatisticsDto;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows the number of lists and items at {@code /actuator/stats}, without querying the database.
+ */
+@Component
+@Profile("!memory")
+@Endpoint(id = "stats")
+public class TodoListStatisticsEndpoint {
+
+    private final TodoListStatistics todoListStatistics;
+
+    public TodoListStatisticsEndpoint(TodoListStatistics todoListStatistics) {
+        this.todoListStatistics = todoListStatistics;
+    }
+
+    @ReadOperation
+    public TodoListStatisticsDto statistics() {
+        return todoListStatistics.getStatistics();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.sitodo.benchmark;
+
+import com.example.sitodo.SitodoApplication;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the overview query on the first and on a late page of a million lists with three
+ * items each (H2 in memory). Not part of the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=}, and add
+ * {@code -Dsitodo.benchmark.lists=100000} for a quicker run with fewer lists.
+ */
+@Tag("benchmark")
+class ListOverviewBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListOverviewBenchmarkTest.class);
+
+    private static final long LISTS = Long.getLong("sitodo.benchmark.lists", 1_000_000);
+
+    private static final long FIRST_ID = 10_000_000;
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final int RUNS = 20;
+
+    @Test
+    @DisplayName("Measure the overview query with a million lists")
+    void measureOverview() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SitodoApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--debug=false", "--logging.level.root=WARN", "--spring.datasource.url=jdbc:h2:mem:overview")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            TodoListService todoListService = context.getBean(TodoListService.class);
+
+            jdbcTemplate.update("INSERT INTO todo_list (id, version) SELECT X, 0 FROM SYSTEM_RANGE(?, ?)",
+                FIRST_ID, FIRST_ID + LISTS - 1);
+            jdbcTemplate.update("""
+                INSERT INTO todo_item (id, title, finished, todo_list_id, sort_key)
+                SELECT X, 'Item', MOD(X, 3) = 0, ? + X / 3, MOD(X, 3) * 1024 FROM SYSTEM_RANGE(?, ?)""",
+                FIRST_ID, 0, 3 * LISTS - 1);
+
+            double firstPage = measure(todoListService, 0);
+            double latePage = measure(todoListService, FIRST_ID + LISTS - 1000);
+
+            LOG.info("Overview of {} lists: first page {} ms, late page {} ms", LISTS,
+                String.format("%.2f", firstPage), String.format("%.2f", latePage));
+        }
+    }
+
+    private static double measure(TodoListService todoListService, long afterId) {
+        long elapsed = 0;
+
+        for (int run = 0; run < RUNS + 5; run++) {
+            long start = System.nanoTime();
+            int size = todoListService.getTodoListSummaries(afterId, PAGE_SIZE).size();
+            if (run >= 5) {
+                elapsed += System.nanoTime() - start;
+            }
+            assertEquals(PAGE_SIZE, size);
+        }
+
+        return elapsed / 1e6 / RUNS;
+    }
+}
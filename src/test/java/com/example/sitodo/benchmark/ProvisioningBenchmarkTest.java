@@ -0,0 +1,91 @@
+package com.example.sitodo.benchmark;
+
+import com.example.sitodo.SitodoApplication;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares creating lists of a dozen items with {@link TodoListService#createTodoLists} and with
+ * one {@code addTodoItem} call per item (H2 in memory). Not part of the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=}.
+ */
+@Tag("benchmark")
+class ProvisioningBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProvisioningBenchmarkTest.class);
+
+    private static final int LISTS = 10_000;
+
+    private static final int ITEMS_PER_LIST = 12;
+
+    @Test
+    @DisplayName("Compare batch provisioning with adding items one by one")
+    void compareProvisioning() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SitodoApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--debug=false", "--logging.level.root=WARN")) {
+            TodoListService todoListService = context.getBean(TodoListService.class);
+            List<TodoListForm> todoLists = Collections.nCopies(LISTS, createTodoListForm());
+
+            createOneByOne(todoListService, LISTS / 10);
+            long start = System.nanoTime();
+            createOneByOne(todoListService, LISTS / 10);
+            double oneByOne = rowsPerSecond(LISTS / 10, System.nanoTime() - start);
+
+            todoListService.createTodoLists(todoLists, listIds -> { });
+            AtomicInteger created = new AtomicInteger();
+            start = System.nanoTime();
+            todoListService.createTodoLists(todoLists, listIds -> created.addAndGet(listIds.size()));
+            double batch = rowsPerSecond(LISTS, System.nanoTime() - start);
+
+            assertEquals(LISTS, created.get());
+            LOG.info("Rows per second, one by one: {}, batch: {} ({}x)", Math.round(oneByOne), Math.round(batch),
+                String.format("%.1f", batch / oneByOne));
+        }
+    }
+
+    private static void createOneByOne(TodoListService todoListService, int lists) {
+        for (int list = 0; list < lists; list++) {
+            TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Item 0"));
+
+            for (int item = 1; item < ITEMS_PER_LIST; item++) {
+                todoListService.addTodoItem(todoList.id(), createTodoItemForm("Item " + item));
+            }
+        }
+    }
+
+    private static double rowsPerSecond(int lists, long elapsedNanos) {
+        return lists * (1 + ITEMS_PER_LIST) * 1e9 / elapsedNanos;
+    }
+
+    private static TodoListForm createTodoListForm() {
+        TodoListForm todoListForm = new TodoListForm();
+        todoListForm.setItems(IntStream.range(0, ITEMS_PER_LIST).mapToObj(item -> "Item " + item).toList());
+
+        return todoListForm;
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
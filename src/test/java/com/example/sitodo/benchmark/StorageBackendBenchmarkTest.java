@@ -0,0 +1,160 @@
+package com.example.sitodo.benchmark;
+
+import com.example.sitodo.SitodoApplication;
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the throughput of the JPA and the in-memory {@link TodoListService} for a typical mix
+ * of requests, and the write latency of the durable backends (H2 in file mode and the journal).
+ * Not part of the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=}.
+ */
+@Tag("benchmark")
+class StorageBackendBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StorageBackendBenchmarkTest.class);
+
+    private static final int LISTS = 200;
+
+    private static final int ITEMS_PER_LIST = 20;
+
+    private static final int READS_PER_LIST = 50;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Compare the JPA and the in-memory storage backends")
+    void compareStorageBackends() {
+        double jpa = measure("default");
+        double memory = measure("memory");
+
+        LOG.info("JPA: {} operations/s, in-memory: {} operations/s ({}x)",
+            Math.round(jpa), Math.round(memory), String.format("%.1f", memory / jpa));
+        assertTrue(memory > 0 && jpa > 0);
+    }
+
+    @Test
+    @DisplayName("Compare the write latency of H2 in file mode and the journal")
+    void compareDurableBackends() {
+        double h2File = measureWriteLatency("default",
+            "spring.datasource.url=jdbc:h2:file:" + directory.resolve("h2/sitodo").toAbsolutePath());
+        double journal = measureWriteLatency("journal",
+            "sitodo.journal.directory=" + directory.resolve("journal").toAbsolutePath());
+
+        LOG.info("Mean write latency of H2 (file): {} us, journal: {} us",
+            String.format("%.1f", h2File), String.format("%.1f", journal));
+        assertTrue(h2File > 0 && journal > 0);
+    }
+
+    /**
+     * @return the number of service calls per second, after a warm-up run
+     */
+    private static double measure(String profile) {
+        try (ConfigurableApplicationContext context = start(profile)) {
+            TodoListService todoListService = context.getBean(TodoListService.class);
+
+            runWorkload(todoListService);
+            long start = System.nanoTime();
+            long operations = runWorkload(todoListService);
+            long elapsed = System.nanoTime() - start;
+
+            return operations * 1e9 / elapsed;
+        }
+    }
+
+    /**
+     * @return the mean duration of a write in microseconds, after a warm-up run
+     */
+    private static double measureWriteLatency(String profile, String... properties) {
+        try (ConfigurableApplicationContext context = start(profile, properties)) {
+            TodoListService todoListService = context.getBean(TodoListService.class);
+
+            runWrites(todoListService);
+            long start = System.nanoTime();
+            long operations = runWrites(todoListService);
+            long elapsed = System.nanoTime() - start;
+
+            return elapsed / 1e3 / operations;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String profile, String... properties) {
+        return new SpringApplicationBuilder(SitodoApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles(profile)
+            .properties("debug=false", "logging.level.root=WARN", "logging.level.com.example.sitodo.benchmark=INFO",
+                "sitodo.hot-lists.decay-interval=PT1H")
+            // Passed as arguments, because default properties would not override application.properties
+            .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static long runWrites(TodoListService todoListService) {
+        long operations = 0;
+
+        for (int list = 0; list < LISTS / 4; list++) {
+            TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Item 0"));
+            operations++;
+
+            for (int item = 1; item < ITEMS_PER_LIST; item++) {
+                todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Item " + item));
+                operations++;
+            }
+
+            for (TodoItemDto todoItem : todoList.items()) {
+                todoListService.setTodoItemFinished(todoList.id(), todoItem.id(), true);
+                operations++;
+            }
+        }
+
+        return operations;
+    }
+
+    private static long runWorkload(TodoListService todoListService) {
+        long operations = 0;
+
+        for (int list = 0; list < LISTS; list++) {
+            TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Item 0"));
+            operations++;
+
+            for (int item = 1; item < ITEMS_PER_LIST; item++) {
+                todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Item " + item));
+                operations++;
+            }
+
+            todoListService.setTodoItemFinished(todoList.id(), todoList.items().get(0).id(), true);
+            operations++;
+
+            for (int read = 0; read < READS_PER_LIST; read++) {
+                todoListService.getTodoListById(todoList.id());
+                operations++;
+            }
+        }
+
+        return operations;
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sitodo.benchmark;
+
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoItemList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the heap used per item by a list of {@link TodoItemDto} records and by a
+ * {@link TodoItemList}. The titles are shared by both, so only the per-item overhead is measured.
+ * Not part of the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=}.
+ */
+@Tag("benchmark")
+class TodoListDtoFootprintBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TodoListDtoFootprintBenchmarkTest.class);
+
+    private static final int ITEMS = 1_000_000;
+
+    private static final String[] TITLES = {"Buy milk", "Cut grass", "Wash car", "Cook rice"};
+
+    @Test
+    @DisplayName("Compare the bytes per item of the boxed and the compact item lists")
+    void compareFootprint() {
+        double boxed = measureBytesPerItem(size -> {
+            List<TodoItemDto> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(new TodoItemDto((long) i + 1_000, TITLES[i % TITLES.length], i % 2 == 0));
+            }
+            return items;
+        });
+        double compact = measureBytesPerItem(size -> {
+            TodoItemList.Builder items = TodoItemList.builder(size);
+            for (int i = 0; i < size; i++) {
+                items.add(i + 1_000, TITLES[i % TITLES.length], i % 2 == 0);
+            }
+            return items.build();
+        });
+
+        LOG.info("List<TodoItemDto>: {} bytes/item, TodoItemList: {} bytes/item",
+            String.format("%.1f", boxed), String.format("%.1f", compact));
+        assertTrue(compact < boxed);
+    }
+
+    private static double measureBytesPerItem(IntFunction<List<TodoItemDto>> factory) {
+        long before = usedHeap();
+        List<TodoItemDto> items = factory.apply(ITEMS);
+        long after = usedHeap();
+
+        assertTrue(items.size() == ITEMS);
+        return (double) (after - before) / ITEMS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.sitodo.cache;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Tag("unit")
+@SpringBootTest
+@AutoConfigureMockMvc
+class RenderedPageCacheFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private RenderedPageCache renderedPageCache;
+
+    @Test
+    @DisplayName("Given an unchanged list, HTTP GET '/list/{id}' is served from the page cache")
+    void showList_unchanged_servedFromCache() throws Exception {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+
+        String rendered = mockMvc.perform(get("/list/" + todoList.id()))
+            .andReturn().getResponse().getContentAsString();
+        String cached = mockMvc.perform(get("/list/" + todoList.id()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(rendered, cached);
+        assertNotNull(renderedPageCache.get(todoList.id(), todoListService.getTodoListVersion(todoList.id())));
+    }
+
+    @Test
+    @DisplayName("Given a client accepting gzip, a cached page is sent compressed")
+    void showList_cached_gzip() throws Exception {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        mockMvc.perform(get("/list/" + todoList.id()));
+
+        mockMvc.perform(get("/list/" + todoList.id()).header("Accept-Encoding", "gzip, deflate")).andExpectAll(
+            status().isOk(),
+            header().string("Content-Encoding", "gzip")
+        );
+    }
+
+    @Test
+    @DisplayName("Given a list changed after it was cached, HTTP GET '/list/{id}' renders the list again")
+    void showList_changed_rendersAgain() throws Exception {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        mockMvc.perform(get("/list/" + todoList.id()));
+
+        todoListService.addTodoItem(todoList.id(), createTodoItemForm("Touch grass"));
+
+        mockMvc.perform(get("/list/" + todoList.id())).andExpectAll(
+            status().isOk(),
+            content().string(containsString("Buy milk")),
+            content().string(containsString("Touch grass"))
+        );
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
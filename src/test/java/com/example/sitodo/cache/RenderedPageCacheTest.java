@@ -0,0 +1,67 @@
+package com.example.sitodo.cache;
+
+import com.example.sitodo.event.TodoListChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class RenderedPageCacheTest {
+
+    @Test
+    @DisplayName("Given a cached page, get should only return it for the version it was rendered from")
+    void get_matchesVersion() {
+        RenderedPageCache cache = new RenderedPageCache(1024);
+        cache.put(1L, createPage(3L, 10));
+
+        assertNotNull(cache.get(1L, 3L));
+        assertNull(cache.get(1L, 4L));
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Given a full cache, put should evict the least recently used pages")
+    void put_evictsLeastRecentlyUsed() {
+        RenderedPageCache cache = new RenderedPageCache(100);
+        cache.put(1L, createPage(0L, 40));
+        cache.put(2L, createPage(0L, 40));
+        cache.get(1L, 0L);
+
+        cache.put(3L, createPage(0L, 40));
+
+        assertNotNull(cache.get(1L, 0L));
+        assertNull(cache.get(2L, 0L));
+        assertNotNull(cache.get(3L, 0L));
+        assertEquals(80, cache.getTotalBytes());
+    }
+
+    @Test
+    @DisplayName("Given a page rendered from an older version, put should keep the newer page")
+    void put_keepsNewerVersion() {
+        RenderedPageCache cache = new RenderedPageCache(1024);
+        cache.put(1L, createPage(5L, 10));
+
+        cache.put(1L, createPage(4L, 10));
+
+        assertNotNull(cache.get(1L, 5L));
+        assertEquals(10, cache.getTotalBytes());
+    }
+
+    @Test
+    @DisplayName("Given a change to a list, its cached page should be invalidated")
+    void onTodoListChanged_invalidates() {
+        RenderedPageCache cache = new RenderedPageCache(1024);
+        cache.put(1L, createPage(0L, 10));
+
+        cache.onTodoListChanged(new TodoListChangedEvent(1L));
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    private static RenderedPage createPage(long version, int size) {
+        return new RenderedPage(version, "text/html;charset=UTF-8", new byte[size], null);
+    }
+}
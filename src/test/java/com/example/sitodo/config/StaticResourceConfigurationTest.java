@@ -0,0 +1,68 @@
+package com.example.sitodo.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Tag("unit")
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticResourceConfigurationTest {
+
+    private static final Pattern VERSIONED_CSS = Pattern.compile("/vendor/bootstrap/dist/css/bootstrap-[0-9a-f]{32}\\.css");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Links to static assets in the templates are rewritten to content-hash versioned URLs")
+    void templateLinks_areVersioned() throws Exception {
+        String page = mockMvc.perform(get("/list")).andReturn().getResponse().getContentAsString();
+
+        assertTrue(VERSIONED_CSS.matcher(page).find(), "Stylesheet link is not versioned");
+    }
+
+    @Test
+    @DisplayName("Versioned assets are served precompressed with an immutable Cache-Control header")
+    void versionedAsset_precompressedAndImmutable() throws Exception {
+        String page = mockMvc.perform(get("/list")).andReturn().getResponse().getContentAsString();
+        Matcher matcher = VERSIONED_CSS.matcher(page);
+        assertTrue(matcher.find());
+
+        mockMvc.perform(get(matcher.group()).header("Accept-Encoding", "gzip")).andExpectAll(
+            status().isOk(),
+            header().string("Content-Encoding", "gzip"),
+            header().string("Vary", containsString("Accept-Encoding")),
+            header().string("Cache-Control", containsString("immutable"))
+        );
+    }
+
+    @Test
+    @DisplayName("Assets requested with a wrong content hash are not found")
+    void wrongVersion_notFound() throws Exception {
+        mockMvc.perform(get("/vendor/bootstrap/dist/css/bootstrap-00000000000000000000000000000000.css"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Unversioned assets are cached briefly and revalidated instead of being immutable")
+    void unversionedAsset_revalidated() throws Exception {
+        mockMvc.perform(get("/images/logo_placeholder.png")).andExpectAll(
+            status().isOk(),
+            header().string("Cache-Control", "max-age=300, must-revalidate, public"),
+            header().exists("Last-Modified")
+        );
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.sitodo.connection;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.containsString;
+
+@Tag("unit")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConnectionFreeRenderingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("Given a list page, no database connection is held or taken while its view renders")
+    void showList_rendersWithoutConnection() throws Exception {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        todoListService.addTodoItem(todoList.id(), createTodoItemForm("Buy bread"));
+        RenderingProbe.reset();
+
+        mockMvc.perform(get("/list/" + todoList.id())).andExpectAll(
+            status().isOk(),
+            content().string(containsString("Buy bread"))
+        );
+
+        assertEquals(0, RenderingProbe.openBeforeRendering);
+        assertEquals(0, RenderingProbe.takenWhileRendering);
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+
+    /**
+     * Counts the connections of the request thread: how many are open when the handler returns,
+     * and how many are taken between then and the end of the request, when the view renders.
+     */
+    static class RenderingProbe implements HandlerInterceptor {
+
+        private static final ThreadLocal<int[]> CONNECTIONS = ThreadLocal.withInitial(() -> new int[2]);
+
+        private static volatile int openBeforeRendering = -1;
+
+        private static volatile int takenWhileRendering = -1;
+
+        private static volatile int takenBeforeRendering;
+
+        static void reset() {
+            openBeforeRendering = -1;
+            takenWhileRendering = -1;
+        }
+
+        static void opened() {
+            CONNECTIONS.get()[0]++;
+            CONNECTIONS.get()[1]++;
+        }
+
+        static void closed() {
+            CONNECTIONS.get()[0]--;
+        }
+
+        @Override
+        public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                               ModelAndView modelAndView) {
+            openBeforeRendering = CONNECTIONS.get()[0];
+            takenBeforeRendering = CONNECTIONS.get()[1];
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception exception) {
+            takenWhileRendering = CONNECTIONS.get()[1] - takenBeforeRendering;
+        }
+    }
+
+    @TestConfiguration
+    static class RenderingProbeConfiguration implements WebMvcConfigurer {
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new RenderingProbe());
+        }
+
+        @Bean
+        static BeanPostProcessor renderingProbeDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counted(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counted(super.getConnection(username, password));
+        }
+
+        private static Connection counted(Connection connection) {
+            RenderingProbe.opened();
+            boolean[] closed = new boolean[1];
+
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && !closed[0]) {
+                        closed[0] = true;
+                        RenderingProbe.closed();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getTargetException();
+                    }
+                });
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.sitodo.connection;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ConnectionHoldTimeDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConnectionHoldTimeDataSource dataSource = new ConnectionHoldTimeDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:hold_time", "sitodo", ""), () -> meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Given a connection taken outside of a request, its hold time should be recorded once when it is closed")
+    void close_outsideRequest() throws Exception {
+        Connection connection = dataSource.getConnection();
+        Thread.sleep(5);
+
+        connection.close();
+        connection.close();
+
+        var timer = meterRegistry.get(ConnectionHoldTimeDataSource.METRIC).tag("endpoint", "none").timer();
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 5);
+    }
+
+    @Test
+    @DisplayName("Given a connection taken by a request, its hold time should be tagged with the endpoint")
+    void close_duringRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/list/1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        dataSource.getConnection().close();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/list/{id}");
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+
+        assertEquals(1, meterRegistry.get(ConnectionHoldTimeDataSource.METRIC).tag("endpoint", "unmapped").timer().count());
+        assertEquals(1, meterRegistry.get(ConnectionHoldTimeDataSource.METRIC).tag("endpoint", "GET /list/{id}").timer().count());
+    }
+
+    @Test
+    @DisplayName("Given a wrapped connection, it should be compared by identity and unwrap to the target connection")
+    void wrap_connectionProxy() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Connection other = dataSource.getConnection()) {
+            assertEquals(connection, connection);
+            assertNotEquals(connection, other);
+            assertEquals(System.identityHashCode(connection), connection.hashCode());
+            assertInstanceOf(ConnectionProxy.class, connection);
+            assertFalse(DataSourceUtils.getTargetConnection(connection) instanceof ConnectionProxy);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.sitodo.controller;
+
+import com.example.sitodo.dto.SearchResultDto;
+import com.example.sitodo.service.SearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.TEXT_HTML;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+@Tag("unit")
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchService searchService;
+
+    @Test
+    @DisplayName("HTTP GET '/search' without a query shows the search form only")
+    void search_noQuery() throws Exception {
+        mockMvc.perform(get("/search")).andExpectAll(
+            status().isOk(),
+            content().contentTypeCompatibleWith(TEXT_HTML),
+            view().name("search"),
+            content().string(containsString("search_form"))
+        );
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    @DisplayName("HTTP GET '/search?q=' returns an HTML page with the matching items")
+    void search_withQuery() throws Exception {
+        when(searchService.search(eq("milk"), isNull(), anyInt()))
+            .thenReturn(List.of(new SearchResultDto(1L, 2L, "Buy milk", 1.0)));
+
+        mockMvc.perform(get("/search").param("q", "milk")).andExpectAll(
+            status().isOk(),
+            content().string(containsString("Buy milk")),
+            content().string(containsString("/list/1"))
+        );
+    }
+
+    @Test
+    @DisplayName("HTTP GET '/search?q=&list=' searches within a single list")
+    void search_withListFilter() throws Exception {
+        when(searchService.search(eq("milk"), eq(1L), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/search").param("q", "milk").param("list", "1")).andExpectAll(
+            status().isOk(),
+            content().string(containsString("No items match your search."))
+        );
+    }
+}
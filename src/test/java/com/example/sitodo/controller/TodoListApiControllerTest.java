@@ -0,0 +1,146 @@
+package com.example.sitodo.controller;
+
+import com.example.sitodo.dto.TodoItemChangeDto;
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListChangesDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListsDto;
+import com.example.sitodo.form.TodoListBatchForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TodoListApiController.class)
+@Tag("unit")
+class TodoListApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("HTTP POST '/api/lists' streams the IDs of the new lists, one per line")
+    void createLists_ok() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<Long>> createdListIds = invocation.getArgument(1);
+            createdListIds.accept(List.of(1L, 2L));
+            createdListIds.accept(List.of(3L));
+            return null;
+        }).when(todoListService).createTodoLists(anyList(), any());
+
+        MvcResult result = mockMvc.perform(post("/api/lists")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"lists": [{"items": ["Read the handbook", "Meet the team"]}, {"items": []}, {"items": ["Set up laptop"]}]}"""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpectAll(
+            status().isOk(),
+            content().contentType(TodoListApiController.APPLICATION_NDJSON),
+            content().string("1\n2\n3\n")
+        );
+    }
+
+    @Test
+    @DisplayName("Given a blank item title, HTTP POST '/api/lists' is rejected without creating any list")
+    void createLists_blankTitle() throws Exception {
+        mockMvc.perform(post("/api/lists")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"lists": [{"items": ["Read the handbook", " "]}]}"""))
+            .andExpect(status().isBadRequest());
+
+        verify(todoListService, never()).createTodoLists(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Given more lists than allowed, HTTP POST '/api/lists' is rejected without creating any list")
+    void createLists_tooMany() throws Exception {
+        String lists = String.join(",", Collections.nCopies(TodoListBatchForm.MAX_LISTS + 1, "{\"items\": []}"));
+
+        mockMvc.perform(post("/api/lists")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lists\": [" + lists + "]}"))
+            .andExpect(status().isBadRequest());
+
+        verify(todoListService, never()).createTodoLists(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("HTTP GET '/api/lists' returns the requested lists and the IDs that were not found")
+    void getLists_ok() throws Exception {
+        when(todoListService.getTodoListsByIds(List.of(1L, 2L, 3L))).thenReturn(new TodoListsDto(
+            List.of(new TodoListDto(1L, List.of(new TodoItemDto(4L, "Read the handbook", true))), new TodoListDto(3L, List.of())),
+            List.of(2L)));
+
+        mockMvc.perform(get("/api/lists").param("ids", "1,2,3")).andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$.lists[0].id").value(1),
+            jsonPath("$.lists[0].items[0].title").value("Read the handbook"),
+            jsonPath("$.lists[1].id").value(3),
+            jsonPath("$.missingIds[0]").value(2)
+        );
+    }
+
+    @Test
+    @DisplayName("Given more IDs than allowed, HTTP GET '/api/lists' is rejected without reading any list")
+    void getLists_tooManyIds() throws Exception {
+        String ids = String.join(",", Collections.nCopies(501, "1"));
+
+        mockMvc.perform(get("/api/lists").param("ids", ids)).andExpect(status().isBadRequest());
+
+        verify(todoListService, never()).getTodoListsByIds(any());
+    }
+
+    @Test
+    @DisplayName("HTTP GET '/api/list/{id}/changes' returns the changes since the given version")
+    void getChanges_ok() throws Exception {
+        when(todoListService.getTodoListChanges(1L, 3L)).thenReturn(new TodoListChangesDto(1L, 5L, false,
+            List.of(new TodoItemChangeDto(2L, "Read the handbook", true, null, 1024L)), List.of(4L)));
+
+        mockMvc.perform(get("/api/list/1/changes").param("since", "3")).andExpectAll(
+            status().isOk(),
+            content().contentType(MediaType.APPLICATION_JSON),
+            jsonPath("$.version").value(5),
+            jsonPath("$.full").value(false),
+            jsonPath("$.items[0].id").value(2),
+            jsonPath("$.items[0].finished").value(true),
+            jsonPath("$.removedItemIds[0]").value(4)
+        );
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, HTTP GET '/api/list/{id}/changes' returns 404")
+    void getChanges_notFound() throws Exception {
+        when(todoListService.getTodoListChanges(1L, null)).thenThrow(new NoSuchElementException());
+
+        mockMvc.perform(get("/api/list/1/changes")).andExpect(status().isNotFound());
+    }
+}
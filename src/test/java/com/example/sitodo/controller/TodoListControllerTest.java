@@ -2,6 +2,7 @@ package com.example.sitodo.controller;
 
 import com.example.sitodo.dto.TodoItemDto;
 import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
 import com.example.sitodo.model.TodoItem;
 import com.example.sitodo.model.TodoList;
 import com.example.sitodo.service.MotivationMessageService;
@@ -18,12 +19,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.TEXT_HTML;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -171,6 +174,91 @@ class TodoListControllerTest {
         ).andExpectAll(status().isOk());
     }
 
+    @Test
+    @DisplayName("HTTP POST '/list/{id}/move/{item_id}' moves an item and redirects to the list")
+    void moveItem_ok() throws Exception {
+        mockMvc.perform(post("/list/1/move/2").param("before", "1")).andExpectAll(
+            status().is3xxRedirection(),
+            redirectedUrl("/list/1")
+        );
+
+        verify(todoListService).moveTodoItem(1L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("HTTP POST '/list/{id}/delete/{item_id}' deletes an item and redirects to the list")
+    void deleteItem_ok() throws Exception {
+        mockMvc.perform(post("/list/1/delete/2")).andExpectAll(
+            status().is3xxRedirection(),
+            redirectedUrl("/list/1")
+        );
+
+        verify(todoListService).deleteTodoItem(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("HTTP POST '/list/{id}/clear-finished' deletes the finished items and redirects to the list")
+    void clearFinishedItems_ok() throws Exception {
+        mockMvc.perform(post("/list/1/clear-finished")).andExpectAll(
+            status().is3xxRedirection(),
+            redirectedUrl("/list/1")
+        );
+
+        verify(todoListService).clearFinishedItems(1L);
+    }
+
+    @Test
+    @DisplayName("HTTP POST '/list/{id}/delete' deletes the list and redirects to a new list")
+    void deleteList_ok() throws Exception {
+        mockMvc.perform(post("/list/1/delete")).andExpectAll(
+            status().is3xxRedirection(),
+            redirectedUrl("/list")
+        );
+
+        verify(todoListService).deleteTodoList(1L);
+    }
+
+    @Test
+    @DisplayName("HTTP GET '/list/{id}/archived' shows the archived items of a list")
+    void showArchivedItems_ok() throws Exception {
+        when(todoListService.getArchivedTodoItems(1L)).thenReturn(List.of(new TodoItemDto(3L, "Buy milk", true)));
+
+        mockMvc.perform(get("/list/1/archived")).andExpectAll(
+            status().isOk(),
+            view().name("archived"),
+            content().string(containsString("Buy milk"))
+        );
+    }
+
+    @Test
+    @DisplayName("HTTP GET '/lists' shows the item counts of the lists after the given ID")
+    void showLists_ok() throws Exception {
+        when(todoListService.getTodoListSummaries(5L, 51)).thenReturn(List.of(new TodoListSummaryDto(6L, 3, 1)));
+        when(motivationMessageService.computeMotivationMessage(3, 1)).thenReturn("Keep going!");
+
+        mockMvc.perform(get("/lists").param("after", "5")).andExpectAll(
+            status().isOk(),
+            view().name("lists"),
+            content().string(containsString("Keep going!")),
+            content().string(containsString("/list/6"))
+        );
+    }
+
+    @Test
+    @DisplayName("Given more lists than fit on a page, HTTP GET '/lists' links to the next page")
+    void showLists_nextPage() throws Exception {
+        List<TodoListSummaryDto> summaries = LongStream.rangeClosed(1, 51)
+            .mapToObj(id -> new TodoListSummaryDto(id, 0, 0))
+            .toList();
+        when(todoListService.getTodoListSummaries(0L, 51)).thenReturn(summaries);
+
+        mockMvc.perform(get("/lists")).andExpectAll(
+            status().isOk(),
+            model().attribute("nextAfterId", 50L),
+            content().string(containsString("/lists?after=50"))
+        );
+    }
+
     private TodoList createMockTodoList(Long id, TodoItem... items) {
         TodoList mockTodoList = mock(TodoList.class);
 
@@ -0,0 +1,60 @@
+package com.example.sitodo.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class TodoItemListTest {
+
+    @Test
+    @DisplayName("Given items added beyond the expected size, the list keeps all of them in order")
+    void build_grows() {
+        TodoItemList.Builder builder = TodoItemList.builder(1);
+        for (int i = 0; i < 20; i++) {
+            builder.add(i + 1, "Item " + i, i % 3 == 0);
+        }
+
+        TodoItemList items = builder.build();
+
+        assertEquals(20, items.size());
+        assertEquals(new TodoItemDto(20L, "Item 19", false), items.get(19));
+        assertEquals(7, items.countFinished());
+        assertThrows(IndexOutOfBoundsException.class, () -> items.get(20));
+    }
+
+    @Test
+    @DisplayName("A compact list equals the list of the same items and counts them the same way")
+    void equalsBoxedList() {
+        TodoItemList items = TodoItemList.builder(2)
+            .add(1L, "Buy milk", true)
+            .add(2L, "Cut grass", false)
+            .build();
+        List<TodoItemDto> boxed = List.of(new TodoItemDto(1L, "Buy milk", true), new TodoItemDto(2L, "Cut grass", false));
+
+        assertEquals(boxed, items);
+        assertEquals(boxed.hashCode(), items.hashCode());
+        assertEquals(new TodoListDto(1L, boxed).countFinishedItems(), new TodoListDto(1L, items).countFinishedItems());
+    }
+
+    @Test
+    @DisplayName("Given an item with a due time among items without, only that item has a due time")
+    void build_dueTimes() {
+        Instant dueAt = Instant.parse("2024-01-31T17:00:00Z");
+        TodoItemList.Builder builder = TodoItemList.builder(1);
+        for (int i = 0; i < 10; i++) {
+            builder.add(i + 1, "Item " + i, false, i == 5 ? dueAt : null);
+        }
+
+        TodoItemList items = builder.build();
+
+        assertEquals(new TodoItemDto(6L, "Item 5", false, dueAt), items.get(5));
+        assertNull(items.dueAt(4));
+        assertNull(TodoItemList.builder(1).add(1L, "Buy milk", false).build().dueAt(0));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.sitodo.due;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.event.TodoItemDueEvent;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.repository.TodoItemRepository;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.service.TodoListService;
+import com.example.sitodo.shard.SingleShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@SpringBootTest
+class DueDateSchedulerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private DueDateScheduler dueDateScheduler;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DueEvents dueEvents;
+
+    @Test
+    @DisplayName("Given an unfinished item whose due time passes, an event is published and the list version changes")
+    void tick_unfinishedItemDue() throws InterruptedException {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk", LocalDateTime.now().plusSeconds(1)));
+        Long itemId = todoList.items().get(0).id();
+        long version = todoListRepository.findVersionById(todoList.id()).orElseThrow();
+
+        awaitDue(itemId);
+
+        assertTrue(todoListRepository.findVersionById(todoList.id()).orElseThrow() > version);
+        assertTrue(todoListService.getTodoListById(todoList.id()).items().get(0).isOverdue());
+    }
+
+    @Test
+    @DisplayName("Given a finished item whose due time passes, no event is published")
+    void tick_finishedItemDue() throws InterruptedException {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Cut grass", LocalDateTime.now().plusSeconds(2)));
+        Long itemId = todoList.items().get(0).id();
+        todoListService.setTodoItemFinished(todoList.id(), itemId, true);
+        TodoListDto dueTrigger = todoListService.addTodoItem(createTodoItemForm("Wash car", LocalDateTime.now().plusSeconds(4)));
+
+        // Due two seconds earlier, so it has been handled by the time the later one is
+        awaitDue(dueTrigger.items().get(0).id());
+
+        assertFalse(dueEvents.itemIds().contains(itemId));
+    }
+
+    @Test
+    @DisplayName("Given a restarted scheduler, passed due times that were not handled yet are handled once")
+    void tick_afterRestart() throws InterruptedException {
+        TodoListDto handled = todoListService.addTodoItem(createTodoItemForm("Feed cat", LocalDateTime.now().minusMinutes(1)));
+        Long handledItemId = handled.items().get(0).id();
+        awaitDue(handledItemId);
+        // Passed while the scheduler was not running: set without going through the service
+        TodoListDto missed = todoListService.addTodoItem(createTodoItemForm("Water plants", null));
+        Long missedItemId = missed.items().get(0).id();
+        jdbcTemplate.update("UPDATE todo_item SET due_at = ? WHERE id = ?",
+            Timestamp.from(Instant.now().minusSeconds(60)), missedItemId);
+
+        List<Long> events = new CopyOnWriteArrayList<>();
+        tickTwice(startScheduler(events));
+
+        assertTrue(events.contains(missedItemId));
+        assertFalse(events.contains(handledItemId));
+
+        events.clear();
+        tickTwice(startScheduler(events));
+
+        assertFalse(events.contains(missedItemId));
+    }
+
+    private DueDateScheduler startScheduler(List<Long> dueItemIds) {
+        DueDateScheduler scheduler = new DueDateScheduler(Duration.ofSeconds(1), Duration.ofHours(1));
+        scheduler.setTodoItemRepository(todoItemRepository);
+        scheduler.setTodoListRepository(todoListRepository);
+        scheduler.setTransactionManager(transactionManager);
+        scheduler.setShardRouter(new SingleShardRouter());
+        scheduler.setEventPublisher(event -> {
+            if (event instanceof TodoItemDueEvent dueEvent) {
+                dueItemIds.add(dueEvent.itemId());
+            }
+        });
+        scheduler.setMeterRegistry(new SimpleMeterRegistry());
+
+        return scheduler;
+    }
+
+    /**
+     * Passed due times are scheduled at the next tick of the wheel, so the second tick handles them.
+     */
+    private static void tickTwice(DueDateScheduler scheduler) throws InterruptedException {
+        scheduler.tick();
+        Thread.sleep(1100);
+        scheduler.tick();
+    }
+
+    private void awaitDue(Long itemId) throws InterruptedException {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+
+        while (!dueEvents.itemIds().contains(itemId)) {
+            assertTrue(Instant.now().isBefore(deadline), "No due event for item " + itemId);
+            dueDateScheduler.tick();
+            Thread.sleep(100);
+        }
+    }
+
+    private static TodoItemForm createTodoItemForm(String title, LocalDateTime dueAt) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+        todoItemForm.setDueAt(dueAt);
+
+        return todoItemForm;
+    }
+
+    @TestConfiguration
+    static class DueEventsConfiguration {
+
+        @Bean
+        DueEvents dueEvents() {
+            return new DueEvents();
+        }
+    }
+
+    static class DueEvents {
+
+        private final List<Long> itemIds = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onTodoItemDue(TodoItemDueEvent event) {
+            itemIds.add(event.itemId());
+        }
+
+        List<Long> itemIds() {
+            return itemIds;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.sitodo.due;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class TimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    @DisplayName("Given timers on several levels, each expires at its deadline and not before")
+    void advance_expiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 3, START);
+        wheel.schedule(START + 30, "level 0");
+        wheel.schedule(START + 70, "level 1");
+        wheel.schedule(START + 500, "level 2");
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START + 29, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(START + 30, expired::add);
+        assertEquals(List.of("level 0"), expired);
+        wheel.advance(START + 69, expired::add);
+        assertEquals(List.of("level 0"), expired);
+        wheel.advance(START + 70, expired::add);
+        assertEquals(List.of("level 0", "level 1"), expired);
+        wheel.advance(START + 499, expired::add);
+        assertEquals(2, expired.size());
+        wheel.advance(START + 500, expired::add);
+        assertEquals(List.of("level 0", "level 1", "level 2"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Given a cancelled timer, it never expires")
+    void cancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 3, START);
+        TimingWheel.Timer<String> cancelled = wheel.schedule(START + 100, "cancelled");
+        wheel.schedule(START + 100, "kept");
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(1, wheel.size());
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 1000, expired::add);
+        assertEquals(List.of("kept"), expired);
+    }
+
+    @Test
+    @DisplayName("Given a deadline that has passed, the timer expires at the next advance")
+    void schedule_pastDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 3, START);
+        wheel.advance(START + 100, value -> { });
+        wheel.schedule(START, "late");
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START + 110, expired::add);
+
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    @DisplayName("Given a deadline beyond the highest level, the timer still expires at its deadline")
+    void schedule_beyondRange() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 4, 2, 0);
+        wheel.schedule(100, "far");
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(99, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(100, expired::add);
+        assertEquals(List.of("far"), expired);
+    }
+
+    @Test
+    @DisplayName("Given random timers, cancellations and steps, every timer expires at the first step that reaches its deadline")
+    void advance_random() {
+        Random random = new Random(42);
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 8, 3, 0);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        Map<Integer, TimingWheel.Timer<Integer>> timers = new HashMap<>();
+        long now = 0;
+
+        for (int step = 0; step < 2000; step++) {
+            for (int i = 0; i < 5; i++) {
+                int id = step * 5 + i;
+                long deadline = now + random.nextInt(2000) - 10;
+                deadlines.put(id, deadline);
+                timers.put(id, wheel.schedule(deadline, id));
+            }
+            if (!timers.isEmpty() && random.nextInt(4) == 0) {
+                Integer id = timers.keySet().iterator().next();
+                assertTrue(timers.remove(id).cancel());
+                deadlines.remove(id);
+            }
+
+            now += 1 + random.nextInt(3);
+            long advancedTo = now;
+            wheel.advance(now, id -> {
+                assertTrue(deadlines.get(id) <= advancedTo, "Expired before its deadline: " + id);
+                timers.remove(id);
+                deadlines.remove(id);
+            });
+
+            assertTrue(deadlines.values().stream().allMatch(deadline -> deadline > advancedTo),
+                "Timers not expired at step " + step);
+        }
+
+        assertEquals(timers.size(), wheel.size());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sitodo.hotlist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Given many keys, the estimates should never be lower than the true counts")
+    void estimate_neverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(256);
+        for (long key = 1; key <= 1000; key++) {
+            for (int i = 0; i < key % 7; i++) {
+                sketch.increment(key);
+            }
+        }
+
+        for (long key = 1; key <= 1000; key++) {
+            assertTrue(sketch.estimate(key) >= key % 7);
+        }
+    }
+
+    @Test
+    @DisplayName("Given a frequent key among rare ones, its estimate should be close to its count")
+    void estimate_frequentKey() {
+        CountMinSketch sketch = new CountMinSketch(1024);
+        for (long key = 1; key <= 100; key++) {
+            sketch.increment(key);
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.increment(42L);
+        }
+
+        assertTrue(sketch.estimate(42L) >= 501);
+        assertTrue(sketch.estimate(42L) <= 510);
+    }
+
+    @Test
+    @DisplayName("Given counted keys, decay should halve their estimates")
+    void decay_halvesCounts() {
+        CountMinSketch sketch = new CountMinSketch(64);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(7L);
+        }
+
+        sketch.decay();
+
+        assertEquals(5, sketch.estimate(7L));
+    }
+}
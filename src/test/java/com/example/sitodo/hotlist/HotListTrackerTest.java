@@ -0,0 +1,90 @@
+package com.example.sitodo.hotlist;
+
+import com.example.sitodo.dto.HotListDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class HotListTrackerTest {
+
+    @Test
+    @DisplayName("Given traffic on many lists, getHotLists should return the busiest lists, busiest first")
+    void getHotLists_topLists() {
+        HotListTracker tracker = new HotListTracker(2, 1024);
+        for (long listId = 1; listId <= 50; listId++) {
+            tracker.recordRead(listId);
+        }
+        for (int i = 0; i < 20; i++) {
+            tracker.recordRead(7L);
+            tracker.recordWrite(9L);
+        }
+        for (int i = 0; i < 5; i++) {
+            tracker.recordWrite(7L);
+        }
+
+        List<HotListDto> hotLists = tracker.getHotLists();
+
+        assertEquals(List.of(7L, 9L), hotLists.stream().map(HotListDto::listId).toList());
+        assertEquals(21, hotLists.get(0).reads());
+        assertEquals(5, hotLists.get(0).writes());
+        assertEquals(21.0 / 5, hotLists.get(0).readWriteRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Given a list that became busy later, decay should let it overtake a formerly busy list")
+    void decay_favoursRecentTraffic() {
+        HotListTracker tracker = new HotListTracker(1, 1024);
+        for (int i = 0; i < 16; i++) {
+            tracker.recordRead(1L);
+        }
+
+        tracker.decay();
+        tracker.decay();
+        for (int i = 0; i < 6; i++) {
+            tracker.recordRead(2L);
+        }
+
+        assertEquals(2L, tracker.getHotLists().get(0).listId());
+    }
+
+    @Test
+    @DisplayName("Given traffic from many threads on more lists than are tracked, getHotLists should return the busiest lists")
+    void recordRead_concurrent() throws Exception {
+        HotListTracker tracker = new HotListTracker(3, 4096);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = IntStream.range(0, 8).<Future<?>>mapToObj(thread -> executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    tracker.recordRead((long) (i % 100) + 10);
+                    if (i % 10 == 0) {
+                        tracker.recordRead(1L);
+                        tracker.recordRead(2L);
+                        tracker.recordWrite(3L);
+                    }
+                }
+            })).toList();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<HotListDto> hotLists = tracker.getHotLists();
+
+        assertEquals(List.of(1L, 2L, 3L),
+            hotLists.stream().map(HotListDto::listId).sorted().toList());
+        assertEquals(1_600, hotLists.get(0).reads() + hotLists.get(0).writes());
+    }
+}
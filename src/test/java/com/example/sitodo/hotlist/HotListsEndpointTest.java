@@ -0,0 +1,45 @@
+package com.example.sitodo.hotlist;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("unit")
+@SpringBootTest
+@AutoConfigureMockMvc
+class HotListsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("Given a frequently read list, HTTP GET '/actuator/hotlists' includes it")
+    void hotLists_includesReadList() throws Exception {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle("Buy milk");
+        TodoListDto todoList = todoListService.addTodoItem(todoItemForm);
+        for (int i = 0; i < 100; i++) {
+            todoListService.getTodoListById(todoList.id());
+        }
+
+        mockMvc.perform(get("/actuator/hotlists")).andExpectAll(
+            status().isOk(),
+            jsonPath("$[*].listId", hasItem(todoList.id().intValue()))
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.sitodo.jfr;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("unit")
+@SpringBootTest(properties = "sitodo.page-cache.enabled=false")
+@AutoConfigureMockMvc
+class FlightRecordingEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void stopRecording() throws Exception {
+        mockMvc.perform(delete("/actuator/flightrecording"));
+    }
+
+    @Test
+    @DisplayName("Given a started recording, the dump contains the service, request, render and SQL events")
+    void dump_containsEvents() throws Exception {
+        mockMvc.perform(post("/actuator/flightrecording")).andExpectAll(
+            status().isOk(),
+            jsonPath("$.running").value(true)
+        );
+
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle("Buy milk");
+        TodoListDto todoList = todoListService.addTodoItem(todoItemForm);
+        mockMvc.perform(get("/list/{id}", todoList.id())).andExpect(status().isOk());
+
+        byte[] dump = mockMvc.perform(get("/actuator/flightrecording/dump"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        Path file = Files.write(directory.resolve("dump.jfr"), dump);
+        Map<String, RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().startsWith("sitodo."))
+            .collect(Collectors.toMap(event -> event.getEventType().getName(), event -> event, (first, second) -> first));
+
+        assertEquals(Set.of("sitodo.ServiceCall", "sitodo.ControllerRequest", "sitodo.TemplateRender", "sitodo.SqlStatement"),
+            events.keySet());
+        assertEquals(todoList.id(), events.get("sitodo.TemplateRender").getLong("listId"));
+        assertEquals(1, events.get("sitodo.TemplateRender").getInt("itemCount"));
+        assertEquals("TodoListController#showList", events.get("sitodo.ControllerRequest").getString("handler"));
+    }
+
+    @Test
+    @DisplayName("Given no running recording, HTTP GET '/actuator/flightrecording/dump' returns 404")
+    void dump_notRunning() throws Exception {
+        mockMvc.perform(get("/actuator/flightrecording")).andExpect(jsonPath("$.running").value(false));
+        mockMvc.perform(get("/actuator/flightrecording/dump")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.sitodo.jfr;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class SqlRecordingDataSourceTest {
+
+    private final SqlRecordingDataSource dataSource = new SqlRecordingDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:sql_recording", "sitodo", ""));
+
+    @Test
+    @DisplayName("Given no running recording, connections should not be wrapped")
+    void wrap_notRecording() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(connection instanceof ConnectionProxy);
+        }
+    }
+
+    @Test
+    @DisplayName("Given a running recording, wrapped connections and statements should be compared by identity and the connection should unwrap to its target")
+    void wrap_connectionProxy() throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.enable(SqlStatementEvent.class);
+            recording.start();
+
+            try (Connection connection = dataSource.getConnection(); Connection other = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                assertEquals(connection, connection);
+                assertNotEquals(connection, other);
+                assertEquals(System.identityHashCode(connection), connection.hashCode());
+                assertEquals(statement, statement);
+                assertNotEquals(statement, connection.createStatement());
+                assertInstanceOf(ConnectionProxy.class, connection);
+                assertFalse(DataSourceUtils.getTargetConnection(connection) instanceof ConnectionProxy);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.sitodo.job;
+
+import com.example.sitodo.dto.TodoItemChangeDto;
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListChangesDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest(properties = "sitodo.archive.batch-size=2")
+class ArchiveFinishedItemsJobTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private ArchiveFinishedItemsJob archiveFinishedItemsJob;
+
+    @Test
+    @DisplayName("Given finished items, archiving should move them out of the list in batches")
+    void archiveItemsFinishedBefore_movesFinishedItems() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("First"));
+        Long listId = todoList.id();
+        for (String title : List.of("Second", "Third", "Fourth")) {
+            todoList = todoListService.addTodoItem(listId, createTodoItemForm(title));
+        }
+        todoListService.setTodoItemFinished(listId, todoList.items().get(0).id(), true);
+        todoListService.setTodoItemFinished(listId, todoList.items().get(1).id(), true);
+        todoListService.setTodoItemFinished(listId, todoList.items().get(3).id(), true);
+        long version = todoListService.getTodoListVersion(listId);
+
+        int archived = archiveFinishedItemsJob.archiveItemsFinishedBefore(Instant.now().plusSeconds(1));
+
+        assertTrue(archived >= 3);
+        assertEquals(List.of("Third"), titles(todoListService.getTodoListById(listId).items()));
+        assertEquals(List.of("First", "Second", "Fourth"), titles(todoListService.getArchivedTodoItems(listId)));
+        assertTrue(todoListService.getTodoListVersion(listId) > version);
+    }
+
+    @Test
+    @DisplayName("Given recently finished items, archiving should keep them in the list")
+    void archiveItemsFinishedBefore_keepsRecentItems() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Recent"));
+        todoListService.setTodoItemFinished(todoList.id(), todoList.items().get(0).id(), true);
+
+        archiveFinishedItemsJob.archiveItemsFinishedBefore(Instant.now().minusSeconds(60));
+
+        assertEquals(List.of("Recent"), titles(todoListService.getTodoListById(todoList.id()).items()));
+        assertTrue(todoListService.getArchivedTodoItems(todoList.id()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given pruned removals, changes since a version before them should return the whole list")
+    void pruneRemovalsBefore_fullChanges() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Kept"));
+        Long listId = todoList.id();
+        todoList = todoListService.addTodoItem(listId, createTodoItemForm("Removed"));
+        long version = todoListService.getTodoListVersion(listId);
+        todoListService.deleteTodoItem(listId, todoList.items().get(1).id());
+        long afterRemoval = todoListService.getTodoListVersion(listId);
+
+        assertEquals(0, archiveFinishedItemsJob.pruneRemovalsBefore(Instant.now().minusSeconds(60)));
+        assertFalse(todoListService.getTodoListChanges(listId, version).full());
+
+        assertTrue(archiveFinishedItemsJob.pruneRemovalsBefore(Instant.now().plusSeconds(1)) >= 1);
+
+        TodoListChangesDto changes = todoListService.getTodoListChanges(listId, version);
+        assertTrue(changes.full());
+        assertEquals(List.of("Kept"), changes.items().stream().map(TodoItemChangeDto::title).toList());
+        assertFalse(todoListService.getTodoListChanges(listId, afterRemoval).full());
+    }
+
+    @Test
+    @DisplayName("Given a non-existent list, getting archived items should throw NoSuchElementException")
+    void getArchivedTodoItems_nonExistentList() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.getArchivedTodoItems(-1L));
+    }
+
+    private static List<String> titles(List<TodoItemDto> items) {
+        return items.stream().map(TodoItemDto::title).toList();
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.sitodo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class DropCountingAsyncAppenderTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private DropCountingAsyncAppender appender;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("Given a full queue, events should be dropped without blocking and counted")
+    void append_fullQueue() throws InterruptedException {
+        appender = startAppender(4, 0);
+        appender.doAppend(event(Level.WARN));
+        awaitTaken();
+
+        for (int i = 0; i < 7; i++) {
+            appender.doAppend(event(Level.WARN));
+        }
+
+        assertEquals(0, appender.getRemainingCapacity());
+        assertEquals(3, appender.getDroppedEvents());
+    }
+
+    @Test
+    @DisplayName("Given a queue above the discarding threshold, events below WARN should be dropped and counted")
+    void append_discardingThreshold() throws InterruptedException {
+        appender = startAppender(10, 5);
+        appender.doAppend(event(Level.WARN));
+        awaitTaken();
+        for (int i = 0; i < 6; i++) {
+            appender.doAppend(event(Level.WARN));
+        }
+
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.ERROR));
+
+        assertEquals(1, appender.getDroppedEvents());
+        assertEquals(7, appender.getNumberOfElementsInQueue());
+    }
+
+    @Test
+    @DisplayName("Given an appender of the root logger, LoggingMetrics should publish its dropped events")
+    void loggingMetrics_bindTo() throws InterruptedException {
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        appender = startAppender(1, 0);
+        appender.setName("TEST_ASYNC");
+        appender.doAppend(event(Level.WARN));
+        awaitTaken();
+        appender.doAppend(event(Level.WARN));
+        appender.doAppend(event(Level.WARN));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        root.addAppender(appender);
+        try {
+            new LoggingMetrics().bindTo(registry);
+        } finally {
+            root.detachAppender(appender);
+        }
+
+        assertEquals(1.0, registry.get("sitodo.logging.dropped").tag("appender", "TEST_ASYNC").functionCounter().count());
+    }
+
+    private DropCountingAsyncAppender startAppender(int queueSize, int discardingThreshold) {
+        AppenderBase<ILoggingEvent> blocked = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        blocked.setContext(loggerContext);
+        blocked.start();
+
+        DropCountingAsyncAppender async = new DropCountingAsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(queueSize);
+        async.setDiscardingThreshold(discardingThreshold);
+        async.addAppender(blocked);
+        async.start();
+
+        return async;
+    }
+
+    /**
+     * Waits until the worker has taken the first event and is blocked writing it.
+     */
+    private void awaitTaken() throws InterruptedException {
+        while (appender.getNumberOfElementsInQueue() > 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    private LoggingEvent event(Level level) {
+        return new LoggingEvent(getClass().getName(), loggerContext.getLogger("test"), level, "Message", null, null);
+    }
+}
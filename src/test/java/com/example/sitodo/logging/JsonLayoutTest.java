@@ -0,0 +1,57 @@
+package com.example.sitodo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class JsonLayoutTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    @DisplayName("Given an event with arguments, MDC and an exception, doLayout should write them as one line of JSON")
+    void doLayout_ok() throws Exception {
+        LoggingEvent event = new LoggingEvent(getClass().getName(), loggerContext.getLogger("com.example.Test"),
+            Level.WARN, "Item \"{}\"\tnot found", new IllegalStateException("Gone"), new Object[]{"Buy\nmilk"});
+        event.setTimeStamp(0);
+        event.setThreadName("main");
+        event.setMDCPropertyMap(Map.of("listId", "42"));
+
+        String line = new JsonLayout().doLayout(event);
+        JsonNode json = new ObjectMapper().readTree(line);
+
+        assertTrue(line.endsWith("}" + System.lineSeparator()));
+        assertEquals(1, line.strip().lines().count());
+        assertEquals(Instant.EPOCH.toString(), json.get("timestamp").asText());
+        assertEquals("WARN", json.get("level").asText());
+        assertEquals("com.example.Test", json.get("logger").asText());
+        assertEquals("main", json.get("thread").asText());
+        assertEquals("Item \"Buy\nmilk\"\tnot found", json.get("message").asText());
+        assertEquals("42", json.get("mdc").get("listId").asText());
+        assertTrue(json.get("exception").asText().contains("IllegalStateException: Gone"));
+    }
+
+    @Test
+    @DisplayName("Given an event without MDC or exception, doLayout should leave those fields out")
+    void doLayout_minimal() throws Exception {
+        LoggingEvent event = new LoggingEvent(getClass().getName(), loggerContext.getLogger("com.example.Test"),
+            Level.INFO, "Started", null, null);
+
+        JsonNode json = new ObjectMapper().readTree(new JsonLayout().doLayout(event));
+
+        assertEquals("Started", json.get("message").asText());
+        assertFalse(json.has("mdc"));
+        assertFalse(json.has("exception"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.sitodo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class SamplingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    @DisplayName("Given a sample rate, about that share of the debug events should be let through")
+    void decide_samplesDebugEvents() {
+        SamplingTurboFilter filter = createFilter("com.example.hot:0.1");
+        Logger logger = createLogger("com.example.hot.Controller", Level.DEBUG);
+
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, logger, Level.DEBUG, "Event {}", null, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        assertTrue(passed > 800 && passed < 1200, "passed " + passed);
+    }
+
+    @Test
+    @DisplayName("Given a sampled logger, events at INFO and above and level checks should not be sampled")
+    void decide_keepsInfoAndLevelChecks() {
+        SamplingTurboFilter filter = createFilter("com.example.hot:0");
+        Logger logger = createLogger("com.example.hot.Controller", Level.DEBUG);
+
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.DEBUG, "Event", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Event", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Given rates for a logger and its parent, the closest one should apply and other loggers should not be sampled")
+    void decide_closestLogger() {
+        SamplingTurboFilter filter = createFilter("com.example:0, com.example.hot.Controller:1");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, createLogger("com.example.hot.Controller", Level.DEBUG),
+            Level.DEBUG, "Event", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, createLogger("com.example.hot.Service", Level.DEBUG),
+            Level.DEBUG, "Event", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, createLogger("com.examples.Service", Level.DEBUG),
+            Level.DEBUG, "Event", null, null));
+    }
+
+    @Test
+    @DisplayName("Given an invalid rate, setRates should throw an exception")
+    void setRates_invalid() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+
+        assertThrows(IllegalArgumentException.class, () -> filter.setRates("com.example:2"));
+        assertThrows(IllegalArgumentException.class, () -> filter.setRates("com.example"));
+    }
+
+    private SamplingTurboFilter createFilter(String rates) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.setRates(rates);
+        filter.start();
+
+        return filter;
+    }
+
+    private Logger createLogger(String name, Level level) {
+        Logger logger = loggerContext.getLogger(name);
+        logger.setLevel(level);
+
+        return logger;
+    }
+}
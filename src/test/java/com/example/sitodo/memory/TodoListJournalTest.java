@@ -0,0 +1,237 @@
+package com.example.sitodo.memory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class TodoListJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Given a process that stopped without closing the journal, recovery restores all lists")
+    void recover_afterCrash() {
+        InMemoryTodoListStore store = openStore();
+        long listId = store.create().listId();
+        long firstItemId = addItem(store, listId, "Buy milk");
+        long secondItemId = addItem(store, listId, "Cut grass");
+        store.update(listId, new TodoListMutation.SetFinished(firstItemId, true));
+        store.update(listId, new TodoListMutation.Move(secondItemId, firstItemId));
+        long deletedListId = store.create().listId();
+        store.remove(deletedListId);
+
+        // The journal is not closed, as if the process had been killed
+        InMemoryTodoListStore recovered = openStore();
+        TodoListSnapshot snapshot = recovered.get(listId);
+
+        assertEquals(store.get(listId).version(), snapshot.version());
+        assertEquals(secondItemId, snapshot.itemId(0));
+        assertEquals("Buy milk", snapshot.title(1));
+        assertTrue(snapshot.isFinished(1));
+        assertNull(recovered.find(deletedListId));
+        assertTrue(recovered.create().listId() > deletedListId);
+        assertTrue(recovered.nextItemId() > secondItemId);
+    }
+
+    @Test
+    @DisplayName("Given a damaged last record, recovery discards it and keeps the earlier changes")
+    void recover_tornTail() throws IOException {
+        InMemoryTodoListStore store = openStore();
+        long listId = store.create().listId();
+        addItem(store, listId, "Buy milk");
+        addItem(store, listId, "Cut grass");
+
+        corruptLastRecord(singleFile("segment-"));
+        InMemoryTodoListStore recovered = openStore();
+
+        assertEquals(1, recovered.get(listId).size());
+        assertEquals("Buy milk", recovered.get(listId).title(0));
+
+        // New records are appended where the damaged record was
+        long itemId = addItem(recovered, listId, "Wash car");
+        TodoListSnapshot snapshot = openStore().get(listId);
+        assertEquals(2, snapshot.size());
+        assertEquals(itemId, snapshot.itemId(1));
+    }
+
+    @Test
+    @DisplayName("Given a list created with items, it is journaled as one record that is recovered whole or not at all")
+    void recover_createWithItems() throws IOException {
+        InMemoryTodoListStore store = openStore();
+        long listId = store.create(List.of("Buy milk", "Cut grass")).listId();
+        store.update(listId, new TodoListMutation.AddItems(List.of(store.nextItemId(), store.nextItemId()),
+            List.of("Wash car", "Feed cat")));
+
+        TodoListSnapshot snapshot = openStore().get(listId);
+        assertEquals(2, snapshot.version());
+        assertEquals(List.of("Buy milk", "Cut grass", "Wash car", "Feed cat"),
+            List.of(snapshot.title(0), snapshot.title(1), snapshot.title(2), snapshot.title(3)));
+
+        long otherListId = store.create(List.of("Cook rice", "Do laundry")).listId();
+        corruptLastRecord(singleFile("segment-"));
+        InMemoryTodoListStore recovered = openStore();
+
+        assertNull(recovered.find(otherListId));
+        assertEquals(4, recovered.get(listId).size());
+    }
+
+    @Test
+    @DisplayName("Given a compacted journal, recovery starts from the snapshot and replays the newer records")
+    void recover_afterCompaction() throws IOException {
+        TodoListJournal journal = createJournal();
+        InMemoryTodoListStore store = new InMemoryTodoListStore();
+        store.setJournal(journal);
+        long listId = store.create().listId();
+        long itemId = addItem(store, listId, "Buy milk");
+        addItem(store, listId, "Cut grass");
+        store.update(listId, new TodoListMutation.DeleteItem(itemId));
+
+        journal.compact();
+        store.update(listId, new TodoListMutation.ClearFinished());
+        long newItemId = addItem(store, listId, "Wash car");
+        store.update(listId, new TodoListMutation.SetFinished(newItemId, true));
+
+        assertEquals(List.of(1L), indexes("segment-"));
+        assertEquals(List.of(1L), indexes("snapshot-"));
+
+        TodoListSnapshot snapshot = openStore().get(listId);
+        assertEquals(store.get(listId).version(), snapshot.version());
+        assertEquals(List.of("Cut grass", "Wash car"), List.of(snapshot.title(0), snapshot.title(1)));
+        assertTrue(snapshot.isFinished(1));
+    }
+
+    @Test
+    @DisplayName("Given a title longer than 64 KB, compaction writes it to the snapshot and recovery restores it")
+    void compact_longTitle() throws IOException {
+        TodoListJournal journal = new TodoListJournal(directory, DataSize.ofMegabytes(1), true);
+        InMemoryTodoListStore store = new InMemoryTodoListStore();
+        store.setJournal(journal);
+        long listId = store.create().listId();
+        String title = "\u00e9".repeat(40_000);
+        addItem(store, listId, title);
+
+        journal.compact();
+
+        assertEquals(List.of(1L), indexes("snapshot-"));
+        InMemoryTodoListStore recovered = new InMemoryTodoListStore();
+        recovered.setJournal(new TodoListJournal(directory, DataSize.ofMegabytes(1), true));
+        assertEquals(title, recovered.get(listId).title(0));
+    }
+
+    @Test
+    @DisplayName("Given a damaged record in an earlier segment, recovery does not replay the segments after it")
+    void recover_damagedMiddleSegment() throws IOException {
+        InMemoryTodoListStore store = openStore(DataSize.ofBytes(256));
+        long listId = store.create().listId();
+        for (int i = 0; i < 20; i++) {
+            addItem(store, listId, "Item " + i);
+        }
+        List<Long> segments = indexes("segment-");
+        assertTrue(segments.size() > 2);
+
+        corruptLastRecord(directory.resolve(String.format("segment-%020d.log", segments.get(0))));
+        InMemoryTodoListStore recovered = openStore(DataSize.ofBytes(256));
+
+        TodoListSnapshot snapshot = recovered.get(listId);
+        assertTrue(snapshot.size() < 20);
+        assertEquals("Item " + (snapshot.size() - 1), snapshot.title(snapshot.size() - 1));
+        assertEquals(List.of(segments.get(0)), indexes("segment-"));
+        assertEquals(segments.subList(1, segments.size()), indexes("discarded-segment-"));
+
+        // New records continue after the last intact record
+        addItem(recovered, listId, "Wash car");
+        assertEquals(snapshot.size() + 1, openStore(DataSize.ofBytes(256)).get(listId).size());
+    }
+
+    @Test
+    @DisplayName("Given records that do not fit into a segment, the journal continues in a new segment")
+    void append_rollsSegments() {
+        InMemoryTodoListStore store = openStore(DataSize.ofBytes(256));
+        long listId = store.create().listId();
+
+        for (int i = 0; i < 20; i++) {
+            addItem(store, listId, "Item " + i);
+        }
+
+        assertTrue(indexes("segment-").size() > 1);
+        assertEquals(20, openStore(DataSize.ofBytes(256)).get(listId).size());
+    }
+
+    private InMemoryTodoListStore openStore() {
+        return openStore(DataSize.ofKilobytes(64));
+    }
+
+    private InMemoryTodoListStore openStore(DataSize segmentSize) {
+        InMemoryTodoListStore store = new InMemoryTodoListStore();
+        store.setJournal(new TodoListJournal(directory, segmentSize, true));
+
+        return store;
+    }
+
+    private TodoListJournal createJournal() {
+        return new TodoListJournal(directory, DataSize.ofKilobytes(64), true);
+    }
+
+    private static long addItem(InMemoryTodoListStore store, long listId, String title) {
+        long itemId = store.nextItemId();
+        store.update(listId, new TodoListMutation.AddItem(itemId, title));
+
+        return itemId;
+    }
+
+    /**
+     * Flips a byte in the body of the last record, as if it had only been partly written.
+     */
+    private static void corruptLastRecord(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer content = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.BIG_ENDIAN);
+            channel.read(content, 0);
+
+            int position = 0;
+            int lastRecord = -1;
+            while (content.getInt(position) != 0) {
+                lastRecord = position;
+                position += JournalSegment.HEADER_SIZE + content.getInt(position);
+            }
+
+            int target = lastRecord + JournalSegment.HEADER_SIZE + 1;
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~content.get(target)}), target);
+        }
+    }
+
+    private Path singleFile(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix))
+                .reduce((a, b) -> { throw new IllegalStateException("More than one " + prefix + " file"); })
+                .orElseThrow();
+        }
+    }
+
+    private List<Long> indexes(String prefix) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(prefix))
+                .map(name -> Long.valueOf(name.substring(prefix.length(), name.indexOf('.'))))
+                .sorted()
+                .toList();
+        } catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sitodo.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Tag("unit")
+@SpringBootTest(properties = {
+    "sitodo.rate-limit.client-header=X-Client-Key",
+    "sitodo.rate-limit.create-list.capacity=2",
+    "sitodo.rate-limit.create-lists.capacity=3"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Given a client over its limit, HTTP POST '/list' is rejected with 429 and Retry-After")
+    void newItem_overLimit_rejected() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/list").header("X-Client-Key", "flooding").param("title", "Spam"))
+                .andExpect(status().is3xxRedirection());
+        }
+
+        mockMvc.perform(post("/list").header("X-Client-Key", "flooding").param("title", "Spam")).andExpectAll(
+            status().isTooManyRequests(),
+            header().string("Retry-After", "30")
+        );
+        mockMvc.perform(post("/list").header("X-Client-Key", "another").param("title", "Buy milk"))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @DisplayName("Given a client over its limit, HTTP POST '/api/lists' is rejected by the number of lists it creates")
+    void createLists_overLimit_rejected() throws Exception {
+        String twoLists = """
+            {"lists": [{"items": ["Read the handbook"]}, {"items": ["Set up laptop"]}]}""";
+
+        mockMvc.perform(post("/api/lists").header("X-Client-Key", "batch")
+                .contentType(MediaType.APPLICATION_JSON).content(twoLists))
+            .andExpect(request().asyncStarted());
+
+        mockMvc.perform(post("/api/lists").header("X-Client-Key", "batch")
+                .contentType(MediaType.APPLICATION_JSON).content(twoLists)).andExpectAll(
+            status().isTooManyRequests(),
+            header().string("Retry-After", "200")
+        );
+        mockMvc.perform(post("/list").header("X-Client-Key", "batch").param("title", "Buy milk"))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @DisplayName("Given a client over its write limit, reading lists is still allowed")
+    void showList_overLimit_allowed() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/list").header("X-Client-Key", "reader").param("title", "Spam"));
+        }
+
+        mockMvc.perform(get("/list").header("X-Client-Key", "reader")).andExpect(status().isOk());
+    }
+}
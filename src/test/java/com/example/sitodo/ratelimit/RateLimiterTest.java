@@ -0,0 +1,91 @@
+package com.example.sitodo.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Given a full bucket, a client may send a burst of 'capacity' requests")
+    void tryAcquire_burst() {
+        RateLimiter rateLimiter = createRateLimiter(3, 100);
+
+        assertTrue(rateLimiter.tryAcquire("a").isZero());
+        assertTrue(rateLimiter.tryAcquire("a").isZero());
+        assertTrue(rateLimiter.tryAcquire("a").isZero());
+
+        Duration retryAfter = rateLimiter.tryAcquire("a");
+        assertEquals(Duration.ofSeconds(20), retryAfter);
+        assertTrue(rateLimiter.tryAcquire("b").isZero());
+    }
+
+    @Test
+    @DisplayName("Given an empty bucket, a token is available again after one refill interval")
+    void tryAcquire_refill() {
+        RateLimiter rateLimiter = createRateLimiter(3, 100);
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("a");
+        }
+
+        advance(Duration.ofSeconds(19));
+        assertFalse(rateLimiter.tryAcquire("a").isZero());
+
+        advance(Duration.ofSeconds(1));
+        assertTrue(rateLimiter.tryAcquire("a").isZero());
+        assertFalse(rateLimiter.tryAcquire("a").isZero());
+    }
+
+    @Test
+    @DisplayName("Given a request that costs several tokens, it takes all of them or none")
+    void tryAcquire_permits() {
+        RateLimiter rateLimiter = createRateLimiter(3, 100);
+
+        assertTrue(rateLimiter.tryAcquire("a", 2).isZero());
+        assertEquals(Duration.ofSeconds(20), rateLimiter.tryAcquire("a", 2));
+        assertTrue(rateLimiter.tryAcquire("a").isZero());
+        assertThrows(IllegalArgumentException.class, () -> rateLimiter.tryAcquire("b", 4));
+    }
+
+    @Test
+    @DisplayName("Given buckets that have filled up again, the sweep should drop them")
+    void tryAcquire_evictsIdleBuckets() {
+        RateLimiter rateLimiter = createRateLimiter(3, 100);
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+        assertEquals(2, rateLimiter.size());
+
+        advance(Duration.ofMinutes(2));
+        rateLimiter.tryAcquire("c");
+
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    @DisplayName("Given the maximum number of clients, new clients should share the overflow bucket")
+    void tryAcquire_overflow() {
+        RateLimiter rateLimiter = createRateLimiter(1, 2);
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+
+        assertTrue(rateLimiter.tryAcquire("c").isZero());
+        assertFalse(rateLimiter.tryAcquire("d").isZero());
+        assertEquals(2, rateLimiter.size());
+    }
+
+    private RateLimiter createRateLimiter(long capacity, int maxClients) {
+        return new RateLimiter("test", capacity, Duration.ofMinutes(1), maxClients, Duration.ofMinutes(1), clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
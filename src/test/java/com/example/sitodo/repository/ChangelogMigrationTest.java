@@ -0,0 +1,103 @@
+package com.example.sitodo.repository;
+
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a database that was created by the first changesets and already holds data, the way
+ * an existing installation is upgraded.
+ */
+@Tag("unit")
+class ChangelogMigrationTest {
+
+    private static final String CHANGELOG = "db/changelog/db.changelog-master.yaml";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private Liquibase liquibase;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:migration_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sitodo", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Liquibase works in its own transactions, so the test data is inserted over other connections
+        Database database = DatabaseFactory.getInstance()
+            .findCorrectDatabaseImplementation(new JdbcConnection(dataSource.getConnection()));
+        liquibase = new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(), database);
+        // Changesets 1 and 2: the original schema with list versions
+        liquibase.update(2, new Contexts().toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        liquibase.close();
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Given items with large IDs, the sort keys are numbered within each list without overflowing")
+    void sortKeys_largeIds() throws Exception {
+        jdbcTemplate.update("INSERT INTO todo_list (id) VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO todo_item (id, title) VALUES (40000, 'Buy milk'), (40002, 'Cut grass'), (2000000000, 'Wash car')");
+        jdbcTemplate.update("INSERT INTO todo_list_items (todo_list_id, items_id) VALUES (1, 40000), (2, 40002), (1, 2000000000)");
+
+        liquibase.update(new Contexts());
+
+        assertEquals(List.of(65536L, 131072L),
+            jdbcTemplate.queryForList("SELECT sort_key FROM todo_item WHERE todo_list_id = 1 ORDER BY id", Long.class));
+        assertEquals(List.of(65536L),
+            jdbcTemplate.queryForList("SELECT sort_key FROM todo_item WHERE todo_list_id = 2", Long.class));
+    }
+
+    @Test
+    @DisplayName("Given items finished before finished_at existed, they get a finished time so that they are archived")
+    void finishedAt_backfilled() throws Exception {
+        jdbcTemplate.update("INSERT INTO todo_list (id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO todo_item (id, title, finished) VALUES (2, 'Buy milk', TRUE), (3, 'Cut grass', FALSE)");
+        jdbcTemplate.update("INSERT INTO todo_list_items (todo_list_id, items_id) VALUES (1, 2), (1, 3)");
+
+        liquibase.update(new Contexts());
+
+        assertNotNull(jdbcTemplate.queryForObject("SELECT finished_at FROM todo_item WHERE id = 2", Object.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT finished_at FROM todo_item WHERE id = 3", Object.class));
+    }
+
+    @Test
+    @DisplayName("Given existing lists and items, the IDs are widened so that the sequence can go beyond the range of INTEGER")
+    void ids_widened() throws Exception {
+        jdbcTemplate.update("INSERT INTO todo_list (id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO todo_item (id, title) VALUES (2, 'Buy milk')");
+        jdbcTemplate.update("INSERT INTO todo_list_items (todo_list_id, items_id) VALUES (1, 2)");
+
+        liquibase.update(new Contexts());
+        jdbcTemplate.execute("ALTER SEQUENCE hibernate_sequence RESTART WITH 3000000000");
+        long listId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR hibernate_sequence", Long.class);
+        jdbcTemplate.update("INSERT INTO todo_list (id) VALUES (?)", listId);
+        jdbcTemplate.update("INSERT INTO todo_item (id, title, todo_list_id) VALUES (?, 'Cut grass', ?)", listId + 1, listId);
+
+        assertEquals(3_000_000_000L, listId);
+        assertEquals(List.of(2L, listId + 1),
+            jdbcTemplate.queryForList("SELECT id FROM todo_item ORDER BY id", Long.class));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT todo_list_id FROM todo_item WHERE id = 2", Long.class));
+        assertThrows(DataIntegrityViolationException.class,
+            () -> jdbcTemplate.update("INSERT INTO todo_item (id, title, todo_list_id) VALUES (5, 'Wash car', 4)"));
+    }
+}
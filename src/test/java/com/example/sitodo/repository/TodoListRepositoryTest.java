@@ -0,0 +1,146 @@
+package com.example.sitodo.repository;
+
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest
+class TodoListRepositoryTest {
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("findSummariesAfter counts the items of one page of lists, including empty lists")
+    void findSummariesAfter() {
+        TodoListDto first = createList("Buy milk", "Cut grass", "Wash car");
+        todoListService.setTodoItemFinished(first.id(), first.items().get(1).id(), true);
+        TodoListDto second = createList("Cook rice");
+        todoListService.clearFinishedItems(second.id());
+        todoListService.setTodoItemFinished(second.id(), second.items().get(0).id(), true);
+        todoListService.clearFinishedItems(second.id());
+        TodoListDto third = createList("Feed cat");
+
+        List<TodoListRepository.ListSummary> summaries = todoListRepository.findSummariesAfter(first.id() - 1, 2);
+
+        assertEquals(2, summaries.size());
+        assertEquals(first.id(), summaries.get(0).getId());
+        assertEquals(3L, summaries.get(0).getTotalItems());
+        assertEquals(1L, summaries.get(0).getFinishedItems());
+        assertEquals(second.id(), summaries.get(1).getId());
+        assertEquals(0L, summaries.get(1).getTotalItems());
+        assertEquals(third.id(), todoListRepository.findSummariesAfter(second.id(), 2).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("findChangedSince and findRemovedSince return only the items changed and removed after a version")
+    void findChangedSince() {
+        TodoListDto todoList = createList("Buy milk", "Cut grass", "Wash car", "Feed cat");
+        List<Long> ids = todoList.items().stream().map(TodoItemDto::id).toList();
+        long version = todoListService.getTodoListVersion(todoList.id());
+
+        todoListService.setTodoItemFinished(todoList.id(), ids.get(1), true);
+        todoListService.moveTodoItem(todoList.id(), ids.get(0), null);
+        todoListService.deleteTodoItem(todoList.id(), ids.get(2));
+
+        assertEquals(List.of(ids.get(1), ids.get(0)), todoItemRepository.findChangedSince(todoList.id(), version).stream()
+            .map(TodoItemRepository.ItemRow::getId)
+            .toList());
+        assertEquals(List.of(ids.get(2)), todoItemRepository.findRemovedSince(todoList.id(), version));
+        long current = todoListService.getTodoListVersion(todoList.id());
+        assertTrue(todoItemRepository.findChangedSince(todoList.id(), current).isEmpty());
+        assertTrue(todoItemRepository.findRemovedSince(todoList.id(), current).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findExistingIds and findByTodoListIds read several lists at once, with the items of each list in order")
+    void findByTodoListIds() {
+        TodoListDto first = createList("Buy milk", "Cut grass");
+        TodoListDto second = createList("Cook rice");
+        todoListService.moveTodoItem(first.id(), first.items().get(0).id(), null);
+
+        assertEquals(List.of(first.id(), second.id()),
+            todoListRepository.findExistingIds(List.of(first.id(), second.id(), -1L)).stream().sorted().toList());
+        assertEquals(List.of("Cut grass", "Buy milk", "Cook rice"),
+            todoItemRepository.findByTodoListIds(List.of(first.id(), second.id())).stream()
+                .map(TodoItemRepository.ItemRow::getTitle)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Given concurrent writers of one list, each change gets its own version and delta sync misses none")
+    void incrementVersion_concurrentWriters() throws Exception {
+        TodoListDto todoList = createList("Buy milk");
+        long version = todoListService.getTodoListVersion(todoList.id());
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                int number = writer;
+                results.add(writers.submit(() -> createItems(todoList.id(), "Writer " + number, 5)));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        List<Long> changeVersions = jdbcTemplate.queryForList(
+            "SELECT change_version FROM todo_item WHERE todo_list_id = ? AND change_version > ? ORDER BY change_version",
+            Long.class, todoList.id(), version);
+        assertEquals(LongStream.rangeClosed(version + 1, version + 20).boxed().toList(), changeVersions);
+        assertEquals(version + 20, todoListService.getTodoListVersion(todoList.id()));
+        assertEquals(20, todoItemRepository.findChangedSince(todoList.id(), version).size());
+    }
+
+    private void createItems(Long listId, String title, int count) {
+        for (int i = 0; i < count; i++) {
+            TodoItemForm todoItemForm = new TodoItemForm();
+            todoItemForm.setTitle(title + " " + i);
+            todoListService.addTodoItem(listId, todoItemForm);
+        }
+    }
+
+    private TodoListDto createList(String... titles) {
+        TodoListDto todoList = null;
+
+        for (String title : titles) {
+            TodoItemForm todoItemForm = new TodoItemForm();
+            todoItemForm.setTitle(title);
+            todoList = todoList == null
+                ? todoListService.addTodoItem(todoItemForm)
+                : todoListService.addTodoItem(todoList.id(), todoItemForm);
+        }
+
+        return todoList;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sitodo.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class InvertedIndexTest {
+
+    @Test
+    @DisplayName("Given indexed items, search should rank whole-word matches above prefix and substring matches")
+    void search_ranksMatches() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1L, 1L, "Buy buttermilk");
+        index.add(1L, 2L, "Buy milk");
+        index.add(2L, 3L, "Milkshake recipe");
+
+        List<InvertedIndex.Hit> hits = index.search("milk", null, 10);
+
+        assertEquals(List.of(2L, 3L, 1L), hits.stream().map(InvertedIndex.Hit::itemId).toList());
+    }
+
+    @Test
+    @DisplayName("Given a query with several words, search should only return items matching all of them")
+    void search_matchesAllWords() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1L, 1L, "Buy milk");
+        index.add(1L, 2L, "Buy bread");
+
+        List<InvertedIndex.Hit> hits = index.search("BUY mil", null, 10);
+
+        assertEquals(1, hits.size());
+        assertEquals("Buy milk", hits.get(0).title());
+    }
+
+    @Test
+    @DisplayName("Given a list filter, search should only return items of that list")
+    void search_filtersByList() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1L, 1L, "Buy milk");
+        index.add(2L, 2L, "Buy milk");
+
+        List<InvertedIndex.Hit> hits = index.search("milk", 2L, 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(2L, hits.get(0).listId());
+    }
+
+    @Test
+    @DisplayName("Given more matches than the limit, search should return only the best ones")
+    void search_limitsResults() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.add(1L, id, id == 42 ? "Milk" : "Buttermilk " + id);
+        }
+
+        List<InvertedIndex.Hit> hits = index.search("milk", null, 5);
+
+        assertEquals(5, hits.size());
+        assertEquals(42L, hits.get(0).itemId());
+    }
+
+    @Test
+    @DisplayName("Given a removed item, search should no longer return it")
+    void remove_unindexesItem() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1L, 1L, "Buy milk");
+
+        index.remove(1L);
+
+        assertTrue(index.search("milk", null, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
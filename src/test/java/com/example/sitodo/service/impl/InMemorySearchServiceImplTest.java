@@ -0,0 +1,98 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.SearchResultDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.event.TodoItemsRemovedEvent;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.service.SearchService;
+import com.example.sitodo.service.TodoListService;
+import com.example.sitodo.shard.SingleShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@SpringBootTest
+class InMemorySearchServiceImplTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("Given an item added through TodoListService, search should find it")
+    void search_findsAddedItem() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Water the zucchini"));
+        todoListService.addTodoItem(todoList.id(), createTodoItemForm("Harvest zucchinis"));
+
+        List<SearchResultDto> results = searchService.search("zucchini", todoList.id(), 10);
+
+        assertEquals(List.of("Water the zucchini", "Harvest zucchinis"), results.stream().map(SearchResultDto::title).toList());
+    }
+
+    @Test
+    @DisplayName("Given an item removed while the index is built, search should not find it once the build is done")
+    void buildIndex_removedDuringBuild() throws Exception {
+        TodoListRepository todoListRepository = mock(TodoListRepository.class);
+        InMemorySearchServiceImpl searchService = new InMemorySearchServiceImpl();
+        searchService.setTodoListRepository(todoListRepository);
+        searchService.setTransactionManager(mock(PlatformTransactionManager.class));
+        searchService.setShardRouter(new SingleShardRouter());
+
+        // The builder reads both items, but the second one is removed before it is indexed
+        when(todoListRepository.streamAllItemTitles()).thenAnswer(invocation -> {
+            searchService.onTodoItemsRemoved(new TodoItemsRemovedEvent(1L, List.of(2L)));
+            return Stream.of(new ItemTitle(1L, 1L, "Water the tomatoes"), new ItemTitle(1L, 2L, "Harvest tomatoes"));
+        });
+        searchService.buildIndex();
+
+        for (int attempt = 0; attempt < 100; attempt++) {
+            List<Long> itemIds = searchService.search("tomatoes", null, 10).stream().map(SearchResultDto::itemId).toList();
+
+            if (itemIds.equals(List.of(1L))) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+
+        fail("The removed item is still indexed");
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+
+    private record ItemTitle(Long listId, Long itemId, String title) implements TodoListRepository.ItemTitle {
+
+        @Override
+        public Long getListId() {
+            return listId;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.TodoItemChangeDto;
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListChangesDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
+import com.example.sitodo.dto.TodoListsDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest
+@ActiveProfiles("memory")
+class InMemoryTodoListServiceImplTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("Given the memory profile, the in-memory implementation should be used")
+    void todoListService_isInMemory() {
+        assertInstanceOf(InMemoryTodoListServiceImpl.class, todoListService);
+    }
+
+    @Test
+    @DisplayName("Given an existing ID, getTodoListById should return an existing list")
+    void getTodoListById_ok() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+
+        TodoListDto foundList = todoListService.getTodoListById(todoList.id());
+
+        assertEquals(List.of("Buy milk"), titles(foundList));
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, getTodoListById should throw an exception")
+    void getTodoListById_exception() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.getTodoListById(-1L));
+    }
+
+    @Test
+    @DisplayName("Given many IDs, getTodoListsByIds should return the lists in order and report the missing IDs")
+    void getTodoListsByIds_ok() {
+        TodoListDto first = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        TodoListDto second = todoListService.addTodoItem(createTodoItemForm("Cook rice"));
+
+        TodoListsDto todoLists = todoListService.getTodoListsByIds(List.of(second.id(), -1L, first.id(), second.id()));
+
+        assertEquals(List.of(List.of("Cook rice"), List.of("Buy milk")), todoLists.lists().stream().map(InMemoryTodoListServiceImplTest::titles).toList());
+        assertEquals(List.of(-1L), todoLists.missingIds());
+    }
+
+    @Test
+    @DisplayName("Given a todo item, addTodoItem should save the item into an existing list")
+    void addTodoItem_existingList_ok() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        long version = todoListService.getTodoListVersion(todoList.id());
+
+        TodoListDto updatedList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Cook rice"));
+
+        assertEquals(List.of("Buy milk", "Cook rice"), titles(updatedList));
+        assertTrue(todoListService.getTodoListVersion(todoList.id()) > version);
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, addTodoItem should throw an exception")
+    void addTodoItem_existingList_exception() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.addTodoItem(-1L, createTodoItemForm("Buy milk")));
+    }
+
+    @Test
+    @DisplayName("Given an existing list with an item, setTodoItemFinished should update the status of an item")
+    void updateTodoItem_ok() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        Long itemId = todoList.items().get(0).id();
+
+        TodoListDto updatedList = todoListService.setTodoItemFinished(todoList.id(), itemId, true);
+
+        assertTrue(updatedList.items().get(0).finished());
+        assertEquals(1L, updatedList.countFinishedItems());
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, setTodoItemFinished should throw an exception")
+    void updateTodoItem_exception() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.setTodoItemFinished(-1L, 2L, true));
+    }
+
+    @Test
+    @DisplayName("Given items moved around, moveTodoItem should keep their finished status with them")
+    void moveTodoItem_ok() {
+        TodoListDto todoList = createList("First", "Second", "Third");
+        List<Long> ids = todoList.items().stream().map(TodoItemDto::id).toList();
+        todoListService.setTodoItemFinished(todoList.id(), ids.get(0), true);
+
+        todoListService.moveTodoItem(todoList.id(), ids.get(0), null);
+        todoListService.moveTodoItem(todoList.id(), ids.get(2), ids.get(1));
+
+        TodoListDto movedList = todoListService.getTodoListById(todoList.id());
+        assertEquals(List.of("Third", "Second", "First"), titles(movedList));
+        assertEquals(List.of(false, false, true), movedList.items().stream().map(TodoItemDto::finished).toList());
+    }
+
+    @Test
+    @DisplayName("Suppose the item does not exist, moveTodoItem should throw an exception")
+    void moveTodoItem_exception() {
+        TodoListDto todoList = createList("First");
+
+        assertThrows(NoSuchElementException.class, () -> todoListService.moveTodoItem(todoList.id(), -1L, null));
+    }
+
+    @Test
+    @DisplayName("Given a changed list, getTodoListChanges should return all items, and nothing once up to date")
+    void getTodoListChanges_ok() {
+        TodoListDto todoList = createList("First", "Second");
+        long version = todoListService.getTodoListVersion(todoList.id());
+        todoListService.deleteTodoItem(todoList.id(), todoList.items().get(0).id());
+
+        TodoListChangesDto changes = todoListService.getTodoListChanges(todoList.id(), version);
+
+        assertTrue(changes.full());
+        assertEquals(List.of("Second"), changes.items().stream().map(TodoItemChangeDto::title).toList());
+        assertTrue(todoListService.getTodoListChanges(todoList.id(), changes.version()).items().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given finished items, clearFinishedItems should delete only those")
+    void clearFinishedItems_ok() {
+        TodoListDto todoList = createList("First", "Second", "Third");
+        todoListService.setTodoItemFinished(todoList.id(), todoList.items().get(0).id(), true);
+        todoListService.setTodoItemFinished(todoList.id(), todoList.items().get(2).id(), true);
+
+        int deleted = todoListService.clearFinishedItems(todoList.id());
+
+        assertEquals(2, deleted);
+        assertEquals(List.of("Second"), titles(todoListService.getTodoListById(todoList.id())));
+    }
+
+    @Test
+    @DisplayName("Given an existing item, deleteTodoItem should delete it")
+    void deleteTodoItem_ok() {
+        TodoListDto todoList = createList("First", "Second");
+
+        todoListService.deleteTodoItem(todoList.id(), todoList.items().get(0).id());
+
+        assertEquals(List.of("Second"), titles(todoListService.getTodoListById(todoList.id())));
+        assertThrows(NoSuchElementException.class,
+            () -> todoListService.deleteTodoItem(todoList.id(), todoList.items().get(0).id()));
+    }
+
+    @Test
+    @DisplayName("Given an existing list, deleteTodoList should delete it")
+    void deleteTodoList_ok() {
+        TodoListDto todoList = createList("First");
+
+        todoListService.deleteTodoList(todoList.id());
+
+        assertThrows(NoSuchElementException.class, () -> todoListService.getTodoListById(todoList.id()));
+        assertThrows(NoSuchElementException.class, () -> todoListService.deleteTodoList(todoList.id()));
+    }
+
+    @Test
+    @DisplayName("getTodoListSummaries returns the item counts of the lists after the given ID")
+    void getTodoListSummaries_ok() {
+        TodoListDto first = createList("Buy milk", "Cut grass");
+        todoListService.setTodoItemFinished(first.id(), first.items().get(0).id(), true);
+        TodoListDto second = createList("Cook rice");
+        createList("Feed cat");
+
+        List<TodoListSummaryDto> summaries = todoListService.getTodoListSummaries(first.id() - 1, 2);
+
+        assertEquals(List.of(new TodoListSummaryDto(first.id(), 2, 1), new TodoListSummaryDto(second.id(), 1, 0)),
+            summaries);
+    }
+
+    @Test
+    @DisplayName("Given several lists, createTodoLists creates them with their items")
+    void createTodoLists_ok() {
+        TodoListForm first = new TodoListForm();
+        first.setItems(List.of("Read the handbook", "Meet the team"));
+        TodoListForm second = new TodoListForm();
+        second.setItems(List.of("Set up laptop"));
+        List<Long> listIds = new ArrayList<>();
+
+        todoListService.createTodoLists(List.of(first, second), listIds::addAll);
+
+        assertEquals(2, listIds.size());
+        assertEquals(List.of("Read the handbook", "Meet the team"), titles(todoListService.getTodoListById(listIds.get(0))));
+        assertEquals(List.of("Set up laptop"), titles(todoListService.getTodoListById(listIds.get(1))));
+    }
+
+    private TodoListDto createList(String... titles) {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm(titles[0]));
+
+        for (int i = 1; i < titles.length; i++) {
+            todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm(titles[i]));
+        }
+
+        return todoList;
+    }
+
+    private static List<String> titles(TodoListDto todoList) {
+        return todoList.items().stream().map(TodoItemDto::title).toList();
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
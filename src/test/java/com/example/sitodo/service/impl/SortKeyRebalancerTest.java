@@ -0,0 +1,82 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.model.TodoItem;
+import com.example.sitodo.repository.TodoItemRepository;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest
+class SortKeyRebalancerTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+
+    @Autowired
+    private SortKeyRebalancer sortKeyRebalancer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Given repeated moves into the same slot, the list should keep the requested order")
+    void moveTodoItem_repeatedly_keepsOrder() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("First"));
+        todoListService.addTodoItem(todoList.id(), createTodoItemForm("Second"));
+        todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Third"));
+        Long firstId = todoList.items().get(0).id();
+        Long secondId = todoList.items().get(1).id();
+        Long thirdId = todoList.items().get(2).id();
+
+        // Keep moving the last item between the first two, until the keys run out
+        for (int i = 0; i < 40; i++) {
+            todoListService.moveTodoItem(todoList.id(), thirdId, secondId);
+            todoListService.moveTodoItem(todoList.id(), secondId, thirdId);
+            todoListService.moveTodoItem(todoList.id(), thirdId, secondId);
+            Long swap = secondId;
+            secondId = thirdId;
+            thirdId = swap;
+        }
+
+        List<Long> order = todoListService.getTodoListById(todoList.id()).items().stream().map(TodoItemDto::id).toList();
+        assertEquals(List.of(firstId, secondId, thirdId), order);
+    }
+
+    @Test
+    @DisplayName("Given a list, rebalance should space out the sort keys evenly and keep the order")
+    void rebalance_spacesOutSortKeys() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("First"));
+        todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Second"));
+        Long listId = todoList.id();
+        todoListService.moveTodoItem(listId, todoList.items().get(1).id(), todoList.items().get(0).id());
+
+        transactionTemplate.executeWithoutResult(status -> sortKeyRebalancer.rebalance(listId));
+
+        List<TodoItem> items = todoItemRepository.findByTodoListIdOrderBySortKey(listId);
+        assertEquals(List.of("Second", "First"), items.stream().map(TodoItem::getTitle).toList());
+        assertEquals(List.of(SortKeyRebalancer.SORT_KEY_GAP, 2 * SortKeyRebalancer.SORT_KEY_GAP),
+            items.stream().map(TodoItem::getSortKey).toList());
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
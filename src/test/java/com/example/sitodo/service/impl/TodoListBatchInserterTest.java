@@ -0,0 +1,70 @@
+package com.example.sitodo.service.impl;
+
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Tag("unit")
+@SpringBootTest(properties = "sitodo.provisioning.chunk-size=2")
+class TodoListBatchInserterTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("Given lists spanning several chunks, createTodoLists inserts them with their items in order")
+    void createTodoLists_ok() {
+        List<TodoListForm> todoLists = List.of(
+            createTodoListForm("Read the handbook", "Meet the team"),
+            createTodoListForm(),
+            createTodoListForm("Set up laptop", "Request access", "Book training"));
+        List<List<Long>> chunks = new ArrayList<>();
+
+        todoListService.createTodoLists(todoLists, chunks::add);
+
+        assertEquals(2, chunks.size());
+        List<Long> listIds = chunks.stream().flatMap(List::stream).toList();
+        assertEquals(3, new HashSet<>(listIds).size());
+        for (int i = 0; i < todoLists.size(); i++) {
+            TodoListDto todoList = todoListService.getTodoListById(listIds.get(i));
+
+            assertEquals(todoLists.get(i).getItems(), todoList.items().stream().map(TodoItemDto::title).toList());
+            assertFalse(todoList.items().stream().anyMatch(TodoItemDto::finished));
+        }
+    }
+
+    @Test
+    @DisplayName("Given a new list, items added to it later are placed after the inserted items")
+    void createTodoLists_thenAddItem() {
+        List<Long> listIds = new ArrayList<>();
+        todoListService.createTodoLists(List.of(createTodoListForm("Read the handbook", "Meet the team")), listIds::addAll);
+
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle("Set up laptop");
+        todoListService.addTodoItem(listIds.get(0), todoItemForm);
+
+        assertEquals(List.of("Read the handbook", "Meet the team", "Set up laptop"),
+            todoListService.getTodoListById(listIds.get(0)).items().stream().map(TodoItemDto::title).toList());
+    }
+
+    private static TodoListForm createTodoListForm(String... titles) {
+        TodoListForm todoListForm = new TodoListForm();
+        todoListForm.setItems(List.of(titles));
+
+        return todoListForm;
+    }
+}
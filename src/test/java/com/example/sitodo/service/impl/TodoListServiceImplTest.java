@@ -1,11 +1,19 @@
 package com.example.sitodo.service.impl;
 
+import com.example.sitodo.dto.TodoItemChangeDto;
+import com.example.sitodo.dto.TodoItemDto;
+import com.example.sitodo.dto.TodoListChangesDto;
 import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListsDto;
 import com.example.sitodo.form.TodoItemForm;
 import com.example.sitodo.model.TodoItem;
 import com.example.sitodo.model.TodoList;
+import com.example.sitodo.repository.ArchivedTodoItemRepository;
+import com.example.sitodo.repository.TodoItemRepository;
 import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.service.SearchService;
 import com.example.sitodo.service.TodoListService;
+import com.example.sitodo.stats.TodoListStatistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -14,14 +22,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
 
 @Tag("unit")
-@SpringBootTest
+@SpringBootTest(properties = "sitodo.delete.chunk-size=2")
 class TodoListServiceImplTest {
 
     @Autowired
@@ -30,25 +41,130 @@ class TodoListServiceImplTest {
     @MockBean
     private TodoListRepository todoListRepository;
 
+    @MockBean
+    private TodoItemRepository todoItemRepository;
+
+    @MockBean
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    /**
+     * Replaces the in-memory search, whose index builder would otherwise call the mocked
+     * repositories from another thread while the tests stub them.
+     */
+    @MockBean
+    private SearchService searchService;
+
+    @MockBean
+    private TodoListStatistics todoListStatistics;
+
     @Test
     @DisplayName("Given an existing ID, getTodoListById should return an existing list")
     void getTodoListById_ok() {
-        TodoList todoList = createTodoListEntity("Buy milk");
-        when(todoListRepository.findById(anyLong())).thenReturn(Optional.of(todoList));
+        TodoItemRepository.ItemRow row = mock(TodoItemRepository.ItemRow.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getTitle()).thenReturn("Buy milk");
+        when(row.getFinished()).thenReturn(true);
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(0L));
+        when(todoItemRepository.streamByTodoListId(1L)).thenReturn(Stream.of(row));
 
         TodoListDto savedList = todoListService.getTodoListById(1L);
 
-        assertFalse(savedList.items().isEmpty());
+        assertEquals(List.of(new TodoItemDto(1L, "Buy milk", true)), savedList.items());
+        assertEquals(1L, savedList.countFinishedItems());
+        verify(todoListRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("Suppose the list does not exist, getTodoListById should throw an exception")
     void getTodoListById_exception() {
-        when(todoListRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(todoListRepository.findVersionById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NoSuchElementException.class, () -> todoListService.getTodoListById(1L));
     }
 
+    @Test
+    @DisplayName("Given many IDs, getTodoListsByIds should read the lists and their items with one query each")
+    void getTodoListsByIds_ok() {
+        TodoItemRepository.ListItemRow first = mockListItemRow(3L, 30L, "Buy milk");
+        TodoItemRepository.ListItemRow second = mockListItemRow(3L, 31L, "Cut grass");
+        when(todoListRepository.findExistingIds(List.of(3L, 2L, 1L))).thenReturn(List.of(1L, 3L));
+        when(todoItemRepository.findByTodoListIds(any())).thenReturn(List.of(first, second));
+
+        TodoListsDto todoLists = todoListService.getTodoListsByIds(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(3L, 1L), todoLists.lists().stream().map(TodoListDto::id).toList());
+        assertEquals(List.of(new TodoItemDto(30L, "Buy milk", false), new TodoItemDto(31L, "Cut grass", false)),
+            todoLists.lists().get(0).items());
+        assertTrue(todoLists.lists().get(1).items().isEmpty());
+        assertEquals(List.of(2L), todoLists.missingIds());
+        verify(todoListRepository).findExistingIds(any());
+        verify(todoItemRepository).findByTodoListIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 3L))));
+        verify(todoListRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Suppose none of the lists exist, getTodoListsByIds should report all IDs as missing")
+    void getTodoListsByIds_missing() {
+        TodoListsDto todoLists = todoListService.getTodoListsByIds(List.of(1L, 2L));
+
+        assertTrue(todoLists.lists().isEmpty());
+        assertEquals(List.of(1L, 2L), todoLists.missingIds());
+        verify(todoItemRepository, never()).findByTodoListIds(any());
+    }
+
+    @Test
+    @DisplayName("Given a version, getTodoListChanges should return the items changed and removed since then")
+    void getTodoListChanges_ok() {
+        TodoItemRepository.ChangedItem item = mock(TodoItemRepository.ChangedItem.class);
+        when(item.getId()).thenReturn(2L);
+        when(item.getTitle()).thenReturn("Buy milk");
+        when(item.getFinished()).thenReturn(false);
+        when(item.getSortKey()).thenReturn(SortKeyRebalancer.SORT_KEY_GAP);
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+        when(todoItemRepository.findChangedSince(1L, 3L)).thenReturn(List.of(item));
+        when(todoItemRepository.findRemovedSince(1L, 3L)).thenReturn(List.of(4L));
+        when(todoListRepository.findRemovalsPrunedVersionById(1L)).thenReturn(Optional.of(2L));
+
+        TodoListChangesDto changes = todoListService.getTodoListChanges(1L, 3L);
+
+        assertEquals(new TodoListChangesDto(1L, 5L, false,
+            List.of(new TodoItemChangeDto(2L, "Buy milk", false, null, SortKeyRebalancer.SORT_KEY_GAP)),
+            List.of(4L)), changes);
+        verify(todoListRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Given a version older than the pruned removals, getTodoListChanges should return all items of the list")
+    void getTodoListChanges_prunedRemovals() {
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(9L));
+        when(todoItemRepository.findRemovedSince(1L, 3L)).thenReturn(List.of(4L));
+        when(todoListRepository.findRemovalsPrunedVersionById(1L)).thenReturn(Optional.of(5L));
+
+        TodoListChangesDto changes = todoListService.getTodoListChanges(1L, 3L);
+
+        assertTrue(changes.full());
+        assertTrue(changes.removedItemIds().isEmpty());
+        verify(todoItemRepository).findChangedSince(1L, -1L);
+    }
+
+    @Test
+    @DisplayName("Without a version, getTodoListChanges should return all items of the list")
+    void getTodoListChanges_full() {
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        TodoListChangesDto changes = todoListService.getTodoListChanges(1L, null);
+
+        assertTrue(changes.full());
+        verify(todoItemRepository).findChangedSince(1L, -1L);
+        verify(todoItemRepository, never()).findRemovedSince(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, getTodoListChanges should throw an exception")
+    void getTodoListChanges_exception() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.getTodoListChanges(1L, 3L));
+    }
+
     @Test
     @DisplayName("Given a new todo item, addTodoItem should save the item into a new list")
     void addTodoItem_ok() {
@@ -62,6 +178,8 @@ class TodoListServiceImplTest {
         TodoListDto newTodoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
 
         assertFalse(newTodoList.items().isEmpty());
+        verify(todoListStatistics).recordListsCreated(1);
+        verify(todoListStatistics).recordItemsAdded(1);
     }
 
     @Test
@@ -71,6 +189,8 @@ class TodoListServiceImplTest {
         TodoList fakeTodoList = new TodoList();
         fakeTodoList.setId(1L);
         fakeTodoList.addTodoItem(fakeTodoItem);
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
         when(todoListRepository.findById(anyLong()))
             .thenReturn(Optional.of(fakeTodoList));
         when(todoListRepository.save(fakeTodoList))
@@ -79,6 +199,8 @@ class TodoListServiceImplTest {
         TodoListDto updatedTodoList = todoListService.addTodoItem(1L, createTodoItemForm("Touch grass"));
 
         assertEquals(2L, updatedTodoList.countTotal());
+        assertEquals(3L, fakeTodoList.getItems().get(1).getChangeVersion());
+        verify(todoListRepository).incrementVersion(1L);
     }
 
     @Test
@@ -93,12 +215,17 @@ class TodoListServiceImplTest {
         TodoList fakeTodoList = new TodoList();
         fakeTodoList.setId(1L);
         fakeTodoList.addTodoItem(new TodoItem(1L, "Buy milk"));
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
         when(todoListRepository.findById(anyLong())).thenReturn(Optional.of(fakeTodoList));
         when(todoListRepository.save(fakeTodoList)).thenReturn(fakeTodoList);
 
         TodoListDto updatedTodoList = todoListService.setTodoItemFinished(1L, 1L, true);
 
         assertEquals(1, updatedTodoList.countFinishedItems());
+        assertEquals(3L, fakeTodoList.getItems().get(0).getChangeVersion());
+        verify(todoListStatistics).recordItemsFinished(1);
+        verify(todoListRepository).incrementVersion(1L);
     }
 
     @Test
@@ -107,6 +234,125 @@ class TodoListServiceImplTest {
         assertThrows(NoSuchElementException.class, () -> todoListService.setTodoItemFinished(1L, 2L, true));
     }
 
+    @Test
+    @DisplayName("Given an item moved to the end, moveTodoItem should give it the sort key after the last item")
+    void moveTodoItem_toEnd_ok() {
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        TodoItem movedItem = createTodoItemEntity(1L, SortKeyRebalancer.SORT_KEY_GAP);
+        when(todoItemRepository.findByIdAndTodoListId(1L, 1L)).thenReturn(Optional.of(movedItem));
+        when(todoItemRepository.findLastSortKey(1L)).thenReturn(Optional.of(3 * SortKeyRebalancer.SORT_KEY_GAP));
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+
+        todoListService.moveTodoItem(1L, 1L, null);
+
+        assertEquals(4 * SortKeyRebalancer.SORT_KEY_GAP, movedItem.getSortKey());
+        assertEquals(7L, movedItem.getChangeVersion());
+    }
+
+    @Test
+    @DisplayName("Given an item moved before another item, moveTodoItem should give it a sort key between that item and its predecessor")
+    void moveTodoItem_beforeItem_ok() {
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        TodoItem movedItem = createTodoItemEntity(1L, SortKeyRebalancer.SORT_KEY_GAP);
+        TodoItem before = createTodoItemEntity(3L, 3 * SortKeyRebalancer.SORT_KEY_GAP);
+        when(todoItemRepository.findByIdAndTodoListId(1L, 1L)).thenReturn(Optional.of(movedItem));
+        when(todoItemRepository.findByIdAndTodoListId(3L, 1L)).thenReturn(Optional.of(before));
+        when(todoItemRepository.findSortKeyBefore(1L, before.getSortKey(), 1L))
+            .thenReturn(Optional.of(2 * SortKeyRebalancer.SORT_KEY_GAP));
+        when(todoListRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+
+        todoListService.moveTodoItem(1L, 1L, 3L);
+
+        assertEquals(5 * SortKeyRebalancer.SORT_KEY_GAP / 2, movedItem.getSortKey());
+    }
+
+    @Test
+    @DisplayName("Given an item moved before itself, moveTodoItem should leave the list and its version unchanged")
+    void moveTodoItem_beforeItself_noop() {
+        TodoItem movedItem = createTodoItemEntity(1L, SortKeyRebalancer.SORT_KEY_GAP);
+        when(todoItemRepository.findByIdAndTodoListId(1L, 1L)).thenReturn(Optional.of(movedItem));
+
+        todoListService.moveTodoItem(1L, 1L, 1L);
+
+        assertEquals(SortKeyRebalancer.SORT_KEY_GAP, movedItem.getSortKey());
+        verify(todoListRepository, never()).incrementVersion(anyLong());
+        verify(todoListRepository, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Suppose the item does not exist, moveTodoItem should throw an exception")
+    void moveTodoItem_exception() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.moveTodoItem(1L, 2L, null));
+    }
+
+    @Test
+    @DisplayName("Given an existing item, deleteTodoItem should delete it without loading the list")
+    void deleteTodoItem_ok() {
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        when(todoItemRepository.countFinishedInList(1L, List.of(2L))).thenReturn(1L);
+        when(todoItemRepository.deleteFromList(1L, List.of(2L))).thenReturn(1);
+
+        todoListService.deleteTodoItem(1L, 2L);
+
+        verify(todoItemRepository).deleteFromList(1L, List.of(2L));
+        verify(todoListRepository, never()).findById(anyLong());
+        verify(todoListStatistics).recordItemsRemoved(1, 0);
+    }
+
+    @Test
+    @DisplayName("Suppose the item does not exist, deleteTodoItem should throw an exception")
+    void deleteTodoItem_exception() {
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+
+        assertThrows(NoSuchElementException.class, () -> todoListService.deleteTodoItem(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Given more finished items than fit in a chunk, clearFinishedItems should delete them chunk by chunk")
+    void clearFinishedItems_chunked() {
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        when(todoItemRepository.findFinishedIdsByTodoListId(eq(1L), any()))
+            .thenReturn(List.of(1L, 2L))
+            .thenReturn(List.of(3L));
+
+        int deleted = todoListService.clearFinishedItems(1L);
+
+        assertEquals(3, deleted);
+        verify(todoItemRepository).deleteFromList(1L, List.of(1L, 2L));
+        verify(todoItemRepository).deleteFromList(1L, List.of(3L));
+    }
+
+    @Test
+    @DisplayName("Given an existing list, deleteTodoList should delete its items, its archived items and then the list")
+    void deleteTodoList_ok() {
+        when(todoListRepository.incrementVersion(1L)).thenReturn(1);
+        when(todoItemRepository.findIdsByTodoListId(eq(1L), any()))
+            .thenReturn(List.of(1L))
+            .thenReturn(List.of());
+        when(archivedTodoItemRepository.findIdsByTodoListId(eq(1L), any())).thenReturn(List.of(5L));
+
+        todoListService.deleteTodoList(1L);
+
+        var inOrder = inOrder(todoItemRepository, archivedTodoItemRepository, todoListRepository);
+        inOrder.verify(todoItemRepository).deleteFromList(1L, List.of(1L));
+        inOrder.verify(archivedTodoItemRepository).deleteFromList(1L, List.of(5L));
+        inOrder.verify(todoListRepository).deleteListById(1L);
+    }
+
+    @Test
+    @DisplayName("Suppose the list does not exist, deleteTodoList should throw an exception")
+    void deleteTodoList_exception() {
+        assertThrows(NoSuchElementException.class, () -> todoListService.deleteTodoList(1L));
+        verify(todoListRepository, never()).deleteListById(anyLong());
+    }
+
+    private static TodoItem createTodoItemEntity(Long id, long sortKey) {
+        TodoItem item = new TodoItem(id, "Item " + id);
+        item.setSortKey(sortKey);
+
+        return item;
+    }
+
     private TodoList createTodoListEntity(String... items) {
         TodoList list = new TodoList(new ArrayList<>());
 
@@ -117,6 +363,16 @@ class TodoListServiceImplTest {
         return list;
     }
 
+    private static TodoItemRepository.ListItemRow mockListItemRow(Long listId, Long id, String title) {
+        TodoItemRepository.ListItemRow row = mock(TodoItemRepository.ListItemRow.class);
+        when(row.getTodoListId()).thenReturn(listId);
+        when(row.getId()).thenReturn(id);
+        when(row.getTitle()).thenReturn(title);
+        when(row.getFinished()).thenReturn(false);
+
+        return row;
+    }
+
     private static TodoItemForm createTodoItemForm(String title) {
         TodoItemForm newTodoItem = new TodoItemForm();
         newTodoItem.setTitle(title);
@@ -0,0 +1,34 @@
+package com.example.sitodo.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class RandomShardPlacementTest {
+
+    @Test
+    @DisplayName("Given weights, the shards are chosen in proportion to them")
+    void nextShard_weighted() {
+        ShardPlacement placement = new RandomShardPlacement(new int[]{3, 0, 1});
+        int[] counts = new int[3];
+
+        for (int i = 0; i < 40_000; i++) {
+            counts[placement.nextShard()]++;
+        }
+
+        assertEquals(0, counts[1]);
+        assertTrue(Math.abs(counts[0] - 30_000) < 1_000, "Shard 0 was chosen " + counts[0] + " times");
+        assertTrue(Math.abs(counts[2] - 10_000) < 1_000, "Shard 2 was chosen " + counts[2] + " times");
+    }
+
+    @Test
+    @DisplayName("Given a negative weight, the placement is rejected")
+    void create_negativeWeight() {
+        assertThrows(IllegalArgumentException.class, () -> new RandomShardPlacement(new int[]{1, -1}));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.sitodo.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+class RoundRobinShardPlacementTest {
+
+    @Test
+    @DisplayName("Given equal weights, the shards take turns")
+    void nextShard_equalWeights() {
+        ShardPlacement placement = new RoundRobinShardPlacement(new int[]{1, 1, 1});
+
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 2}, next(placement, 6));
+    }
+
+    @Test
+    @DisplayName("Given different weights, the turns are spread in proportion to them")
+    void nextShard_weighted() {
+        ShardPlacement placement = new RoundRobinShardPlacement(new int[]{2, 1});
+
+        assertArrayEquals(new int[]{0, 1, 0, 0, 1, 0}, next(placement, 6));
+    }
+
+    @Test
+    @DisplayName("Given a shard with weight 0, it gets no new lists")
+    void nextShard_zeroWeight() {
+        ShardPlacement placement = new RoundRobinShardPlacement(new int[]{0, 1, 1});
+
+        assertArrayEquals(new int[]{1, 2, 1, 2}, next(placement, 4));
+    }
+
+    @Test
+    @DisplayName("Given only weights of 0, the placement is rejected")
+    void create_noWeight() {
+        assertThrows(IllegalArgumentException.class, () -> new RoundRobinShardPlacement(new int[]{0, 0}));
+    }
+
+    private static int[] next(ShardPlacement placement, int count) {
+        return IntStream.range(0, count).map(i -> placement.nextShard()).toArray();
+    }
+}
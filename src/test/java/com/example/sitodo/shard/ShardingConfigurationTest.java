@@ -0,0 +1,183 @@
+package com.example.sitodo.shard;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListSummaryDto;
+import com.example.sitodo.dto.TodoListsDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.form.TodoListForm;
+import com.example.sitodo.service.TodoListService;
+import com.example.sitodo.stats.TodoListStatistics;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@SpringBootTest(properties = "sitodo.startup.skip-unchanged-schema=true")
+@ActiveProfiles("sharded")
+class ShardingConfigurationTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TodoListStatistics todoListStatistics;
+
+    @Autowired
+    private ShardingConfiguration.ShardDataSources shardDataSources;
+
+    @Autowired
+    private SpringLiquibase liquibase;
+
+    @Test
+    @DisplayName("Given new lists, they are placed on both shards and stored only there")
+    void addTodoItem_placesListsOnShards() {
+        List<TodoListDto> todoLists = IntStream.range(0, 4)
+            .mapToObj(i -> todoListService.addTodoItem(createTodoItemForm("Buy milk " + i)))
+            .toList();
+
+        assertEquals(Set.of(0, 1), todoLists.stream()
+            .map(todoList -> ShardContext.shardOf(todoList.id()))
+            .collect(Collectors.toSet()));
+        for (TodoListDto todoList : todoLists) {
+            int shard = ShardContext.shardOf(todoList.id());
+
+            assertEquals(shard, ShardContext.shardOf(todoList.items().get(0).id()));
+            assertEquals(1, countListsOnShard(shard, todoList.id()));
+            assertEquals(0, countListsOnShard(1 - shard, todoList.id()));
+        }
+    }
+
+    @Test
+    @DisplayName("Given lists on both shards, they are read and changed on their own shard")
+    void todoListService_routesByListId() {
+        for (int i = 0; i < 2; i++) {
+            TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Cut grass"));
+            todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Wash car"));
+            todoListService.setTodoItemFinished(todoList.id(), todoList.items().get(0).id(), true);
+            todoListService.deleteTodoItem(todoList.id(), todoList.items().get(1).id());
+
+            TodoListDto found = todoListService.getTodoListById(todoList.id());
+
+            assertEquals(1, found.items().size());
+            assertTrue(found.items().get(0).finished());
+            assertEquals(3, todoListService.getTodoListVersion(todoList.id()));
+        }
+    }
+
+    @Test
+    @DisplayName("Given lists on both shards, the overview merges them in the order of their IDs")
+    void getTodoListSummaries_mergesShards() {
+        List<Long> listIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            listIds.add(todoListService.addTodoItem(createTodoItemForm("Feed cat " + i)).id());
+        }
+
+        List<Long> summaryIds = todoListService.getTodoListSummaries(0, 10_000).stream()
+            .map(TodoListSummaryDto::id)
+            .toList();
+
+        assertTrue(summaryIds.containsAll(listIds));
+        assertEquals(summaryIds.stream().sorted().toList(), summaryIds);
+        assertEquals(summaryIds.subList(0, 2), todoListService.getTodoListSummaries(0, 2).stream()
+            .map(TodoListSummaryDto::id)
+            .toList());
+    }
+
+    @Test
+    @DisplayName("Given lists on both shards, they are fetched together and IDs of unknown shards are reported missing")
+    void getTodoListsByIds_readsAllShards() {
+        List<Long> listIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            listIds.add(todoListService.addTodoItem(createTodoItemForm("Walk dog " + i)).id());
+        }
+        Long unknownShardId = 10L * ShardContext.MAX_SHARDS + 5;
+        List<Long> requestedIds = new ArrayList<>(listIds);
+        requestedIds.add(1, unknownShardId);
+
+        TodoListsDto todoLists = todoListService.getTodoListsByIds(requestedIds);
+
+        assertEquals(listIds, todoLists.lists().stream().map(TodoListDto::id).toList());
+        assertEquals("Walk dog 3", todoLists.lists().get(3).items().get(0).title());
+        assertEquals(List.of(unknownShardId), todoLists.missingIds());
+    }
+
+    @Test
+    @DisplayName("Given lists on both shards, the statistics count all of them")
+    void statistics_countAllShards() {
+        todoListService.addTodoItem(createTodoItemForm("Water plants"));
+        todoListService.addTodoItem(createTodoItemForm("Water flowers"));
+
+        todoListStatistics.check();
+
+        long lists = 0;
+        for (int shard = 0; shard < 2; shard++) {
+            lists += jdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM todo_list", Long.class);
+        }
+        assertEquals(lists, todoListStatistics.getStatistics().lists());
+    }
+
+    @Test
+    @DisplayName("Given a batch of lists, they are all created on the same shard")
+    void createTodoLists_oneShard() {
+        TodoListForm todoList = new TodoListForm();
+        todoList.setItems(List.of("Buy bread", "Buy eggs"));
+        List<Long> listIds = new ArrayList<>();
+
+        todoListService.createTodoLists(List.of(todoList, todoList, todoList), listIds::addAll);
+
+        assertEquals(3, listIds.size());
+        assertEquals(1, listIds.stream().map(ShardContext::shardOf).distinct().count());
+        assertEquals(2, todoListService.getTodoListById(listIds.get(2)).items().size());
+    }
+
+    @Test
+    @DisplayName("Given an ID of a shard that does not exist, the list is not found")
+    void getTodoListById_unknownShard() {
+        assertThrows(NoSuchElementException.class,
+            () -> todoListService.getTodoListById(10L * ShardContext.MAX_SHARDS + 5));
+    }
+
+    @Test
+    @DisplayName("Given the startup setting to skip unchanged schemas, every shard is still migrated to 64-bit IDs")
+    void liquibase_migratesEveryShard() {
+        assertInstanceOf(ShardedSpringLiquibase.class, liquibase);
+        for (int shard = 0; shard < 2; shard++) {
+            assertEquals("BIGINT", jdbcTemplate(shard).queryForObject(
+                "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'HIBERNATE_SEQUENCE'", String.class));
+            assertEquals(ShardContext.MAX_SHARDS, jdbcTemplate(shard).queryForObject(
+                "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'HIBERNATE_SEQUENCE'", Integer.class));
+        }
+    }
+
+    private int countListsOnShard(int shard, Long listId) {
+        return jdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM todo_list WHERE id = ?", Integer.class, listId);
+    }
+
+    private JdbcTemplate jdbcTemplate(int shard) {
+        return new JdbcTemplate(shardDataSources.pools().get(shard));
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}
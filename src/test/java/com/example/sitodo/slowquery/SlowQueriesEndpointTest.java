@@ -0,0 +1,77 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.dto.SlowQueryDto;
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("unit")
+@SpringBootTest(properties = {"sitodo.slow-query.enabled=true", "sitodo.slow-query.threshold=PT0S"})
+@AutoConfigureMockMvc
+class SlowQueriesEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private SlowQueryRecorder slowQueryRecorder;
+
+    @Test
+    @DisplayName("Given a statement over the threshold, it is recorded with its service method and plan")
+    void slowQueries_recordsStatement() throws Exception {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle("Buy milk");
+        TodoListDto todoList = todoListService.addTodoItem(todoItemForm);
+        slowQueryRecorder.clear();
+
+        todoListService.getTodoListById(todoList.id());
+
+        SlowQueryDto itemQuery = awaitPlan();
+        assertEquals("TodoListService.getTodoListById", itemQuery.serviceMethod());
+        assertTrue(itemQuery.parameters().contains(String.valueOf(todoList.id())));
+        assertFalse(itemQuery.plan().isEmpty());
+        assertFalse(itemQuery.plan().startsWith("EXPLAIN failed"), itemQuery.plan());
+
+        mockMvc.perform(get("/actuator/slowqueries")).andExpectAll(
+            status().isOk(),
+            jsonPath("$[*].serviceMethod", hasItem("TodoListService.getTodoListById"))
+        );
+    }
+
+    /**
+     * @return the recorded query of the items, once its plan has been captured
+     */
+    private SlowQueryDto awaitPlan() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Optional<SlowQueryDto> itemQuery = slowQueryRecorder.getSlowQueries().stream()
+                .filter(slowQuery -> slowQuery.sql().contains("todo_item"))
+                .filter(slowQuery -> slowQuery.plan() != null)
+                .findFirst();
+
+            if (itemQuery.isPresent()) {
+                return itemQuery.get();
+            }
+            Thread.sleep(50);
+        }
+
+        return fail("The query of the items was not recorded with a plan");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.dto.SlowQueryDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class SlowQueryDataSourceTest {
+
+    private final SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 10, false);
+
+    private final SlowQueryDataSource dataSource = new SlowQueryDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:slow_query", "sitodo", ""), recorder);
+
+    @Test
+    @DisplayName("Given a prepared statement slower than the threshold, it should be recorded with its parameters")
+    void execute_prepared() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT ? + ?")) {
+            statement.setLong(1, 1);
+            statement.setString(2, "2");
+            statement.executeQuery().close();
+        }
+
+        SlowQueryDto slowQuery = recorder.getSlowQueries().get(0);
+        assertEquals("SELECT ? + ?", slowQuery.sql());
+        assertEquals(List.of("1", "<String>"), slowQuery.parameters());
+    }
+
+    @Test
+    @DisplayName("Given wrapped connections and statements, they should be compared by identity and the connection should unwrap to its target")
+    void wrap_connectionProxy() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Connection other = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            assertEquals(connection, connection);
+            assertNotEquals(connection, other);
+            assertEquals(System.identityHashCode(connection), connection.hashCode());
+            assertEquals(statement, statement);
+            assertNotEquals(statement, connection.prepareStatement("SELECT 1"));
+            assertInstanceOf(ConnectionProxy.class, connection);
+            assertFalse(DataSourceUtils.getTargetConnection(connection) instanceof ConnectionProxy);
+        }
+    }
+}
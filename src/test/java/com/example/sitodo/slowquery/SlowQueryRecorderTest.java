@@ -0,0 +1,72 @@
+package com.example.sitodo.slowquery;
+
+import com.example.sitodo.dto.SlowQueryDto;
+import com.example.sitodo.shard.ShardContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class SlowQueryRecorderTest {
+
+    @Test
+    @DisplayName("Given more slow statements than the capacity, only the most recent ones are kept")
+    void record_ringBuffer() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 3, false);
+
+        for (int i = 1; i <= 5; i++) {
+            recorder.record("SELECT " + i, List.of(), 1_000_000L * i, null);
+        }
+
+        assertEquals(List.of("SELECT 5", "SELECT 4", "SELECT 3"),
+            recorder.getSlowQueries().stream().map(SlowQueryDto::sql).toList());
+        assertEquals(5, recorder.getSlowQueries().get(0).durationMillis());
+
+        recorder.clear();
+        assertTrue(recorder.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given a statement recorded on a shard, it should be explained on the same shard")
+    void record_explainOnShard() throws Exception {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 3, true);
+        DataSource dataSource = mock(DataSource.class);
+        CompletableFuture<Integer> explainShard = new CompletableFuture<>();
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            explainShard.complete(ShardContext.current());
+            throw new SQLException("Not connected");
+        });
+
+        try {
+            ShardContext.callOn(3, () -> {
+                recorder.record("SELECT 1", List.of(), 1_000_000L, dataSource);
+                return null;
+            });
+
+            assertEquals(3, explainShard.get(5, TimeUnit.SECONDS));
+        } finally {
+            recorder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Bind parameters other than numbers, booleans and null are replaced by their type")
+    void redact() {
+        List<String> redacted = SlowQueryRecorder.redact(Arrays.asList(42L, true, null, "Buy milk", Instant.EPOCH));
+
+        assertEquals(List.of("42", "true", "null", "<String>", "<Instant>"), redacted);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.sitodo.startup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ChecksumSkippingSpringLiquibaseTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ChecksumSkippingSpringLiquibase liquibase;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:checksum_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sitodo", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        liquibase = new ChecksumSkippingSpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+    }
+
+    @Test
+    @DisplayName("Given a fresh database, afterPropertiesSet should apply the changelog and store its checksum")
+    void afterPropertiesSet_freshDatabase() throws Exception {
+        liquibase.afterPropertiesSet();
+
+        String checksum = jdbcTemplate.queryForObject(
+            "SELECT checksum FROM " + ChecksumSkippingSpringLiquibase.CHECKSUM_TABLE, String.class);
+
+        assertNotNull(checksum);
+        assertTrue(countAppliedChangeSets() > 0);
+    }
+
+    @Test
+    @DisplayName("Given an unchanged changelog, afterPropertiesSet should skip Liquibase")
+    void afterPropertiesSet_unchangedChangelog() throws Exception {
+        liquibase.afterPropertiesSet();
+        jdbcTemplate.update("DELETE FROM databasechangelog");
+
+        liquibase.afterPropertiesSet();
+
+        assertEquals(0, countAppliedChangeSets());
+    }
+
+    @Test
+    @DisplayName("Given a changed changelog, afterPropertiesSet should run Liquibase again")
+    void afterPropertiesSet_changedChangelog() throws Exception {
+        liquibase.afterPropertiesSet();
+        jdbcTemplate.update("UPDATE " + ChecksumSkippingSpringLiquibase.CHECKSUM_TABLE + " SET checksum = 'outdated'");
+
+        liquibase.afterPropertiesSet();
+
+        String checksum = jdbcTemplate.queryForObject(
+            "SELECT checksum FROM " + ChecksumSkippingSpringLiquibase.CHECKSUM_TABLE, String.class);
+        assertNotEquals("outdated", checksum);
+    }
+
+    private int countAppliedChangeSets() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM databasechangelog", Integer.class);
+    }
+}
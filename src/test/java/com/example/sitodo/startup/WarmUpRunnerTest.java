@@ -0,0 +1,105 @@
+package com.example.sitodo.startup;
+
+import com.example.sitodo.dto.TodoListSummaryDto;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "sitodo.warm-up.enabled=true",
+    "sitodo.warm-up.round-size=2",
+    "sitodo.warm-up.max-rounds=5"
+})
+class WarmUpRunnerTest {
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private ReadinessEvents readinessEvents;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Given the warm-up is enabled, the application should only become ready after it has completed")
+    void run_gatesReadiness() {
+        assertNotNull(warmUpRunner.getResult());
+        assertTrue(warmUpRunner.getResult().rounds() > 0);
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), readinessEvents.states);
+        assertTrue(readinessEvents.warmedUpWhenReady);
+        assertTrue(restTemplate.getForEntity("/actuator/health/readiness", String.class).getStatusCode().is2xxSuccessful());
+    }
+
+    @Test
+    @DisplayName("Given a warm-up, its scratch list should be deleted afterwards")
+    void warmUp_deletesScratchList() {
+        List<Long> before = listIds();
+
+        WarmUpRunner.Result result = warmUpRunner.warmUp();
+
+        assertTrue(result.rounds() > 0 && result.rounds() <= 5);
+        assertEquals(before, listIds());
+    }
+
+    private List<Long> listIds() {
+        return todoListService.getTodoListSummaries(0, Integer.MAX_VALUE).stream()
+            .map(TodoListSummaryDto::id)
+            .toList();
+    }
+
+    @TestConfiguration
+    static class ReadinessEventsConfiguration {
+
+        /**
+         * Looks the runner up lazily, since the application started by other tests picks up this
+         * configuration too, without the warm-up enabled.
+         */
+        @Bean
+        ReadinessEvents readinessEvents(ObjectProvider<WarmUpRunner> warmUpRunner) {
+            return new ReadinessEvents(warmUpRunner);
+        }
+    }
+
+    static class ReadinessEvents {
+
+        private final ObjectProvider<WarmUpRunner> warmUpRunner;
+
+        private final List<ReadinessState> states = new CopyOnWriteArrayList<>();
+
+        private volatile boolean warmedUpWhenReady;
+
+        ReadinessEvents(ObjectProvider<WarmUpRunner> warmUpRunner) {
+            this.warmUpRunner = warmUpRunner;
+        }
+
+        @EventListener
+        public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+            states.add(event.getState());
+
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                WarmUpRunner runner = warmUpRunner.getIfAvailable();
+                warmedUpWhenReady = runner != null && runner.getResult() != null;
+            }
+        }
+    }
+}
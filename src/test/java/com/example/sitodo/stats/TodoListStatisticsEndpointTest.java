@@ -0,0 +1,42 @@
+package com.example.sitodo.stats;
+
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("unit")
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoListStatisticsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Test
+    @DisplayName("Given an existing list, HTTP GET '/actuator/stats' counts it and its items")
+    void statistics_ok() throws Exception {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle("Buy milk");
+        todoListService.addTodoItem(todoItemForm);
+
+        mockMvc.perform(get("/actuator/stats")).andExpectAll(
+            status().isOk(),
+            jsonPath("$.lists", greaterThan(0)),
+            jsonPath("$.unfinishedItems", greaterThan(0))
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.sitodo.stats;
+
+import com.example.sitodo.dto.TodoListDto;
+import com.example.sitodo.dto.TodoListStatisticsDto;
+import com.example.sitodo.form.TodoItemForm;
+import com.example.sitodo.repository.TodoListRepository;
+import com.example.sitodo.service.TodoListService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Uses a database of its own: the other test contexts share the default in-memory database and
+ * write rows that these counters never see.
+ */
+@Tag("unit")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statistics")
+class TodoListStatisticsTest {
+
+    @Autowired
+    private TodoListStatistics todoListStatistics;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @BeforeEach
+    void setUp() {
+        // The first check loads the counts if the check at startup has not run yet; two checks
+        // correct any difference left by an earlier test, so each test starts from matching counts
+        todoListStatistics.check();
+        todoListStatistics.check();
+    }
+
+    @Test
+    @DisplayName("Given lists that are changed through the service, the statistics match the database")
+    void statistics_followWrites() {
+        TodoListDto todoList = todoListService.addTodoItem(createTodoItemForm("Buy milk"));
+        todoList = todoListService.addTodoItem(todoList.id(), createTodoItemForm("Cut grass"));
+        todoListService.addTodoItem(todoList.id(), createTodoItemForm("Wash car"));
+        todoListService.setTodoItemFinished(todoList.id(), todoList.items().get(0).id(), true);
+        todoListService.deleteTodoItem(todoList.id(), todoList.items().get(1).id());
+        TodoListDto deletedList = todoListService.addTodoItem(createTodoItemForm("Feed cat"));
+        todoListService.deleteTodoList(deletedList.id());
+
+        assertStatisticsMatchDatabase();
+    }
+
+    @Test
+    @DisplayName("Given statistics that differ from the database, the second check corrects them")
+    void check_correctsDifference() {
+        long items = todoListStatistics.getStatistics().items();
+        todoListStatistics.recordItemsAdded(5);
+
+        todoListStatistics.check();
+        long afterFirstCheck = todoListStatistics.getStatistics().items();
+        todoListStatistics.check();
+
+        assertEquals(items + 5, afterFirstCheck);
+        assertEquals(items, todoListStatistics.getStatistics().items());
+        assertStatisticsMatchDatabase();
+    }
+
+    private void assertStatisticsMatchDatabase() {
+        TodoListRepository.Totals totals = todoListRepository.countTotals();
+        TodoListStatisticsDto statistics = todoListStatistics.getStatistics();
+
+        assertEquals(totals.getLists(), statistics.lists());
+        assertEquals(totals.getItems(), statistics.items());
+        assertEquals(totals.getFinishedItems(), statistics.finishedItems());
+    }
+
+    private static TodoItemForm createTodoItemForm(String title) {
+        TodoItemForm todoItemForm = new TodoItemForm();
+        todoItemForm.setTitle(title);
+
+        return todoItemForm;
+    }
+}